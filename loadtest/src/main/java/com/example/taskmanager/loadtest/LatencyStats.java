@@ -0,0 +1,72 @@
+package com.example.taskmanager.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies for one stage, per operation, in microseconds.
+ *
+ * "latency" is measured from the arrival's intended start time, so when the system (or
+ * the generator) falls behind, the queueing delay is charged to the requests that waited:
+ * this is the coordinated-omission-corrected number. "service" is measured from the
+ * moment the request was actually sent, and is what a closed-loop tool would report.
+ */
+final class LatencyStats {
+
+    static final long MAX_TRACKED_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    static final class Op {
+        final ConcurrentHistogram latency = new ConcurrentHistogram(MAX_TRACKED_MICROS, 3);
+        final ConcurrentHistogram service = new ConcurrentHistogram(MAX_TRACKED_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    }
+
+    private final Map<String, Op> ops = new ConcurrentHashMap<>();
+    private final Recorder interval = new Recorder(MAX_TRACKED_MICROS, 3);
+    private final LongAdder dropped = new LongAdder();
+
+    void record(String op, long latencyNanos, long serviceNanos, int status) {
+        Op stats = ops.computeIfAbsent(op, k -> new Op());
+        long latencyMicros = clamp(latencyNanos);
+        stats.latency.recordValue(latencyMicros);
+        stats.service.recordValue(clamp(serviceNanos));
+        interval.recordValue(latencyMicros);
+        stats.statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+        if (status < 200 || status >= 400) stats.errors.increment();
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    /** Corrected latencies since the previous call, for progress lines. */
+    Histogram intervalHistogram() {
+        return interval.getIntervalHistogram();
+    }
+
+    Map<String, Op> operations() {
+        return new TreeMap<>(ops);
+    }
+
+    Histogram totalLatency() {
+        Histogram total = new Histogram(MAX_TRACKED_MICROS, 3);
+        for (Op op : ops.values()) total.add(op.latency);
+        return total;
+    }
+
+    private static long clamp(long nanos) {
+        return Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_TRACKED_MICROS));
+    }
+}
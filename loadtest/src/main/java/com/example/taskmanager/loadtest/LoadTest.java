@@ -0,0 +1,91 @@
+package com.example.taskmanager.loadtest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Entry point: registers and logs in a pool of users, seeds their tasks, then drives the
+ * API at each requested arrival rate in turn. Ramp the rates (e.g. --rate 25,50,100,200)
+ * to find where the corrected p99 bends; run one rate for hours to soak.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        TaskManagerClient client = new TaskManagerClient(options.baseUrl(), options.requestTimeout());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<VirtualUser> users = setUp(client, options, executor);
+            Workload workload = new Workload(client, users);
+            OpenModelDriver driver = new OpenModelDriver(workload, executor, options.arrival().equals("poisson"),
+                    options.maxInFlight(), options.printInterval(), options.seed());
+
+            if (!options.warmup().isZero()) {
+                System.out.printf("Warm-up: %ds at %.0f/s (not recorded)%n",
+                        options.warmup().toSeconds(), options.rates().get(0));
+                driver.run("warmup", options.rates().get(0), options.warmup(), new LatencyStats());
+                driver.drain(options.requestTimeout());
+            }
+
+            Report report = new Report(options, Instant.now());
+            boolean failed = false;
+            for (double rate : options.rates()) {
+                LatencyStats stats = new LatencyStats();
+                long t0 = System.nanoTime();
+                long issued = driver.run("stage", rate, options.stageDuration(), stats);
+                driver.drain(options.requestTimeout());
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - t0);
+
+                double p99 = report.addStage(rate, issued, elapsed, stats);
+                if (options.failP99Ms() != null && p99 > options.failP99Ms()) {
+                    System.out.printf("Stage %.0f/s p99 %.1fms exceeds --fail-p99-ms %.1f%n", rate, p99, options.failP99Ms());
+                    failed = true;
+                }
+            }
+            report.write(options.report());
+            if (failed) System.exit(2);
+        }
+    }
+
+    private static List<VirtualUser> setUp(TaskManagerClient client, Options options, ExecutorService executor)
+            throws Exception {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < options.users(); i++) {
+            users.add(new VirtualUser("lt-" + run + "-" + i + "@load.test", "Load-" + run, i < options.admins()));
+        }
+
+        System.out.printf("Setting up %d users (%d admins) with %d tasks each against %s%n",
+                options.users(), options.admins(), options.seedTasks(), options.baseUrl());
+        List<Future<?>> pending = new ArrayList<>();
+        for (VirtualUser user : users) {
+            long seed = new SplittableRandom(options.seed()).nextLong() ^ user.email.hashCode();
+            pending.add(executor.submit(() -> {
+                TaskManagerClient.Response r = client.register(user.email, user.password, user.admin);
+                if (!r.ok()) throw new IllegalStateException("register " + user.email + " -> " + r.status());
+                r = client.login(user.email, user.password);
+                if (!r.ok()) throw new IllegalStateException("login " + user.email + " -> " + r.status());
+                user.token = TaskManagerClient.json(r).path("token").asText();
+
+                SplittableRandom rnd = new SplittableRandom(seed);
+                for (int t = 0; t < options.seedTasks(); t++) {
+                    r = client.create(user.token, Workload.randomTask(rnd));
+                    if (!r.ok()) throw new IllegalStateException("seed task -> " + r.status());
+                    user.created(TaskManagerClient.json(r).path("id").asLong(), t % 4 != 0);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : pending) f.get();
+        return users;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.taskmanager.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model arrival generator: requests are started on a schedule that does not depend on
+ * how fast earlier ones complete, the way independent users behave. Each arrival runs on
+ * its own virtual thread and carries its scheduled start time, which LatencyStats uses to
+ * correct for coordinated omission.
+ */
+final class OpenModelDriver {
+
+    private final Workload workload;
+    private final ExecutorService executor;
+    private final boolean poisson;
+    private final int maxInFlight;
+    private final Duration printInterval;
+    private final SplittableRandom rnd;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenModelDriver(Workload workload, ExecutorService executor, boolean poisson, int maxInFlight,
+                    Duration printInterval, long seed) {
+        this.workload = workload;
+        this.executor = executor;
+        this.poisson = poisson;
+        this.maxInFlight = maxInFlight;
+        this.printInterval = printInterval;
+        this.rnd = new SplittableRandom(seed);
+    }
+
+    /** Issues arrivals at {@code ratePerSecond} for {@code duration}; returns the number issued. */
+    long run(String label, double ratePerSecond, Duration duration, LatencyStats stats) {
+        double meanGapNanos = 1e9 / ratePerSecond;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long nextPrint = start + printInterval.toNanos();
+        double next = start;
+        long issued = 0;
+
+        while (true) {
+            long due = (long) next;
+            if (due >= end) break;
+            long now;
+            while ((now = System.nanoTime()) < due) LockSupport.parkNanos(due - now);
+
+            if (now >= nextPrint) {
+                progress(label, ratePerSecond, stats, (now - start) / 1e9);
+                nextPrint += printInterval.toNanos();
+            }
+
+            // Draw on the driver thread so the operation mix is reproducible for a given seed
+            double opDraw = rnd.nextDouble();
+            if (inFlight.get() >= maxInFlight) {
+                stats.dropped();
+            } else {
+                inFlight.incrementAndGet();
+                final long intended = due;
+                executor.execute(() -> {
+                    try {
+                        workload.fire(intended, opDraw, stats);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+            issued++;
+            next += poisson ? -Math.log(1.0 - rnd.nextDouble()) * meanGapNanos : meanGapNanos;
+        }
+        return issued;
+    }
+
+    /** Waits for arrivals still running at the end of a stage, so they land in its stats. */
+    void drain(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+    }
+
+    private void progress(String label, double rate, LatencyStats stats, double elapsedSeconds) {
+        Histogram h = stats.intervalHistogram();
+        System.out.printf("[%s %.0f/s %5.0fs] n=%d p50=%.1fms p99=%.1fms max=%.1fms in-flight=%d dropped=%d%n",
+                label, rate, elapsedSeconds, h.getTotalCount(),
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+                h.getMaxValue() / 1000.0, inFlight.get(), stats.droppedCount());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.taskmanager.loadtest;
+
+/**
+ * What one arrival does. Weights approximate a day of real traffic: mostly list views,
+ * a steady trickle of edits, the occasional attachment.
+ */
+enum Operation {
+    LIST("list", 28),
+    LIST_FILTERED("list_filtered", 15),
+    PAGINATE("paginate", 10),
+    GET("get", 14),
+    CREATE("create", 10),
+    UPDATE("update", 10),
+    DELETE("delete", 3),
+    UPLOAD("upload", 4),
+    DOWNLOAD("download", 4),
+    LOGIN("login", 2);
+
+    final String metric;
+    final int weight;
+
+    Operation(String metric, int weight) {
+        this.metric = metric;
+        this.weight = weight;
+    }
+
+    private static final Operation[] WHEEL;
+
+    static {
+        int total = 0;
+        for (Operation op : values()) total += op.weight;
+        WHEEL = new Operation[total];
+        int i = 0;
+        for (Operation op : values()) {
+            for (int w = 0; w < op.weight; w++) WHEEL[i++] = op;
+        }
+    }
+
+    static Operation pick(double uniform) {
+        return WHEEL[(int) (uniform * WHEEL.length)];
+    }
+}
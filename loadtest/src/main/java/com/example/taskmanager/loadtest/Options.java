@@ -0,0 +1,103 @@
+package com.example.taskmanager.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Command-line options; every flag has a default so a bare run works against localhost. */
+record Options(
+        URI baseUrl,
+        List<Double> rates,
+        Duration stageDuration,
+        Duration warmup,
+        String arrival,
+        int users,
+        int admins,
+        int seedTasks,
+        int maxInFlight,
+        Duration requestTimeout,
+        Duration printInterval,
+        Path report,
+        Double failP99Ms,
+        long seed
+) {
+
+    static Options parse(String[] args) {
+        URI baseUrl = URI.create("http://localhost:8080");
+        List<Double> rates = List.of(50.0);
+        Duration stage = Duration.ofSeconds(60);
+        Duration warmup = Duration.ofSeconds(10);
+        String arrival = "poisson";
+        int users = 50;
+        int admins = 2;
+        int seedTasks = 20;
+        int maxInFlight = 5_000;
+        Duration timeout = Duration.ofSeconds(30);
+        Duration print = Duration.ofSeconds(5);
+        Path report = Path.of("target", "loadtest-report.json");
+        Double failP99 = null;
+        long seed = System.nanoTime();
+
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (flag.equals("--help") || flag.equals("-h")) {
+                usage();
+                System.exit(0);
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + flag);
+            String v = args[++i];
+            switch (flag) {
+                case "--base-url" -> baseUrl = URI.create(v);
+                case "--rate" -> {
+                    List<Double> parsed = new ArrayList<>();
+                    for (String r : v.split(",")) parsed.add(Double.parseDouble(r.trim()));
+                    rates = List.copyOf(parsed);
+                }
+                case "--stage-seconds" -> stage = Duration.ofSeconds(Long.parseLong(v));
+                case "--warmup-seconds" -> warmup = Duration.ofSeconds(Long.parseLong(v));
+                case "--arrival" -> {
+                    if (!v.equals("poisson") && !v.equals("constant")) {
+                        throw new IllegalArgumentException("--arrival must be poisson or constant");
+                    }
+                    arrival = v;
+                }
+                case "--users" -> users = Integer.parseInt(v);
+                case "--admins" -> admins = Integer.parseInt(v);
+                case "--seed-tasks" -> seedTasks = Integer.parseInt(v);
+                case "--max-in-flight" -> maxInFlight = Integer.parseInt(v);
+                case "--timeout-seconds" -> timeout = Duration.ofSeconds(Long.parseLong(v));
+                case "--print-seconds" -> print = Duration.ofSeconds(Long.parseLong(v));
+                case "--report" -> report = Path.of(v);
+                case "--fail-p99-ms" -> failP99 = Double.parseDouble(v);
+                case "--seed" -> seed = Long.parseLong(v);
+                default -> throw new IllegalArgumentException("Unknown option " + flag);
+            }
+        }
+        if (admins > users) throw new IllegalArgumentException("--admins cannot exceed --users");
+        return new Options(baseUrl, rates, stage, warmup, arrival, users, admins, seedTasks,
+                maxInFlight, timeout, print, report, failP99, seed);
+    }
+
+    static void usage() {
+        System.out.println("""
+                Task Manager load test (open model, coordinated-omission corrected)
+
+                  --base-url URL          app under test            (http://localhost:8080)
+                  --rate R1,R2,...        arrivals/s, one stage each (50)
+                  --stage-seconds N       length of every stage      (60)
+                  --warmup-seconds N      unrecorded run at R1       (10)
+                  --arrival poisson|constant                         (poisson)
+                  --users N               virtual users to register  (50)
+                  --admins N              of which ADMIN             (2)
+                  --seed-tasks N          tasks created per user     (20)
+                  --max-in-flight N       arrivals beyond this are counted as dropped (5000)
+                  --timeout-seconds N     per-request timeout        (30)
+                  --print-seconds N       progress line interval     (5)
+                  --report FILE           JSON report                (target/loadtest-report.json)
+                  --fail-p99-ms X         exit 2 if any stage's corrected p99 exceeds X
+                  --seed N                RNG seed for a reproducible operation mix
+                """);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.taskmanager.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Machine-readable run summary (JSON), plus the same numbers as a console table. */
+final class Report {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Map<String, Object> root = new LinkedHashMap<>();
+    private final List<Map<String, Object>> stages = new ArrayList<>();
+
+    Report(Options options, Instant startedAt) {
+        root.put("baseUrl", options.baseUrl().toString());
+        root.put("startedAt", startedAt.toString());
+        root.put("arrival", options.arrival());
+        root.put("users", options.users());
+        root.put("admins", options.admins());
+        root.put("stageSeconds", options.stageDuration().toSeconds());
+        root.put("seed", options.seed());
+        root.put("latencyNote", "latencyMs is measured from the scheduled arrival time "
+                + "(coordinated-omission corrected); serviceTimeMs from the actual send");
+        root.put("stages", stages);
+    }
+
+    /** Adds one stage and returns its corrected p99 in milliseconds. */
+    double addStage(double targetRate, long issued, Duration elapsed, LatencyStats stats) {
+        Map<String, Object> stage = new LinkedHashMap<>();
+        Histogram total = stats.totalLatency();
+        long errors = 0;
+
+        Map<String, Object> ops = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyStats.Op> e : stats.operations().entrySet()) {
+            LatencyStats.Op op = e.getValue();
+            Map<String, Object> o = new LinkedHashMap<>();
+            o.put("count", op.latency.getTotalCount());
+            o.put("errors", op.errors.sum());
+            Map<String, Long> statuses = new LinkedHashMap<>();
+            op.statuses.forEach((code, n) -> statuses.put(String.valueOf(code), n.sum()));
+            o.put("statuses", statuses);
+            o.put("latencyMs", summary(op.latency));
+            o.put("serviceTimeMs", summary(op.service));
+            ops.put(e.getKey(), o);
+            errors += op.errors.sum();
+        }
+
+        stage.put("targetRate", targetRate);
+        stage.put("issued", issued);
+        stage.put("completed", total.getTotalCount());
+        stage.put("achievedRate", round(total.getTotalCount() / Math.max(elapsed.toMillis() / 1000.0, 1e-9)));
+        stage.put("errors", errors);
+        stage.put("dropped", stats.droppedCount());
+        stage.put("latencyMs", summary(total));
+        stage.put("operations", ops);
+        stages.add(stage);
+
+        printStage(targetRate, total, errors, stats);
+        return total.getValueAtPercentile(99) / 1000.0;
+    }
+
+    void write(Path file) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), root);
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    private static Map<String, Object> summary(Histogram h) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("min", round(h.getMinValue() / 1000.0));
+        m.put("mean", round(h.getMean() / 1000.0));
+        for (double p : PERCENTILES) {
+            m.put("p" + (p == Math.floor(p) ? String.valueOf((int) p) : String.valueOf(p)),
+                    round(h.getValueAtPercentile(p) / 1000.0));
+        }
+        m.put("max", round(h.getMaxValue() / 1000.0));
+        return m;
+    }
+
+    private static void printStage(double rate, Histogram total, long errors, LatencyStats stats) {
+        System.out.printf("%n== stage %.0f/s: %d requests, %d errors, %d dropped ==%n",
+                rate, total.getTotalCount(), errors, stats.droppedCount());
+        System.out.printf("%-14s %8s %7s %10s %10s %10s %10s %12s%n",
+                "operation", "count", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+        stats.operations().forEach((name, op) -> System.out.printf("%-14s %8d %7d %10.1f %10.1f %10.1f %10.1f %12.1f%n",
+                name, op.latency.getTotalCount(), op.errors.sum(),
+                op.latency.getValueAtPercentile(50) / 1000.0, op.latency.getValueAtPercentile(99) / 1000.0,
+                op.latency.getValueAtPercentile(99.9) / 1000.0, op.latency.getMaxValue() / 1000.0,
+                op.service.getValueAtPercentile(99) / 1000.0));
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+}
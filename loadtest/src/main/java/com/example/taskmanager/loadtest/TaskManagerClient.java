@@ -0,0 +1,112 @@
+package com.example.taskmanager.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/** Thin blocking client for the endpoints the scenarios use. Meant to be called from virtual threads. */
+final class TaskManagerClient {
+
+    record Response(int status, byte[] body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient http;
+    private final URI base;
+    private final Duration timeout;
+
+    TaskManagerClient(URI base, Duration timeout) {
+        this.base = base;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    Response register(String email, String password, boolean admin) throws IOException, InterruptedException {
+        return postJson("/api/auth/register", null,
+                Map.of("email", email, "password", password, "role", admin ? "ADMIN" : "USER"));
+    }
+
+    Response login(String email, String password) throws IOException, InterruptedException {
+        return postJson("/api/auth/login", null, Map.of("email", email, "password", password));
+    }
+
+    Response list(String token, String query) throws IOException, InterruptedException {
+        return send(request("/api/tasks" + query, token).GET().build());
+    }
+
+    Response get(String token, long id) throws IOException, InterruptedException {
+        return send(request("/api/tasks/" + id, token).GET().build());
+    }
+
+    Response create(String token, Map<String, Object> body) throws IOException, InterruptedException {
+        return postJson("/api/tasks", token, body);
+    }
+
+    Response update(String token, long id, Map<String, Object> body) throws IOException, InterruptedException {
+        return send(request("/api/tasks/" + id, token)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                .build());
+    }
+
+    Response delete(String token, long id) throws IOException, InterruptedException {
+        return send(request("/api/tasks/" + id, token).DELETE().build());
+    }
+
+    Response upload(String token, long id, String fileName, byte[] pdf) throws IOException, InterruptedException {
+        String boundary = "----loadtest" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(pdf.length + 256);
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"files\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(pdf);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return send(request("/api/tasks/" + id + "/upload", token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build());
+    }
+
+    Response download(String token, String fileName) throws IOException, InterruptedException {
+        return send(request("/api/tasks/file/" + fileName, token).GET().build());
+    }
+
+    static JsonNode json(Response r) throws IOException {
+        return JSON.readTree(r.body());
+    }
+
+    private Response postJson(String path, String token, Object body) throws IOException, InterruptedException {
+        return send(request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                .build());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(base.resolve(path)).timeout(timeout);
+        if (token != null) b.header("Authorization", "Bearer " + token);
+        return b;
+    }
+
+    private Response send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> r = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        return new Response(r.statusCode(), r.body());
+    }
+}
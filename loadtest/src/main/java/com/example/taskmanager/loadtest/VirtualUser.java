@@ -0,0 +1,72 @@
+package com.example.taskmanager.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.random.RandomGenerator;
+
+/**
+ * A registered account and the ids it knows about. Tasks are split into a long-lived set
+ * (read, updated, uploaded to) and a disposable set that DELETE consumes, so deletes never
+ * pull a task out from under a concurrent read.
+ */
+final class VirtualUser {
+
+    private static final int MAX_KNOWN_FILES = 64;
+
+    final String email;
+    final String password;
+    final boolean admin;
+    volatile String token;
+
+    private final List<Long> tasks = new ArrayList<>();
+    private final ConcurrentLinkedDeque<Long> disposable = new ConcurrentLinkedDeque<>();
+    // One entry per free attachment slot (the API allows 3 documents per task)
+    private final ConcurrentLinkedQueue<Long> uploadSlots = new ConcurrentLinkedQueue<>();
+    private final List<String> files = new ArrayList<>();
+
+    VirtualUser(String email, String password, boolean admin) {
+        this.email = email;
+        this.password = password;
+        this.admin = admin;
+    }
+
+    void created(long taskId, boolean keep) {
+        if (!keep) {
+            disposable.addLast(taskId);
+            return;
+        }
+        synchronized (tasks) {
+            tasks.add(taskId);
+        }
+        for (int i = 0; i < 3; i++) uploadSlots.add(taskId);
+    }
+
+    Long randomTask(RandomGenerator rnd) {
+        synchronized (tasks) {
+            return tasks.isEmpty() ? null : tasks.get(rnd.nextInt(tasks.size()));
+        }
+    }
+
+    Long takeDisposable() {
+        return disposable.pollFirst();
+    }
+
+    Long takeUploadSlot() {
+        return uploadSlots.poll();
+    }
+
+    void uploaded(String fileName) {
+        synchronized (files) {
+            if (files.size() == MAX_KNOWN_FILES) files.remove(0);
+            files.add(fileName);
+        }
+    }
+
+    String randomFile(RandomGenerator rnd) {
+        synchronized (files) {
+            return files.isEmpty() ? null : files.get(rnd.nextInt(files.size()));
+        }
+    }
+}
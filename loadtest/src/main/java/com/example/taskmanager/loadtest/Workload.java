@@ -0,0 +1,156 @@
+package com.example.taskmanager.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Turns one arrival into exactly one HTTP request against a random virtual user.
+ * Operations that need state the user does not have yet (nothing to delete, no free
+ * attachment slot, nothing uploaded) fall back to CREATE, so every arrival is a request.
+ */
+final class Workload {
+
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "DONE"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+    private static final byte[] PDF = minimalPdf();
+
+    private final TaskManagerClient client;
+    private final List<VirtualUser> users;
+
+    Workload(TaskManagerClient client, List<VirtualUser> users) {
+        this.client = client;
+        this.users = users;
+    }
+
+    /** Runs one arrival that was due at {@code intendedNanos} and records it in {@code stats}. */
+    void fire(long intendedNanos, double opDraw, LatencyStats stats) {
+        RandomGenerator rnd = ThreadLocalRandom.current();
+        VirtualUser user = users.get(rnd.nextInt(users.size()));
+        Operation op = Operation.pick(opDraw);
+
+        long sent = System.nanoTime();
+        int status;
+        try {
+            Result result = execute(op, user, rnd);
+            op = result.op();
+            status = result.status();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            status = 0;
+        }
+        long done = System.nanoTime();
+        stats.record(op.metric, done - intendedNanos, done - sent, status);
+    }
+
+    private record Result(Operation op, int status) {}
+
+    private Result execute(Operation op, VirtualUser user, RandomGenerator rnd) throws Exception {
+        switch (op) {
+            case LIST -> {
+                return new Result(op, client.list(user.token, "?page=0&size=20").status());
+            }
+            case LIST_FILTERED -> {
+                String q = rnd.nextBoolean()
+                        ? "?status=" + STATUSES[rnd.nextInt(STATUSES.length)]
+                        : "?priority=" + PRIORITIES[rnd.nextInt(PRIORITIES.length)];
+                return new Result(op, client.list(user.token, q + "&page=0&size=20").status());
+            }
+            case PAGINATE -> {
+                String q = "?page=" + (1 + rnd.nextInt(5)) + "&size=20&sort=dueDate,asc";
+                return new Result(op, client.list(user.token, q).status());
+            }
+            case GET -> {
+                Long id = user.randomTask(rnd);
+                if (id == null) return create(user, rnd);
+                return new Result(op, client.get(user.token, id).status());
+            }
+            case UPDATE -> {
+                Long id = user.randomTask(rnd);
+                if (id == null) return create(user, rnd);
+                Map<String, Object> body = new HashMap<>();
+                body.put("status", STATUSES[rnd.nextInt(STATUSES.length)]);
+                body.put("priority", PRIORITIES[rnd.nextInt(PRIORITIES.length)]);
+                body.put("description", "updated " + System.nanoTime());
+                return new Result(op, client.update(user.token, id, body).status());
+            }
+            case DELETE -> {
+                Long id = user.takeDisposable();
+                if (id == null) return create(user, rnd);
+                return new Result(op, client.delete(user.token, id).status());
+            }
+            case UPLOAD -> {
+                Long id = user.takeUploadSlot();
+                if (id == null) return create(user, rnd);
+                TaskManagerClient.Response r = client.upload(user.token, id, "load-" + rnd.nextInt(1_000_000) + ".pdf", PDF);
+                if (r.ok()) {
+                    JsonNode docs = TaskManagerClient.json(r).path("documents");
+                    if (!docs.isEmpty()) user.uploaded(docs.get(docs.size() - 1).asText());
+                }
+                return new Result(op, r.status());
+            }
+            case DOWNLOAD -> {
+                String file = user.randomFile(rnd);
+                if (file == null) return create(user, rnd);
+                return new Result(op, client.download(user.token, file).status());
+            }
+            case LOGIN -> {
+                TaskManagerClient.Response r = client.login(user.email, user.password);
+                if (r.ok()) user.token = TaskManagerClient.json(r).path("token").asText();
+                return new Result(op, r.status());
+            }
+            default -> {
+                return create(user, rnd);
+            }
+        }
+    }
+
+    private Result create(VirtualUser user, RandomGenerator rnd) throws Exception {
+        TaskManagerClient.Response r = client.create(user.token, randomTask(rnd));
+        if (r.ok()) user.created(TaskManagerClient.json(r).path("id").asLong(), rnd.nextInt(4) != 0);
+        return new Result(Operation.CREATE, r.status());
+    }
+
+    static Map<String, Object> randomTask(RandomGenerator rnd) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("title", "Load task " + rnd.nextInt(1_000_000));
+        body.put("description", "Generated by the load test");
+        body.put("status", STATUSES[rnd.nextInt(STATUSES.length)]);
+        body.put("priority", PRIORITIES[rnd.nextInt(PRIORITIES.length)]);
+        body.put("dueDate", LocalDate.now().plusDays(rnd.nextInt(60)).toString());
+        return body;
+    }
+
+    // A one-page PDF with a correct xref table, so the preview worker has something real to render
+    private static byte[] minimalPdf() {
+        String[] objects = {
+                "<< /Type /Catalog /Pages 2 0 R >>",
+                "<< /Type /Pages /Kids [3 0 R] /Count 1 >>",
+                "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 612 792] /Contents 4 0 R "
+                        + "/Resources << /Font << /F1 5 0 R >> >> >>",
+                null,
+                "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica >>"
+        };
+        String content = "BT /F1 24 Tf 72 700 Td (Load test attachment) Tj ET";
+        objects[3] = "<< /Length " + content.length() + " >>\nstream\n" + content + "\nendstream";
+
+        StringBuilder pdf = new StringBuilder("%PDF-1.4\n");
+        int[] offsets = new int[objects.length];
+        for (int i = 0; i < objects.length; i++) {
+            offsets[i] = pdf.length();
+            pdf.append(i + 1).append(" 0 obj\n").append(objects[i]).append("\nendobj\n");
+        }
+        int xref = pdf.length();
+        pdf.append("xref\n0 ").append(objects.length + 1).append("\n0000000000 65535 f \n");
+        for (int offset : offsets) pdf.append(String.format("%010d 00000 n \n", offset));
+        pdf.append("trailer\n<< /Size ").append(objects.length + 1).append(" /Root 1 0 R >>\n")
+                .append("startxref\n").append(xref).append("\n%%EOF\n");
+        return pdf.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+}
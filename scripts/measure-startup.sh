@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+#
+# Cold-start measurement for the fast-startup build.
+#
+# For each mode it launches the app RUNS times and records
+#   started  - "Started TaskManagerApplication in N seconds" as reported by Spring
+#   first    - wall time from JVM launch until the first HTTP response on /actuator/health
+#
+# Modes:  plain    java -jar (same jar, AOT code ignored)
+#         aot      -Dspring.aot.enabled=true
+#         aot+cds  -Dspring.aot.enabled=true -XX:SharedArchiveFile=app.jsa
+#
+# Usage:  scripts/measure-startup.sh [RUNS]
+#   Needs the Postgres from application.properties to be reachable.
+#   SKIP_BUILD=1 reuses target/*.jar, JAVA=/path/to/java picks the JVM, PORT (default 8080).
+#
+set -euo pipefail
+
+RUNS=${1:-3}
+PORT=${PORT:-8080}
+JAVA=${JAVA:-java}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+WORK=$ROOT/target/startup
+APP=$WORK/extracted
+
+if [[ "${SKIP_BUILD:-0}" != 1 ]]; then
+  (cd "$ROOT" && mvn -B -q -Pfast-startup clean package -DskipTests)
+fi
+
+rm -rf "$WORK" && mkdir -p "$WORK"
+cp "$ROOT"/target/taskmanager-*.jar "$WORK/app.jar"
+(cd "$WORK" && "$JAVA" -Djarmode=tools -jar app.jar extract --destination extracted)
+
+# Same training run as the Dockerfile: stop right after refresh, no database needed
+echo "Recording CDS archive..."
+(cd "$APP" && "$JAVA" -XX:ArchiveClassesAtExit=app.jsa -Xlog:cds=error \
+    -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar app.jar \
+    --spring.jpa.hibernate.ddl-auto=none \
+    --spring.sql.init.mode=never \
+    --spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false \
+    --spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect \
+    > "$WORK/training.log" 2>&1)
+
+RESULTS=$WORK/results.tsv
+printf 'mode\trun\tstarted_s\tfirst_request_ms\n' > "$RESULTS"
+
+measure() {
+  local mode=$1; shift
+  for run in $(seq "$RUNS"); do
+    local log=$WORK/$mode-$run.log
+    local t0 pid
+    t0=$(date +%s%N)
+    (cd "$APP" && exec "$JAVA" "$@" -jar app.jar --server.port="$PORT" --spring.profiles.active=prod) > "$log" 2>&1 &
+    pid=$!
+
+    until [[ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health")" != 000 ]]; do
+      if ! kill -0 "$pid" 2>/dev/null; then echo "$mode run $run exited early, see $log" >&2; exit 1; fi
+      sleep 0.05
+    done
+    local first_ms=$(( ($(date +%s%N) - t0) / 1000000 ))
+
+    local started
+    started=$(grep -o 'Started TaskManagerApplication in [0-9.]*' "$log" | grep -o '[0-9.]*$' || echo '?')
+    kill "$pid" && wait "$pid" 2>/dev/null || true
+
+    printf '%s\t%s\t%s\t%s\n' "$mode" "$run" "$started" "$first_ms" | tee -a "$RESULTS"
+  done
+}
+
+measure plain
+measure aot -Dspring.aot.enabled=true
+measure aot+cds -Dspring.aot.enabled=true -XX:SharedArchiveFile=app.jsa -Xlog:cds=error
+
+echo
+awk -F'\t' 'NR > 1 { s[$1] += $3; f[$1] += $4; n[$1]++ }
+  END { printf "%-8s %10s %18s\n", "mode", "started_s", "first_request_ms";
+        split("plain aot aot+cds", modes, " ");
+        for (i = 1; i <= 3; i++) { m = modes[i]; printf "%-8s %10.2f %18.0f\n", m, s[m] / n[m], f[m] / n[m] } }' "$RESULTS"
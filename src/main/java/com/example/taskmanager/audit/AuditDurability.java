@@ -0,0 +1,8 @@
+package com.example.taskmanager.audit;
+
+/**
+ * BEST_EFFORT: diffs go through the ring buffer and are written shortly after the
+ * task commit; a crash or a full buffer can lose them.
+ * FLUSH_BEFORE_COMMIT: diffs are inserted in the task's own transaction.
+ */
+public enum AuditDurability { BEST_EFFORT, FLUSH_BEFORE_COMMIT }
@@ -0,0 +1,13 @@
+package com.example.taskmanager.audit;
+
+import java.time.Instant;
+
+public record AuditRecord(
+        Long taskId,
+        String actor,
+        String action,
+        String field,
+        String oldValue,
+        String newValue,
+        Instant changedAt
+) {}
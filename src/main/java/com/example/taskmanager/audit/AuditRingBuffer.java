@@ -0,0 +1,70 @@
+package com.example.taskmanager.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ * <p>
+ * Each slot carries a sequence number: a producer may claim position {@code p}
+ * only when the slot's sequence equals {@code p}, and publishes by setting it to
+ * {@code p + 1}; the consumer frees the slot for the next lap by setting
+ * {@code p + capacity}. Producers never block: {@link #offer} fails when full.
+ */
+public final class AuditRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public AuditRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("Capacity must be a power of two");
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) sequences.set(i, i);
+    }
+
+    public boolean offer(E e) {
+        while (true) {
+            long pos = tail.get();
+            int idx = (int) (pos & mask);
+            long diff = sequences.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(idx, e);
+                    sequences.set(idx, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // Single consumer only
+    public int drainTo(List<? super E> sink, int max) {
+        long h = head;
+        int n = 0;
+        while (n < max) {
+            int idx = (int) (h & mask);
+            if (sequences.get(idx) != h + 1) break;
+            sink.add(slots.get(idx));
+            slots.lazySet(idx, null);
+            sequences.set(idx, h + mask + 1);
+            h++;
+            n++;
+        }
+        head = h;
+        return n;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.taskmanager.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains the audit ring buffer on a single background thread and writes each
+ * batch as one multi-row INSERT into task_audit_log.
+ */
+@Component
+public class AuditWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditWriter.class);
+    private static final String INSERT_PREFIX =
+            "INSERT INTO task_audit_log (task_id, actor, action, field, old_value, new_value, changed_at) VALUES ";
+
+    private final JdbcTemplate jdbc;
+    private final AuditRingBuffer<AuditRecord> buffer;
+    private final int batchSize;
+    private final long idleParkNanos;
+    private final Counter dropped;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public AuditWriter(JdbcTemplate jdbc,
+                       MeterRegistry registry,
+                       @Value("${app.audit.buffer-capacity:65536}") int capacity,
+                       @Value("${app.audit.batch-size:500}") int batchSize,
+                       @Value("${app.audit.flush-interval-ms:50}") long flushIntervalMs) {
+        this.jdbc = jdbc;
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.idleParkNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.dropped = Counter.builder("audit.records.dropped").register(registry);
+        Gauge.builder("audit.buffer.depth", buffer, AuditRingBuffer::size).register(registry);
+
+        this.thread = new Thread(this::loop, "audit-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // Never blocks the caller; a full buffer drops the record and counts it
+    public void enqueue(List<AuditRecord> records) {
+        for (AuditRecord r : records) {
+            if (!buffer.offer(r)) dropped.increment();
+        }
+    }
+
+    // Writes on the caller's connection, so it joins any surrounding transaction
+    public void insert(List<AuditRecord> records) {
+        for (int i = 0; i < records.size(); i += batchSize) {
+            List<AuditRecord> chunk = records.subList(i, Math.min(i + batchSize, records.size()));
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+            Object[] args = new Object[chunk.size() * 7];
+            int a = 0;
+            for (int r = 0; r < chunk.size(); r++) {
+                if (r > 0) sql.append(',');
+                sql.append("(?,?,?,?,?,?,?)");
+                AuditRecord rec = chunk.get(r);
+                args[a++] = rec.taskId();
+                args[a++] = rec.actor();
+                args[a++] = rec.action();
+                args[a++] = rec.field();
+                args[a++] = rec.oldValue();
+                args[a++] = rec.newValue();
+                args[a++] = Timestamp.from(rec.changedAt());
+            }
+            jdbc.update(sql.toString(), args);
+        }
+    }
+
+    private void loop() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            batch.clear();
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(idleParkNanos);
+                continue;
+            }
+            try {
+                insert(batch);
+            } catch (Exception e) {
+                dropped.increment(batch.size());
+                log.error("Failed to write {} audit record(s)", batch.size(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(5_000);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.taskmanager.audit;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Turns TaskService change events into field-level audit records.
+ */
+@Service
+public class TaskAuditService {
+
+    private static final List<Field> FIELDS = List.of(
+            new Field("title", TaskDTO::title),
+            new Field("description", TaskDTO::description),
+            new Field("status", TaskDTO::status),
+            new Field("priority", TaskDTO::priority),
+            new Field("dueDate", TaskDTO::dueDate),
+            new Field("assignedToId", TaskDTO::assignedToId),
+            new Field("documents", TaskDTO::documents)
+    );
+
+    private record Field(String name, Function<TaskDTO, Object> getter) {}
+
+    private final AuditWriter writer;
+    private final AuditDurability durability;
+
+    public TaskAuditService(AuditWriter writer,
+                            @Value("${app.audit.durability:BEST_EFFORT}") AuditDurability durability) {
+        this.writer = writer;
+        this.durability = durability;
+    }
+
+    // Same transaction as the task change
+    @EventListener
+    public void auditInTransaction(TaskChangedEvent event) {
+        if (durability == AuditDurability.FLUSH_BEFORE_COMMIT) {
+            List<AuditRecord> records = diff(event);
+            if (!records.isEmpty()) writer.insert(records);
+        }
+    }
+
+    // Rolled-back changes are never audited
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void auditAfterCommit(TaskChangedEvent event) {
+        if (durability == AuditDurability.BEST_EFFORT) {
+            writer.enqueue(diff(event));
+        }
+    }
+
+    static List<AuditRecord> diff(TaskChangedEvent event) {
+        List<AuditRecord> records = new ArrayList<>();
+        String action = event.type().name();
+
+        if (event.type() == TaskChangeType.DELETED) {
+            records.add(new AuditRecord(event.taskId(), event.actor(), action, null,
+                    event.before().title(), null, event.occurredAt()));
+            return records;
+        }
+
+        for (Field f : FIELDS) {
+            Object oldValue = event.before() != null ? f.getter().apply(event.before()) : null;
+            Object newValue = f.getter().apply(event.after());
+            if (!Objects.equals(oldValue, newValue)) {
+                records.add(new AuditRecord(event.taskId(), event.actor(), action, f.name(),
+                        format(oldValue), format(newValue), event.occurredAt()));
+            }
+        }
+        return records;
+    }
+
+    private static String format(Object value) {
+        if (value == null) return null;
+        String s = value.toString();
+        return s.length() > 1000 ? s.substring(0, 1000) : s;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.taskmanager.config;
 
+import com.example.taskmanager.idempotency.IdempotencyConflictException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -49,6 +50,17 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    // 409 / 422 Idempotency-Key replay that cannot be served
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<?> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        return ResponseEntity.status(ex.getStatus())
+                .body(Map.of(
+                        "timestamp", Instant.now(),
+                        "status", ex.getStatus(),
+                        "error", ex.getMessage()
+                ));
+    }
+
     // 500 Internal Server Error
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<?> handleRuntime(RuntimeException ex) {
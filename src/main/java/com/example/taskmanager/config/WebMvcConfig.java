@@ -1,14 +1,32 @@
 package com.example.taskmanager.config;
 
+import com.example.taskmanager.observability.QueryBudgetInterceptor;
+import com.example.taskmanager.storage.AttachmentStorage;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final QueryBudgetInterceptor queryBudgetInterceptor;
+    private final AttachmentStorage storage;
+
+    public WebMvcConfig(QueryBudgetInterceptor queryBudgetInterceptor, AttachmentStorage storage) {
+        this.queryBudgetInterceptor = queryBudgetInterceptor;
+        this.storage = storage;
+    }
+
+    // Only local storage has a directory to serve; remote backends go through /api/tasks/file
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
+        storage.localRoot().ifPresent(root -> registry.addResourceHandler("/uploads/**")
+                .addResourceLocations("file:" + root.toAbsolutePath() + "/"));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryBudgetInterceptor).addPathPatterns("/api/**");
     }
 }
@@ -0,0 +1,64 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.model.Role;
+import com.example.taskmanager.model.TaskAuditEntry;
+import com.example.taskmanager.model.User;
+import com.example.taskmanager.repository.TaskAuditRepository;
+import com.example.taskmanager.repository.UserRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/audit")
+@Tag(name = "audit-controller", description = "Task change history (Admin only)")
+@SecurityRequirement(name = "bearerAuth")
+public class AuditController {
+
+    private final TaskAuditRepository auditRepository;
+    private final UserRepository userRepository;
+
+    public AuditController(TaskAuditRepository auditRepository, UserRepository userRepository) {
+        this.auditRepository = auditRepository;
+        this.userRepository = userRepository;
+    }
+
+    // ✅ Newest-first audit entries, paged by id cursor (Admin only)
+    @Operation(
+            summary = "Query the task audit log (Admin only)",
+            description = "Pass nextCursor from the previous page as 'before' to continue"
+    )
+    @GetMapping
+    public ResponseEntity<?> list(
+            @RequestParam(required = false) Long taskId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication auth
+    ) {
+        User currentUser = userRepository.findByEmail(auth.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (!currentUser.getRole().equals(Role.ADMIN)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Access denied: Admins only"));
+        }
+
+        long cursor = before == null ? Long.MAX_VALUE : before;
+        Limit page = Limit.of(Math.max(1, Math.min(limit, 500)));
+        List<TaskAuditEntry> items = taskId == null
+                ? auditRepository.findByIdLessThanOrderByIdDesc(cursor, page)
+                : auditRepository.findByTaskIdAndIdLessThanOrderByIdDesc(taskId, cursor, page);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("items", items);
+        body.put("nextCursor", items.size() < page.max() ? null : items.get(items.size() - 1).getId());
+        return ResponseEntity.ok(body);
+    }
+}
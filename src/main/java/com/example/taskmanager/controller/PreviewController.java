@@ -0,0 +1,48 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.dto.DocumentPreviewDTO;
+import com.example.taskmanager.service.PreviewService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/tasks/file/{fileName}/preview")
+@Tag(name = "preview-controller", description = "Rendered thumbnails and metadata for uploaded PDFs")
+@SecurityRequirement(name = "bearerAuth")
+public class PreviewController {
+
+    private final PreviewService previewService;
+
+    public PreviewController(PreviewService previewService) {
+        this.previewService = previewService;
+    }
+
+    // ✅ Page count, PDF metadata and render status
+    @Operation(summary = "Get preview metadata for an uploaded file")
+    @GetMapping
+    public ResponseEntity<DocumentPreviewDTO> info(@PathVariable("fileName") String fileName) {
+        return previewService.info(fileName)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // ✅ First-page thumbnail (404 until the render has finished)
+    @Operation(summary = "Get first-page thumbnail for an uploaded file")
+    @GetMapping(value = "/thumbnail", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> thumbnail(@PathVariable("fileName") String fileName) throws IOException {
+        return previewService.thumbnail(fileName)
+                .map(png -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePrivate())
+                        .contentType(MediaType.IMAGE_PNG)
+                        .body(png))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,12 +1,28 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dependency.TaskDependencyService;
+import com.example.taskmanager.dto.BatchTaskResult;
 import com.example.taskmanager.dto.CreateTaskRequest;
+import com.example.taskmanager.dto.SubtaskDTO;
+import com.example.taskmanager.dto.SubtreeRollupDTO;
 import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.dto.TaskDependenciesDTO;
+import com.example.taskmanager.dto.TaskRevisionDTO;
 import com.example.taskmanager.dto.UpdateTaskRequest;
 import com.example.taskmanager.dto.UploadRequest;
 import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.history.TaskHistoryService;
+import com.example.taskmanager.idempotency.IdempotencyService;
+import com.example.taskmanager.idempotency.IdempotentResult;
 import com.example.taskmanager.model.TaskStatus;
+import com.example.taskmanager.observability.QueryBudget;
+import com.example.taskmanager.service.AttachmentCache;
+import com.example.taskmanager.service.NextTaskIndex;
+import com.example.taskmanager.service.ReadCoalescer;
+import com.example.taskmanager.service.TaskJsonCache;
 import com.example.taskmanager.service.TaskService;
+import com.example.taskmanager.storage.AttachmentStorage;
+import com.example.taskmanager.storage.StoredAttachment;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -20,17 +36,26 @@ import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -38,40 +63,250 @@ import java.util.Map;
 @SecurityRequirement(name = "bearerAuth")
 public class TaskController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final TaskService taskService;
+    private final AttachmentCache attachmentCache;
+    private final TaskHistoryService historyService;
+    private final IdempotencyService idempotency;
+    private final ReadCoalescer coalescer;
+    private final AttachmentStorage storage;
+    private final TaskDependencyService dependencyService;
+    private final NextTaskIndex nextTasks;
+    private final TaskJsonCache taskJson;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, AttachmentCache attachmentCache,
+                          TaskHistoryService historyService, IdempotencyService idempotency,
+                          ReadCoalescer coalescer, AttachmentStorage storage,
+                          TaskDependencyService dependencyService, NextTaskIndex nextTasks,
+                          TaskJsonCache taskJson) {
         this.taskService = taskService;
+        this.attachmentCache = attachmentCache;
+        this.historyService = historyService;
+        this.idempotency = idempotency;
+        this.coalescer = coalescer;
+        this.storage = storage;
+        this.dependencyService = dependencyService;
+        this.nextTasks = nextTasks;
+        this.taskJson = taskJson;
     }
 
     // ✅ Get all tasks
-    @Operation(summary = "Get all tasks", description = "Supports filtering by status and priority")
+    @Operation(summary = "Get all tasks",
+            description = "Supports filtering by status, priority and tags; includeArchived=true appends archived DONE tasks")
+    @QueryBudget(6)
     @GetMapping
-    public ResponseEntity<Page<TaskDTO>> list(
+    public ResponseEntity<Page<?>> list(
             @RequestParam(required = false) TaskStatus status,
             @RequestParam(required = false) TaskPriority priority,
+            @Parameter(description = "Tag expression: comma-separated terms that must all match, "
+                    + "'a|b' for either, '-tag' to exclude; e.g. backend,urgent|critical,-blocked")
+            @RequestParam(required = false) String tags,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             Pageable pageable,
             Authentication auth
     ) {
-        return ResponseEntity.ok(taskService.list(auth, status, priority, pageable));
+        String key = "list|" + status + "|" + priority + "|" + tags + "|" + includeArchived + "|"
+                + pageable.getPageNumber() + "|" + pageable.getPageSize() + "|" + pageable.getSort();
+        if (includeArchived && (tags == null || tags.isBlank())) {
+            return ResponseEntity.ok(coalescer.execute(coalescer.scope(auth), key,
+                    () -> taskService.list(auth, status, priority, tags, true, pageable)));
+        }
+        // Active tasks only: the query returns ids and the rows are cached JSON fragments
+        Page<Long> ids = coalescer.execute(coalescer.scope(auth), key,
+                () -> taskService.listIds(auth, status, priority, tags, pageable));
+        return ResponseEntity.ok(taskJson.page(ids, missing -> taskService.findVisible(auth, missing)));
+    }
+
+    // ✅ Tags in use, with how many visible tasks carry each
+    @Operation(summary = "Get tag usage counts", description = "Over active tasks visible to the caller, most used first")
+    @GetMapping("/tags")
+    public ResponseEntity<Map<String, Long>> tagCounts(Authentication auth) {
+        return ResponseEntity.ok(taskService.tagCounts(auth));
     }
 
     // ✅ Get a specific task
     @Operation(summary = "Get a specific task by ID")
-    @GetMapping("/{id}")
-    public ResponseEntity<TaskDTO> getById(@PathVariable Long id, Authentication auth) {
-        return ResponseEntity.ok(taskService.getById(auth, id));
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = TaskDTO.class)))
+    @QueryBudget(4)
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getById(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            Authentication auth
+    ) {
+        // Cached JSON is written as is; only a miss loads the entity and runs Jackson
+        byte[] json = taskJson.get(auth, id, !includeArchived,
+                () -> coalescer.execute(coalescer.scope(auth), "get|" + id + "|" + includeArchived,
+                        () -> taskService.getById(auth, id, includeArchived)));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+
+    // ✅ Get many tasks by id in one round trip
+    @Operation(summary = "Get up to 200 tasks by id",
+            description = "Returns FOUND, FORBIDDEN or MISSING for every requested id, in request order")
+    @QueryBudget(4)
+    @GetMapping("/batch")
+    public ResponseEntity<List<BatchTaskResult>> getBatch(@RequestParam List<Long> ids, Authentication auth) {
+        return ResponseEntity.ok(taskService.getBatch(auth, ids));
+    }
+
+    // ✅ The caller's open tasks to do next, served from memory
+    @Operation(summary = "Get the caller's next tasks",
+            description = "Open tasks assigned to the caller, highest priority first, then soonest due (max 100)")
+    @QueryBudget(1)
+    @GetMapping("/next")
+    public ResponseEntity<List<TaskDTO>> next(@RequestParam(defaultValue = "10") int limit, Authentication auth) {
+        return ResponseEntity.ok(nextTasks.next(auth, limit));
+    }
+
+    // ✅ Open tasks that nothing is blocking any more
+    @Operation(summary = "Get tasks that can be started now",
+            description = "Open tasks visible to the caller whose blockers are all DONE, soonest due first (max 200 per page)")
+    @QueryBudget(5)
+    @GetMapping("/ready")
+    public ResponseEntity<Page<TaskDTO>> ready(Pageable pageable, Authentication auth) {
+        return ResponseEntity.ok(dependencyService.ready(auth, pageable));
+    }
+
+    // ✅ Direct blocked-by / blocks links of a task
+    @Operation(summary = "Get the dependencies of a task")
+    @QueryBudget(2)
+    @GetMapping("/{id}/dependencies")
+    public ResponseEntity<TaskDependenciesDTO> dependencies(@PathVariable Long id, Authentication auth) {
+        return ResponseEntity.ok(dependencyService.dependencies(auth, id));
+    }
+
+    // ✅ Mark a task as blocked by another one
+    @Operation(summary = "Mark a task as blocked by another task",
+            description = "Idempotent; rejected with 400 if the link would create a cycle")
+    @QueryBudget(4)
+    @PutMapping("/{id}/dependencies/{blockerId}")
+    public ResponseEntity<TaskDependenciesDTO> addDependency(@PathVariable Long id, @PathVariable Long blockerId,
+                                                             Authentication auth) {
+        return ResponseEntity.ok(dependencyService.link(auth, id, blockerId));
+    }
+
+    // ✅ Remove a blocked-by link
+    @Operation(summary = "Remove a blocked-by link")
+    @QueryBudget(3)
+    @DeleteMapping("/{id}/dependencies/{blockerId}")
+    public ResponseEntity<Void> removeDependency(@PathVariable Long id, @PathVariable Long blockerId,
+                                                 Authentication auth) {
+        dependencyService.unlink(auth, id, blockerId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ✅ Ids of every task transitively blocked by this one
+    @Operation(summary = "Get every task transitively blocked by a task",
+            description = "Ids in topological order: a task always comes after the tasks blocking it")
+    @QueryBudget(3)
+    @GetMapping("/{id}/dependents")
+    public ResponseEntity<List<Long>> dependents(@PathVariable Long id, Authentication auth) {
+        return ResponseEntity.ok(dependencyService.dependents(auth, id));
+    }
+
+    // ✅ Ids of every task this one transitively waits on
+    @Operation(summary = "Get every task a task transitively waits on",
+            description = "Ids in topological order, i.e. an order in which they can be completed")
+    @QueryBudget(3)
+    @GetMapping("/{id}/prerequisites")
+    public ResponseEntity<List<Long>> prerequisites(@PathVariable Long id, Authentication auth) {
+        return ResponseEntity.ok(dependencyService.prerequisites(auth, id));
+    }
+
+    // ✅ All subtasks below a task
+    @Operation(summary = "Get the subtree of a task",
+            description = "Every descendant visible to the caller, ordered by depth; depth 1 = direct child")
+    @QueryBudget(5)
+    @GetMapping("/{id}/subtree")
+    public ResponseEntity<List<SubtaskDTO>> subtree(@PathVariable Long id, Authentication auth) {
+        return ResponseEntity.ok(taskService.subtree(auth, id));
+    }
+
+    // ✅ Status rollup of a task's subtree
+    @Operation(summary = "Get status counts and percent DONE over a task's subtree")
+    @QueryBudget(2)
+    @GetMapping("/{id}/rollup")
+    public ResponseEntity<SubtreeRollupDTO> rollup(@PathVariable Long id, Authentication auth) {
+        return ResponseEntity.ok(taskService.rollup(auth, id));
+    }
+
+    // ✅ Move a task under another parent
+    @Operation(summary = "Move a task (and its subtasks) under another task",
+            description = "Omit parentId to make the task top-level; moving a task into its own subtree is rejected")
+    @QueryBudget(12)
+    @PutMapping("/{id}/parent")
+    public ResponseEntity<SubtaskDTO> move(@PathVariable Long id,
+                                           @RequestParam(required = false) Long parentId,
+                                           Authentication auth) {
+        return ResponseEntity.ok(taskService.move(auth, id, parentId));
+    }
+
+    // ✅ Tags of a task
+    @Operation(summary = "Get the tags of a task")
+    @QueryBudget(3)
+    @GetMapping("/{id}/tags")
+    public ResponseEntity<List<String>> tags(@PathVariable Long id, Authentication auth) {
+        return ResponseEntity.ok(taskService.tags(auth, id));
+    }
+
+    // ✅ Replace the tags of a task
+    @Operation(summary = "Replace the tags of a task",
+            description = "Up to 20 tags; lower-cased, 1-64 of a-z, 0-9, '_', '.', '-'")
+    @QueryBudget(6)
+    @PutMapping("/{id}/tags")
+    public ResponseEntity<List<String>> setTags(@PathVariable Long id, @RequestBody List<String> tags,
+                                                Authentication auth) {
+        return ResponseEntity.ok(taskService.setTags(auth, id, tags));
+    }
+
+    // ✅ Revision history of a task (newest first)
+    @Operation(summary = "Get the revision history of a task")
+    @QueryBudget(3)
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<TaskRevisionDTO>> history(@PathVariable Long id, Authentication auth) {
+        return ResponseEntity.ok(historyService.history(auth, id));
+    }
+
+    // ✅ Task as it was at a point in time (or at a specific revision)
+    @Operation(summary = "Get a task as of a timestamp or revision",
+            description = "Pass either 'at' (ISO-8601 instant) or 'revision'")
+    @QueryBudget(4)
+    @GetMapping("/{id}/as-of")
+    public ResponseEntity<TaskDTO> asOf(
+            @PathVariable Long id,
+            @RequestParam(required = false) Instant at,
+            @RequestParam(required = false) Integer revision,
+            Authentication auth
+    ) {
+        if (revision != null) return ResponseEntity.ok(historyService.atRevision(auth, id, revision));
+        if (at == null) throw new IllegalArgumentException("Either 'at' or 'revision' is required");
+        return ResponseEntity.ok(historyService.asOf(auth, id, at));
     }
 
     // ✅ Create a new task
     @Operation(summary = "Create a new task")
+    @QueryBudget(7)
     @PostMapping
-    public ResponseEntity<TaskDTO> create(@Valid @RequestBody CreateTaskRequest req, Authentication auth) {
-        return ResponseEntity.ok(taskService.create(auth, req));
+    public ResponseEntity<TaskDTO> create(
+            @Valid @RequestBody CreateTaskRequest req,
+            @Parameter(description = "Client-chosen key; retries with the same key return the first result")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            Authentication auth
+    ) throws IOException {
+        if (idempotencyKey == null) return ResponseEntity.ok(taskService.create(auth, req));
+
+        String fingerprint = idempotency.fingerprint("POST /api/tasks", req);
+        return replayable(idempotency.execute(auth.getName(), idempotencyKey, fingerprint,
+                () -> taskService.create(auth, req)));
     }
 
     // ✅ Update an existing task
     @Operation(summary = "Update an existing task")
+    @QueryBudget(6)
     @PutMapping("/{id}")
     public ResponseEntity<TaskDTO> update(@PathVariable Long id, @Valid @RequestBody UpdateTaskRequest req, Authentication auth) {
         return ResponseEntity.ok(taskService.update(auth, id, req));
@@ -81,6 +316,7 @@ public class TaskController {
 
     // ✅ Delete a task
     @Operation(summary = "Delete a task")
+    @QueryBudget(6)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id, Authentication auth) {
         taskService.delete(auth, id);
@@ -106,11 +342,14 @@ public class TaskController {
             summary = "Upload PDF files for a task (max 3 files)",
             description = "Allows uploading up to 3 PDF documents for a specific task"
     )
+    @QueryBudget(11)
     @PostMapping(value = "/{id}/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> uploadFiles(
             @PathVariable Long id,
             @Parameter(description = "One or more PDF files (PDF only)", required = true)
             @RequestParam("files") MultipartFile[] files,
+            @Parameter(description = "Client-chosen key; retries with the same key return the first result")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             Authentication auth
     ) throws IOException {
 
@@ -134,24 +373,91 @@ public class TaskController {
         }
 
         // ✅ Proceed with normal upload
-        TaskDTO updatedTask = taskService.upload(auth, id, files);
-        return ResponseEntity.ok(updatedTask);
+        if (idempotencyKey == null) return ResponseEntity.ok(taskService.upload(auth, id, files));
+
+        String fingerprint = idempotency.fingerprint("POST /api/tasks/" + id + "/upload", files);
+        return replayable(idempotency.execute(auth.getName(), idempotencyKey, fingerprint,
+                () -> taskService.upload(auth, id, files)));
+    }
+
+    // Replays carry a marker header so clients can tell them from the original response
+    private static ResponseEntity<TaskDTO> replayable(IdempotentResult result) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (result.replayed()) ok.header(IDEMPOTENT_REPLAYED, "true");
+        return ok.body(result.task());
     }
 
     // ✅ FILE DOWNLOAD ENDPOINT (Optional)
-    @Operation(summary = "Get uploaded file by name", description = "Serves a specific uploaded PDF file")
+    // Storage that presigns URLs gets a redirect, so the bytes never pass through this JVM.
+    // Otherwise they are streamed: local files from the memory-mapped attachment cache without
+    // a heap copy, remote objects straight from a ranged read. One byte range is honoured.
+    @Operation(summary = "Get uploaded file by name",
+            description = "Serves a specific uploaded PDF file (single Range supported) or redirects to a presigned storage URL")
     @GetMapping(value = "/file/{fileName}", produces = MediaType.APPLICATION_PDF_VALUE)
-    public ResponseEntity<byte[]> getFile(@PathVariable("fileName") String fileName) throws IOException {
-        Path path = Paths.get("uploads").resolve(fileName);
-        if (!Files.exists(path)) {
+    public ResponseEntity<StreamingResponseBody> getFile(
+            @PathVariable("fileName") String fileName,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range
+    ) throws IOException {
+        StoredAttachment stored = storage.stat(fileName).orElse(null);
+        if (stored == null) {
             return ResponseEntity.notFound().build();
         }
 
-        byte[] data = Files.readAllBytes(path);
-        return ResponseEntity.ok()
+        Optional<URI> direct = storage.downloadUrl(fileName);
+        if (direct.isPresent()) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(direct.get()).build();
+        }
+
+        Optional<Path> root = storage.localRoot();
+        ByteBuffer mapped = root.isPresent() ? attachmentCache.read(root.get().resolve(fileName)) : null;
+        long size = mapped != null ? mapped.remaining() : stored.size();
+
+        HttpRange requested = singleRange(range);
+        long start = 0;
+        long length = size;
+        if (requested != null) {
+            start = requested.getRangeStart(size);
+            if (start >= size) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size).build();
+            }
+            length = requested.getRangeEnd(size) - start + 1;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(requested != null ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
                 .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=" + fileName)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
                 .contentType(MediaType.APPLICATION_PDF)
-                .body(data);
+                .contentLength(length);
+        if (requested != null) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + length - 1) + "/" + size);
+        }
+
+        if (mapped != null) {
+            ByteBuffer data = mapped.slice((int) start, (int) length);
+            return response.body(out -> {
+                WritableByteChannel channel = Channels.newChannel(out);
+                while (data.hasRemaining()) channel.write(data);
+            });
+        }
+        long offset = start;
+        long count = length;
+        return response.body(out -> {
+            try (InputStream in = storage.open(fileName, offset, count)) {
+                in.transferTo(out);
+            }
+        });
+    }
+
+    // Multiple or malformed ranges are ignored and the whole file is sent, as RFC 9110 allows
+    private static HttpRange singleRange(String header) {
+        if (header == null) return null;
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 }
 
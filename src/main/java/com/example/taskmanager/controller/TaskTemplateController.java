@@ -0,0 +1,72 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.dto.CreateTemplateRequest;
+import com.example.taskmanager.dto.TaskTemplateDTO;
+import com.example.taskmanager.observability.QueryBudget;
+import com.example.taskmanager.recurring.TaskTemplateService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/templates")
+@Tag(name = "template-controller", description = "Recurring task templates")
+@SecurityRequirement(name = "bearerAuth")
+public class TaskTemplateController {
+
+    private final TaskTemplateService templateService;
+
+    public TaskTemplateController(TaskTemplateService templateService) {
+        this.templateService = templateService;
+    }
+
+    // ✅ Templates visible to the caller
+    @Operation(summary = "Get recurring task templates")
+    @QueryBudget(3)
+    @GetMapping
+    public ResponseEntity<List<TaskTemplateDTO>> list(Authentication auth) {
+        return ResponseEntity.ok(templateService.list(auth));
+    }
+
+    // ✅ Create a template; its tasks appear with the next generator run
+    @Operation(summary = "Create a recurring task template",
+            description = "rrule is the date part of an RFC 5545 RRULE, e.g. FREQ=WEEKLY;BYDAY=MO,TH or FREQ=MONTHLY;BYDAY=-1FR;COUNT=6")
+    @QueryBudget(4)
+    @PostMapping
+    public ResponseEntity<TaskTemplateDTO> create(@Valid @RequestBody CreateTemplateRequest req, Authentication auth) {
+        return ResponseEntity.ok(templateService.create(auth, req));
+    }
+
+    // ✅ One template
+    @Operation(summary = "Get a recurring task template by ID")
+    @QueryBudget(3)
+    @GetMapping("/{id}")
+    public ResponseEntity<TaskTemplateDTO> getById(@PathVariable Long id, Authentication auth) {
+        return ResponseEntity.ok(templateService.getById(auth, id));
+    }
+
+    // ✅ Dates the template will produce next
+    @Operation(summary = "Preview upcoming occurrences of a template")
+    @QueryBudget(3)
+    @GetMapping("/{id}/upcoming")
+    public ResponseEntity<List<LocalDate>> upcoming(@PathVariable Long id,
+                                                    @RequestParam(defaultValue = "10") int limit,
+                                                    Authentication auth) {
+        return ResponseEntity.ok(templateService.upcoming(auth, id, limit));
+    }
+
+    // ✅ Stop a template; tasks it already created are kept
+    @Operation(summary = "Stop a recurring task template")
+    @QueryBudget(4)
+    @DeleteMapping("/{id}")
+    public ResponseEntity<TaskTemplateDTO> stop(@PathVariable Long id, Authentication auth) {
+        return ResponseEntity.ok(templateService.stop(auth, id));
+    }
+}
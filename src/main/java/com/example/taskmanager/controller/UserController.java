@@ -1,9 +1,9 @@
 package com.example.taskmanager.controller;
 
-import com.example.taskmanager.dto.UserDTO;
 import com.example.taskmanager.model.Role;
 import com.example.taskmanager.model.User;
 import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,9 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
@@ -22,15 +20,27 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final UserService userService;
 
-    public UserController(UserRepository userRepository) {
+    public UserController(UserRepository userRepository, UserService userService) {
         this.userRepository = userRepository;
+        this.userService = userService;
     }
 
-    // ✅ Get all users (Admin only)
-    @Operation(summary = "Get all registered users (Admin only)")
+    // ✅ Get all users, one keyset page at a time (Admin only)
+    @Operation(
+            summary = "Get registered users (Admin only)",
+            description = "Ordered by email. Optional q filters by email/name prefix (match=prefix) "
+                    + "or substring (match=contains); pass nextCursor back as cursor for the next page"
+    )
     @GetMapping
-    public ResponseEntity<?> getAllUsers(Authentication auth) {
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "prefix") String match,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication auth
+    ) {
         User currentUser = userRepository.findByEmail(auth.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -38,11 +48,25 @@ public class UserController {
             return ResponseEntity.status(403).body(Map.of("error", "Access denied: Admins only"));
         }
 
-        List<UserDTO> users = userRepository.findAll().stream()
-                .map(u -> new UserDTO(u.getId(), u.getName(), u.getEmail(), u.getRole()))
-                .collect(Collectors.toList());
+        return ResponseEntity.ok(userService.directory(q, "contains".equalsIgnoreCase(match), cursor, limit));
+    }
+
+    // ✅ Compact id/name/email list for the assignee picker (Admin only)
+    @Operation(summary = "Search users for the assignee picker (Admin only)")
+    @GetMapping("/picker")
+    public ResponseEntity<?> picker(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication auth
+    ) {
+        User currentUser = userRepository.findByEmail(auth.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (!currentUser.getRole().equals(Role.ADMIN)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Access denied: Admins only"));
+        }
 
-        return ResponseEntity.ok(users);
+        return ResponseEntity.ok(userService.picker(q, limit));
     }
 
     // ✅ Update a user's role (Admin only)
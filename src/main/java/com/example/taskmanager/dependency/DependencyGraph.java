@@ -0,0 +1,399 @@
+package com.example.taskmanager.dependency;
+
+import java.util.Arrays;
+
+/**
+ * Directed "blocker -> blocked" graph over task ids, stored in primitive arrays.
+ * <p>
+ * Task ids map to dense node slots through an open-addressing long -> int table
+ * (linear probing, backward-shift delete). Each slot owns a growable long[] of the tasks
+ * it blocks and one of the tasks blocking it, plus a done flag. Traversals mark visited
+ * slots with an epoch counter instead of allocating a set, so a reachability check or a
+ * topological walk is O(nodes + edges it touches) with no boxing.
+ * <p>
+ * Not thread-safe: callers serialize access.
+ */
+public final class DependencyGraph {
+
+    private static final long[] NONE = new long[0];
+    private static final int EMPTY = -1;
+
+    // id -> slot
+    private long[] tableKeys;
+    private int[] tableSlots;
+    private int tableMask;
+
+    // per slot
+    private long[] ids;
+    private long[][] out;   // tasks this one blocks
+    private int[] outSize;
+    private long[][] in;    // tasks blocking this one
+    private int[] inSize;
+    private boolean[] done;
+    private int[] mark;
+    private int[] parent;
+
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotCount;
+    private int nodes;
+    private long edges;
+    private int epoch;
+
+    // scratch for traversals
+    private int[] stack = new int[64];
+    private int[] cursor = new int[64];
+
+    public DependencyGraph() {
+        this(1024);
+    }
+
+    public DependencyGraph(int expectedNodes) {
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, expectedNodes) * 2 - 1) << 1);
+        tableKeys = new long[capacity];
+        tableSlots = new int[capacity];
+        Arrays.fill(tableSlots, EMPTY);
+        tableMask = capacity - 1;
+
+        int slots = Math.max(16, expectedNodes);
+        ids = new long[slots];
+        out = new long[slots][];
+        outSize = new int[slots];
+        in = new long[slots][];
+        inSize = new int[slots];
+        done = new boolean[slots];
+        mark = new int[slots];
+        parent = new int[slots];
+        freeSlots = new int[16];
+    }
+
+    public int nodeCount() {
+        return nodes;
+    }
+
+    public long edgeCount() {
+        return edges;
+    }
+
+    public boolean contains(long id) {
+        return slotOf(id) != EMPTY;
+    }
+
+    /** Adds the edge; false if it was already there. Does not check for cycles, see {@link #path}. */
+    public boolean addEdge(long blocker, long blocked) {
+        if (blocker == blocked) throw new IllegalArgumentException("A task cannot block itself");
+        int from = slotOrCreate(blocker);
+        int to = slotOrCreate(blocked);
+        if (indexOf(out[from], outSize[from], blocked) >= 0) return false;
+        out[from] = append(out[from], outSize[from]++, blocked);
+        in[to] = append(in[to], inSize[to]++, blocker);
+        edges++;
+        return true;
+    }
+
+    public boolean removeEdge(long blocker, long blocked) {
+        int from = slotOf(blocker);
+        int to = slotOf(blocked);
+        if (from == EMPTY || to == EMPTY) return false;
+        if (!removeValue(out, outSize, from, blocked)) return false;
+        removeValue(in, inSize, to, blocker);
+        edges--;
+        releaseIfIsolated(from);
+        releaseIfIsolated(to);
+        return true;
+    }
+
+    /** Drops a task and every edge touching it. */
+    public void removeNode(long id) {
+        int slot = slotOf(id);
+        if (slot == EMPTY) return;
+        for (int i = 0; i < outSize[slot]; i++) {
+            int other = slotOf(out[slot][i]);
+            removeValue(in, inSize, other, id);
+            releaseIfIsolated(other);
+        }
+        for (int i = 0; i < inSize[slot]; i++) {
+            int other = slotOf(in[slot][i]);
+            removeValue(out, outSize, other, id);
+            releaseIfIsolated(other);
+        }
+        edges -= outSize[slot] + inSize[slot];
+        outSize[slot] = 0;
+        inSize[slot] = 0;
+        releaseIfIsolated(slot);
+    }
+
+    /** Only tasks that take part in a dependency are tracked; others are ignored. */
+    public void setDone(long id, boolean isDone) {
+        int slot = slotOf(id);
+        if (slot != EMPTY) done[slot] = isDone;
+    }
+
+    public boolean isDone(long id) {
+        int slot = slotOf(id);
+        return slot != EMPTY && done[slot];
+    }
+
+    /** True if at least one direct blocker is not done yet. */
+    public boolean isBlocked(long id) {
+        int slot = slotOf(id);
+        return slot != EMPTY && hasOpenBlocker(slot);
+    }
+
+    public long[] blockers(long id) {
+        int slot = slotOf(id);
+        return slot == EMPTY ? NONE : Arrays.copyOf(in[slot], inSize[slot]);
+    }
+
+    public long[] blocked(long id) {
+        int slot = slotOf(id);
+        return slot == EMPTY ? NONE : Arrays.copyOf(out[slot], outSize[slot]);
+    }
+
+    /** Every tracked task that is waiting on at least one open blocker. */
+    public long[] blockedTasks() {
+        long[] result = new long[Math.min(nodes, 64)];
+        int n = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (inSize[slot] > 0 && hasOpenBlocker(slot)) {
+                if (n == result.length) result = Arrays.copyOf(result, n * 2);
+                result[n++] = ids[slot];
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Some path {@code from -> ... -> to} along blocker edges (not necessarily the shortest), or null.
+     * Adding {@code to -> from} closes a cycle exactly when this is non-null.
+     */
+    public long[] path(long from, long to) {
+        int start = slotOf(from);
+        int target = slotOf(to);
+        if (start == EMPTY || target == EMPTY) return null;
+        if (start == target) return new long[]{from};
+
+        int visit = nextEpoch();
+        int depth = 0;
+        mark[start] = visit;
+        parent[start] = EMPTY;
+        push(depth++, start);
+        while (depth > 0) {
+            int slot = stack[--depth];
+            for (int i = 0; i < outSize[slot]; i++) {
+                int next = slotOf(out[slot][i]);
+                if (mark[next] == visit) continue;
+                mark[next] = visit;
+                parent[next] = slot;
+                if (next == target) return trace(next);
+                push(depth++, next);
+            }
+        }
+        return null;
+    }
+
+    /** Everything transitively blocked by {@code id}, in an order where blockers come first. */
+    public long[] downstream(long id) {
+        return topological(id, true);
+    }
+
+    /** Everything {@code id} transitively waits on, in an order where blockers come first. */
+    public long[] upstream(long id) {
+        long[] reversed = topological(id, false);
+        for (int i = 0, j = reversed.length - 1; i < j; i++, j--) {
+            long t = reversed[i];
+            reversed[i] = reversed[j];
+            reversed[j] = t;
+        }
+        return reversed;
+    }
+
+    // Reverse post-order of an iterative DFS, which on an acyclic graph is a topological order
+    private long[] topological(long id, boolean forward) {
+        int start = slotOf(id);
+        if (start == EMPTY) return NONE;
+        long[][] edgesOf = forward ? out : in;
+        int[] sizeOf = forward ? outSize : inSize;
+
+        int visit = nextEpoch();
+        long[] order = new long[16];
+        int n = 0;
+        int depth = 0;
+        mark[start] = visit;
+        push(depth, start);
+        cursor[depth++] = 0;
+        while (depth > 0) {
+            int slot = stack[depth - 1];
+            int i = cursor[depth - 1];
+            if (i < sizeOf[slot]) {
+                cursor[depth - 1] = i + 1;
+                int next = slotOf(edgesOf[slot][i]);
+                if (mark[next] != visit) {
+                    mark[next] = visit;
+                    push(depth, next);
+                    cursor[depth++] = 0;
+                }
+            } else {
+                depth--;
+                if (slot != start) {
+                    if (n == order.length) order = Arrays.copyOf(order, n * 2);
+                    order[n++] = ids[slot];
+                }
+            }
+        }
+        long[] result = new long[n];
+        for (int i = 0; i < n; i++) result[i] = order[n - 1 - i];
+        return result;
+    }
+
+    private boolean hasOpenBlocker(int slot) {
+        for (int i = 0; i < inSize[slot]; i++) {
+            if (!done[slotOf(in[slot][i])]) return true;
+        }
+        return false;
+    }
+
+    private long[] trace(int slot) {
+        int length = 0;
+        for (int s = slot; s != EMPTY; s = parent[s]) length++;
+        long[] result = new long[length];
+        for (int s = slot; s != EMPTY; s = parent[s]) result[--length] = ids[s];
+        return result;
+    }
+
+    private int nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    private void push(int depth, int slot) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+            cursor = Arrays.copyOf(cursor, depth * 2);
+        }
+        stack[depth] = slot;
+    }
+
+    // ---- slots ----
+
+    private int slotOrCreate(long id) {
+        int slot = slotOf(id);
+        if (slot != EMPTY) return slot;
+
+        slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+        if (slot == ids.length) growSlots();
+        ids[slot] = id;
+        outSize[slot] = 0;
+        inSize[slot] = 0;
+        done[slot] = false;
+        mark[slot] = 0;
+        if (out[slot] == null) out[slot] = new long[2];
+        if (in[slot] == null) in[slot] = new long[2];
+
+        if ((nodes + 1) * 2 > tableKeys.length) rehash(tableKeys.length * 2);
+        insertKey(id, slot);
+        nodes++;
+        return slot;
+    }
+
+    private void releaseIfIsolated(int slot) {
+        if (outSize[slot] > 0 || inSize[slot] > 0) return;
+        deleteKey(ids[slot]);
+        // Keep small edge arrays for reuse, drop large ones
+        if (out[slot].length > 16) out[slot] = null;
+        if (in[slot].length > 16) in[slot] = null;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        nodes--;
+    }
+
+    private void growSlots() {
+        int size = ids.length * 2;
+        ids = Arrays.copyOf(ids, size);
+        out = Arrays.copyOf(out, size);
+        outSize = Arrays.copyOf(outSize, size);
+        in = Arrays.copyOf(in, size);
+        inSize = Arrays.copyOf(inSize, size);
+        done = Arrays.copyOf(done, size);
+        mark = Arrays.copyOf(mark, size);
+        parent = Arrays.copyOf(parent, size);
+    }
+
+    // ---- id -> slot table ----
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int slotOf(long id) {
+        for (int i = hash(id) & tableMask; ; i = (i + 1) & tableMask) {
+            int slot = tableSlots[i];
+            if (slot == EMPTY) return EMPTY;
+            if (tableKeys[i] == id) return slot;
+        }
+    }
+
+    private void insertKey(long id, int slot) {
+        int i = hash(id) & tableMask;
+        while (tableSlots[i] != EMPTY) i = (i + 1) & tableMask;
+        tableKeys[i] = id;
+        tableSlots[i] = slot;
+    }
+
+    private void deleteKey(long id) {
+        int i = hash(id) & tableMask;
+        while (tableSlots[i] != EMPTY && tableKeys[i] != id) i = (i + 1) & tableMask;
+        if (tableSlots[i] == EMPTY) return;
+
+        // Backward shift: pull later entries of the probe run into the hole
+        int hole = i;
+        for (int j = (hole + 1) & tableMask; tableSlots[j] != EMPTY; j = (j + 1) & tableMask) {
+            int home = hash(tableKeys[j]) & tableMask;
+            if (((j - home) & tableMask) >= ((j - hole) & tableMask)) {
+                tableKeys[hole] = tableKeys[j];
+                tableSlots[hole] = tableSlots[j];
+                hole = j;
+            }
+        }
+        tableSlots[hole] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = tableKeys;
+        int[] oldSlots = tableSlots;
+        tableKeys = new long[capacity];
+        tableSlots = new int[capacity];
+        Arrays.fill(tableSlots, EMPTY);
+        tableMask = capacity - 1;
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != EMPTY) insertKey(oldKeys[i], oldSlots[i]);
+        }
+    }
+
+    // ---- edge arrays ----
+
+    private static long[] append(long[] values, int size, long value) {
+        if (size == values.length) values = Arrays.copyOf(values, Math.max(4, size * 2));
+        values[size] = value;
+        return values;
+    }
+
+    private static int indexOf(long[] values, int size, long value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) return i;
+        }
+        return -1;
+    }
+
+    // Order of a task's edges carries no meaning, so removal swaps in the last element
+    private static boolean removeValue(long[][] lists, int[] sizes, int slot, long value) {
+        int i = indexOf(lists[slot], sizes[slot], value);
+        if (i < 0) return false;
+        lists[slot][i] = lists[slot][--sizes[slot]];
+        return true;
+    }
+}
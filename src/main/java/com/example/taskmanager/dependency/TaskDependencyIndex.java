@@ -0,0 +1,185 @@
+package com.example.taskmanager.dependency;
+
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.model.TaskStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+/**
+ * In-memory copy of task_dependencies as a {@link DependencyGraph}, so "what is blocked
+ * by X" and "what can start now" never run recursive SQL.
+ * <p>
+ * Loaded at startup and rebuilt every {@code app.dependencies.refresh-ms} to pick up
+ * links made on other nodes. A new link is checked for cycles and applied under the index
+ * monitor before its transaction commits, so two concurrent inserts on this node cannot
+ * close a cycle between them; a rollback takes it out again. Links made on different nodes
+ * are checked against the table by {@link TaskDependencyService}. Unlinks, deletes and
+ * status changes are applied after commit.
+ * <p>
+ * Traversals share the graph's scratch arrays, so every access is serialized on this
+ * object; they are in-memory walks that finish in microseconds.
+ */
+@Component
+public class TaskDependencyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskDependencyIndex.class);
+
+    private final JdbcTemplate jdbc;
+    private DependencyGraph graph = new DependencyGraph();
+    private volatile boolean loaded;
+    // Bumped by every local change; a rebuild that raced with one is thrown away
+    private long version;
+
+    public TaskDependencyIndex(JdbcTemplate jdbc, MeterRegistry registry) {
+        this.jdbc = jdbc;
+        Gauge.builder("tasks.dependencies.edges", this, TaskDependencyIndex::edgeCount).register(registry);
+        Gauge.builder("tasks.dependencies.nodes", this, TaskDependencyIndex::nodeCount).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.dependencies.refresh-ms:60000}",
+            initialDelayString = "${app.dependencies.refresh-ms:60000}")
+    public void refresh() {
+        long startVersion;
+        synchronized (this) {
+            startVersion = version;
+        }
+
+        DependencyGraph fresh = new DependencyGraph();
+        jdbc.query("SELECT d.blocker_id, d.blocked_id, b.status = 'DONE', t.status = 'DONE'"
+                + " FROM task_dependencies d JOIN tasks b ON b.id = d.blocker_id JOIN tasks t ON t.id = d.blocked_id", rs -> {
+            long blocker = rs.getLong(1);
+            long blocked = rs.getLong(2);
+            fresh.addEdge(blocker, blocked);
+            fresh.setDone(blocker, rs.getBoolean(3));
+            fresh.setDone(blocked, rs.getBoolean(4));
+        });
+
+        synchronized (this) {
+            if (version != startVersion) return; // try again next round
+            graph = fresh;
+        }
+        if (!loaded) log.info("Dependency index loaded {} link(s) between {} task(s)", fresh.edgeCount(), fresh.nodeCount());
+        loaded = true;
+    }
+
+    // ✅ Add "blocker blocks blocked" for the current transaction, refusing links that close a cycle
+    public boolean link(long blocker, long blocked, boolean blockerDone, boolean blockedDone) {
+        if (!loaded) throw new RuntimeException("Dependency index is still loading, try again shortly");
+
+        boolean added;
+        synchronized (this) {
+            long[] cycle = graph.path(blocked, blocker);
+            if (cycle != null) {
+                StringJoiner path = new StringJoiner(" -> ");
+                for (long id : cycle) path.add(Long.toString(id));
+                path.add(Long.toString(blocked));
+                throw new IllegalArgumentException("Task " + blocker + " cannot block task " + blocked
+                        + ": it would create the cycle " + path);
+            }
+            added = graph.addEdge(blocker, blocked);
+            graph.setDone(blocker, blockerDone);
+            graph.setDone(blocked, blockedDone);
+            version++;
+        }
+
+        if (added && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) change(g -> g.removeEdge(blocker, blocked));
+                }
+            });
+        }
+        return added;
+    }
+
+    public void unlinkAfterCommit(long blocker, long blocked) {
+        afterCommit(() -> change(g -> g.removeEdge(blocker, blocked)));
+    }
+
+    // TaskArchiver removes DONE tasks (and their links) behind TaskService's back
+    public void removeTasksAfterCommit(Long[] taskIds) {
+        afterCommit(() -> change(g -> {
+            for (Long id : taskIds) g.removeNode(id);
+        }));
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.type() == TaskChangeType.DELETED) {
+            change(g -> g.removeNode(event.taskId()));
+        } else if (event.after() != null) {
+            boolean done = event.after().status() == TaskStatus.DONE;
+            change(g -> g.setDone(event.taskId(), done));
+        }
+    }
+
+    public synchronized long[] blockers(long taskId) {
+        return graph.blockers(taskId);
+    }
+
+    public synchronized long[] blocked(long taskId) {
+        return graph.blocked(taskId);
+    }
+
+    public synchronized boolean isBlocked(long taskId) {
+        return graph.isBlocked(taskId);
+    }
+
+    public synchronized long[] downstream(long taskId) {
+        return graph.downstream(taskId);
+    }
+
+    public synchronized long[] upstream(long taskId) {
+        return graph.upstream(taskId);
+    }
+
+    public synchronized long[] blockedTasks() {
+        return graph.blockedTasks();
+    }
+
+    private synchronized long edgeCount() {
+        return graph.edgeCount();
+    }
+
+    private synchronized int nodeCount() {
+        return graph.nodeCount();
+    }
+
+    private synchronized void change(Consumer<DependencyGraph> change) {
+        version++;
+        change.accept(graph);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
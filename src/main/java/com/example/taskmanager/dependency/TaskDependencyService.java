@@ -0,0 +1,173 @@
+package com.example.taskmanager.dependency;
+
+import com.example.taskmanager.dto.BatchTaskResult;
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.dto.TaskDependenciesDTO;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.model.Task;
+import com.example.taskmanager.model.TaskStatus;
+import com.example.taskmanager.repository.TaskDependencyRepository;
+import com.example.taskmanager.security.AuthenticatedUser;
+import com.example.taskmanager.service.TaskService;
+import jakarta.transaction.Transactional;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Blocked-by links between tasks. Writes go to task_dependencies and the
+ * {@link TaskDependencyIndex}; every graph question is answered from the index, and the
+ * database is only asked which of the resulting ids the caller may see.
+ * <p>
+ * The index only knows this node's links until its next refresh, so a new link is also
+ * checked against the table: links are serialized cluster-wide by a transaction-scoped
+ * advisory lock, and the committed rows are searched for a path back to the blocker
+ * before the row is inserted.
+ */
+@Service
+@Transactional
+public class TaskDependencyService {
+
+    // Arbitrary, fixed key for pg_advisory_xact_lock: "dependency links"
+    private static final long LOCK_KEY = 0x5441534B44455053L;
+
+    // Can 'to' already be reached from 'from' over committed links?
+    private static final String REACHES = """
+            WITH RECURSIVE reach(id) AS (
+                SELECT CAST(? AS bigint)
+                UNION
+                SELECT d.blocked_id FROM task_dependencies d JOIN reach r ON d.blocker_id = r.id
+            )
+            SELECT EXISTS (SELECT 1 FROM reach WHERE id = ?)""";
+
+    private final TaskDependencyRepository repository;
+    private final TaskDependencyIndex index;
+    private final TaskService taskService;
+    private final JdbcTemplate jdbc;
+
+    public TaskDependencyService(TaskDependencyRepository repository, TaskDependencyIndex index,
+                                 TaskService taskService, JdbcTemplate jdbc) {
+        this.repository = repository;
+        this.index = index;
+        this.taskService = taskService;
+        this.jdbc = jdbc;
+    }
+
+    // ✅ Direct links of a task
+    public TaskDependenciesDTO dependencies(Authentication auth, Long taskId) {
+        taskService.get(auth, taskId);
+        return toDTO(auth, taskId);
+    }
+
+    // ✅ Record that blockerId blocks taskId (idempotent; cycles are rejected)
+    public TaskDependenciesDTO link(Authentication auth, Long taskId, Long blockerId) {
+        if (taskId.equals(blockerId)) throw new IllegalArgumentException("A task cannot block itself");
+        Task blocked = taskService.get(auth, taskId);
+        Task blocker = taskService.get(auth, blockerId);
+
+        index.link(blockerId, taskId, blocker.getStatus() == TaskStatus.DONE, blocked.getStatus() == TaskStatus.DONE);
+        // Another node may have committed the reverse path since our index was loaded
+        jdbc.queryForList("SELECT pg_advisory_xact_lock(?)", LOCK_KEY);
+        if (Boolean.TRUE.equals(jdbc.queryForObject(REACHES, Boolean.class, taskId, blockerId))) {
+            throw new IllegalArgumentException("Task " + blockerId + " cannot block task " + taskId
+                    + ": task " + taskId + " already blocks it, directly or through other tasks");
+        }
+        repository.insertIfAbsent(blockerId, taskId, auth.getName(), Instant.now());
+        return toDTO(auth, taskId);
+    }
+
+    // ✅ Remove a link
+    public void unlink(Authentication auth, Long taskId, Long blockerId) {
+        taskService.get(auth, taskId);
+        if (repository.deleteEdge(blockerId, taskId) > 0) index.unlinkAfterCommit(blockerId, taskId);
+    }
+
+    // ✅ Everything transitively blocked by a task, blockers before the tasks they block
+    public List<Long> dependents(Authentication auth, Long taskId) {
+        taskService.get(auth, taskId);
+        return visible(auth, index.downstream(taskId));
+    }
+
+    // ✅ Everything a task transitively waits on, in the order it can be worked through
+    public List<Long> prerequisites(Authentication auth, Long taskId) {
+        taskService.get(auth, taskId);
+        return visible(auth, index.upstream(taskId));
+    }
+
+    // ✅ Open tasks of the caller with no open blocker, soonest due first
+    public Page<TaskDTO> ready(Authentication auth, Pageable pageable) {
+        AuthenticatedUser caller = taskService.caller(auth);
+        Long[] blocked = boxed(index.blockedTasks());
+
+        String where = " FROM tasks WHERE status IS DISTINCT FROM 'DONE' AND (? OR assigned_to_id = ?) AND id <> ALL (?)";
+        PreparedStatementSetter filter = ps -> {
+            ps.setBoolean(1, caller.isAdmin());
+            ps.setLong(2, caller.getId());
+            ps.setArray(3, ps.getConnection().createArrayOf("bigint", blocked));
+        };
+        Long total = jdbc.query("SELECT count(*)" + where, filter, rs -> rs.next() ? rs.getLong(1) : 0L);
+        List<Long> ids = jdbc.query("SELECT id" + where + " ORDER BY due_date NULLS LAST, id LIMIT ? OFFSET ?", ps -> {
+            filter.setValues(ps);
+            ps.setInt(4, pageable.getPageSize());
+            ps.setLong(5, pageable.getOffset());
+        }, (rs, i) -> rs.getLong(1));
+
+        List<TaskDTO> content = new ArrayList<>(ids.size());
+        for (BatchTaskResult result : taskService.getBatch(auth, ids)) {
+            if (result.task() != null) content.add(result.task());
+        }
+        return new PageImpl<>(content, pageable, total == null ? 0 : total);
+    }
+
+    // Deleted tasks take their links with them, in the same transaction
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.type() == TaskChangeType.DELETED) repository.deleteTouching(event.taskId());
+    }
+
+    // Linked ids go through the same visibility filter as the traversals; 'blocked' still counts hidden blockers
+    private TaskDependenciesDTO toDTO(Authentication auth, Long taskId) {
+        return new TaskDependenciesDTO(taskId, visible(auth, index.blockers(taskId)), visible(auth, index.blocked(taskId)),
+                index.isBlocked(taskId));
+    }
+
+    // Admins see every task; everyone else only the ids assigned to them, order kept
+    private List<Long> visible(Authentication auth, long[] ids) {
+        AuthenticatedUser caller = taskService.caller(auth);
+        if (caller.isAdmin() || ids.length == 0) return list(ids);
+
+        Set<Long> own = new HashSet<>(jdbc.query("SELECT id FROM tasks WHERE id = ANY (?) AND assigned_to_id = ?", ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", boxed(ids)));
+            ps.setLong(2, caller.getId());
+        }, (rs, i) -> rs.getLong(1)));
+        List<Long> result = new ArrayList<>(own.size());
+        for (long id : ids) {
+            if (own.contains(id)) result.add(id);
+        }
+        return result;
+    }
+
+    private static List<Long> list(long[] ids) {
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) result.add(id);
+        return result;
+    }
+
+    private static Long[] boxed(long[] ids) {
+        Long[] result = new Long[ids.length];
+        for (int i = 0; i < ids.length; i++) result[i] = ids[i];
+        return result;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.taskmanager.dto;
+
+public record BatchTaskResult(Long id, Status status, TaskDTO task) {
+
+    public enum Status { FOUND, FORBIDDEN, MISSING }
+}
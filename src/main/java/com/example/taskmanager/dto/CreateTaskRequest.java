@@ -34,5 +34,8 @@ public record CreateTaskRequest(
         @FutureOrPresent(message = "Due date cannot be in the past")
         LocalDate dueDate,
 
-        Long assignedToId
+        Long assignedToId,
+
+        // Optional: create the task as a subtask of this one
+        Long parentId
 ) {}
@@ -0,0 +1,27 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.model.TaskPriority;
+import jakarta.validation.constraints.*;
+import java.time.LocalDate;
+
+public record CreateTemplateRequest(
+        @NotBlank(message = "Title must not be blank")
+        @Size(max = 120, message = "Title must not exceed 120 characters")
+        String title,
+
+        @Size(max = 1000, message = "Description must not exceed 1000 characters")
+        String description,
+
+        TaskPriority priority,
+
+        // Admins only; everyone else's templates are assigned to themselves
+        Long assignedToId,
+
+        // e.g. FREQ=WEEKLY;BYDAY=MO or FREQ=MONTHLY;BYDAY=-1FR;COUNT=6
+        @NotBlank(message = "Recurrence rule must not be blank")
+        @Size(max = 500, message = "Recurrence rule must not exceed 500 characters")
+        String rrule,
+
+        // First day the rule may produce; defaults to today
+        LocalDate startDate
+) {}
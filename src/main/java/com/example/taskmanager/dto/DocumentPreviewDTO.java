@@ -0,0 +1,14 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.model.PreviewJobStatus;
+import java.time.Instant;
+
+public record DocumentPreviewDTO(
+        String fileName,
+        PreviewJobStatus status,
+        Integer pageCount,
+        String title,
+        String author,
+        String producer,
+        Instant renderedAt
+) {}
@@ -0,0 +1,8 @@
+package com.example.taskmanager.dto;
+
+// One row of a subtree: depth is 1 for direct children of the requested task
+public record SubtaskDTO(
+        TaskDTO task,
+        Long parentId,
+        int depth
+) {}
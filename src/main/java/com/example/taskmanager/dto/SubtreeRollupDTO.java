@@ -0,0 +1,12 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.model.TaskStatus;
+import java.util.Map;
+
+// Status counts over every descendant of a task (the task itself not included)
+public record SubtreeRollupDTO(
+        Long taskId,
+        long total,
+        Map<TaskStatus, Long> byStatus,
+        double percentDone
+) {}
@@ -0,0 +1,11 @@
+package com.example.taskmanager.dto;
+
+import java.util.List;
+
+// Direct links of one task; 'blocked' is true while any of 'blockedBy' is not DONE
+public record TaskDependenciesDTO(
+        Long taskId,
+        List<Long> blockedBy,
+        List<Long> blocks,
+        boolean blocked
+) {}
@@ -0,0 +1,13 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.model.RevisionKind;
+import java.time.Instant;
+import java.util.Map;
+
+public record TaskRevisionDTO(
+        int revision,
+        RevisionKind kind,
+        String actor,
+        Instant createdAt,
+        Map<String, Object> changes
+) {}
@@ -0,0 +1,17 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.model.TaskPriority;
+import java.time.LocalDate;
+
+public record TaskTemplateDTO(
+        Long id,
+        String title,
+        String description,
+        TaskPriority priority,
+        Long assignedToId,
+        String rrule,
+        LocalDate startDate,
+        LocalDate nextOccurrence,
+        int generatedCount,
+        boolean active
+) {}
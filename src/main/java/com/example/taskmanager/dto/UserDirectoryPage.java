@@ -0,0 +1,6 @@
+package com.example.taskmanager.dto;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record UserDirectoryPage(List<UserDTO> items, String nextCursor) {}
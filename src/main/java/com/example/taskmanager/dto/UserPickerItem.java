@@ -0,0 +1,3 @@
+package com.example.taskmanager.dto;
+
+public record UserPickerItem(Long id, String name, String email) {}
@@ -0,0 +1,2 @@
+package com.example.taskmanager.event;
+public enum TaskChangeType { CREATED, UPDATED, DELETED, DOCUMENTS_UPLOADED }
@@ -0,0 +1,45 @@
+package com.example.taskmanager.event;
+
+import com.example.taskmanager.dto.TaskDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Published by TaskService for every task write.
+ * {@code before} is null for CREATED, {@code after} is null for DELETED.
+ */
+public record TaskChangedEvent(
+        TaskChangeType type,
+        Long taskId,
+        String actor,
+        TaskDTO before,
+        TaskDTO after,
+        Instant occurredAt
+) {
+
+    public static TaskChangedEvent of(TaskChangeType type, String actor, TaskDTO before, TaskDTO after) {
+        Long id = after != null ? after.id() : before.id();
+        return new TaskChangedEvent(type, id, actor, detach(before), detach(after), Instant.now());
+    }
+
+    // Listeners outlive the persistence context, so never hand them a Hibernate collection
+    private static TaskDTO detach(TaskDTO dto) {
+        if (dto == null || dto.documents() == null || dto.documents().getClass() == ArrayList.class) return dto;
+        return new TaskDTO(dto.id(), dto.title(), dto.description(), dto.status(), dto.priority(),
+                dto.dueDate(), dto.assignedToId(), new ArrayList<>(dto.documents()));
+    }
+
+    // Documents present in 'after' but not in 'before'
+    public List<String> addedDocuments() {
+        List<String> added = new ArrayList<>();
+        if (after == null || after.documents() == null) return added;
+        for (String doc : after.documents()) {
+            if (before == null || before.documents() == null || !before.documents().contains(doc)) {
+                added.add(doc);
+            }
+        }
+        return added;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.taskmanager.event;
+
+import java.util.Set;
+
+/**
+ * Published by TaskService when a task's tags are replaced. Tags are not part of
+ * {@link com.example.taskmanager.dto.TaskDTO}, so they travel in their own event.
+ */
+public record TaskTagsChangedEvent(
+        Long taskId,
+        Set<String> before,
+        Set<String> after
+) {}
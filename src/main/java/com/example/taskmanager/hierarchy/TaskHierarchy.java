@@ -0,0 +1,185 @@
+package com.example.taskmanager.hierarchy;
+
+import com.example.taskmanager.dto.SubtreeRollupDTO;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.model.TaskStatus;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parent/child structure of tasks as a closure table.
+ * <p>
+ * task_closure holds one row per (ancestor, descendant) pair with its distance, so a
+ * subtree, an ancestry or a "would this move create a loop" check is one primary-key or
+ * index range scan at any depth. task_subtree_counts keeps, per task, how many of its
+ * descendants are in each status; status changes and moves apply +/- deltas to all
+ * ancestors in one upsert, so a rollup is a single-row lookup.
+ * <p>
+ * Moves take a transaction-scoped advisory lock exclusively; attaches and status changes
+ * take it shared, so counts are never adjusted against an ancestry that is being rewritten.
+ * Every method must run inside the caller's transaction.
+ */
+@Component
+public class TaskHierarchy {
+
+    // Arbitrary, fixed key for pg_advisory_xact_lock: "hierarchy changes"
+    private static final long LOCK_KEY = 0x5441534B48494552L;
+
+    private static final String ADD_TO_ANCESTORS =
+            "INSERT INTO task_subtree_counts (task_id, status, task_count)"
+                    + " SELECT c.ancestor_id, d.status, d.delta FROM task_closure c"
+                    + " CROSS JOIN unnest(?, ?) AS d(status, delta)"
+                    + " WHERE c.descendant_id = ? ORDER BY 1, 2"
+                    + " ON CONFLICT (task_id, status) DO UPDATE SET task_count = task_subtree_counts.task_count + EXCLUDED.task_count";
+
+    private final JdbcTemplate jdbc;
+
+    public TaskHierarchy(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // ✅ Hang a task that has no children yet (a new one) under a parent
+    public void attach(long taskId, long parentId, TaskStatus status) {
+        lockShared();
+        insertPaths(taskId, parentId);
+        addToAncestors(taskId, Map.of(status.name(), 1L));
+    }
+
+    // ✅ Move a task and its whole subtree under another parent (null = make it a root)
+    public void move(long taskId, Long newParentId) {
+        if (newParentId != null && newParentId == taskId) {
+            throw new IllegalArgumentException("A task cannot be its own parent");
+        }
+        lockExclusive();
+        if (newParentId != null && isAncestor(taskId, newParentId)) {
+            throw new IllegalArgumentException("Task " + newParentId + " is inside the subtree of task " + taskId);
+        }
+
+        // Everything that moves: the task itself plus its descendants, by status
+        Map<String, Long> moving = new HashMap<>(rollupCounts(taskId));
+        String status = jdbc.queryForObject("SELECT status FROM tasks WHERE id = ?", String.class, taskId);
+        if (status != null) moving.merge(status, 1L, Long::sum);
+
+        Map<String, Long> removed = new HashMap<>();
+        moving.forEach((s, n) -> removed.put(s, -n));
+        addToAncestors(taskId, removed);
+
+        // Cut every path from an old ancestor into the subtree
+        jdbc.update("DELETE FROM task_closure WHERE ancestor_id IN (SELECT ancestor_id FROM task_closure WHERE descendant_id = ?)"
+                + " AND (descendant_id = ? OR descendant_id IN (SELECT descendant_id FROM task_closure WHERE ancestor_id = ?))",
+                taskId, taskId, taskId);
+
+        if (newParentId != null) {
+            insertPaths(taskId, newParentId);
+            addToAncestors(taskId, moving);
+        }
+    }
+
+    // ✅ Number of ancestors (0 for a root task)
+    public int depth(long taskId) {
+        Integer depth = jdbc.queryForObject("SELECT count(*) FROM task_closure WHERE descendant_id = ?", Integer.class, taskId);
+        return depth == null ? 0 : depth;
+    }
+
+    // ✅ Distance from the given root to every descendant
+    public Map<Long, Integer> depths(long rootId) {
+        Map<Long, Integer> depths = new HashMap<>();
+        jdbc.query("SELECT descendant_id, depth FROM task_closure WHERE ancestor_id = ?",
+                rs -> {
+                    depths.put(rs.getLong(1), rs.getInt(2));
+                }, rootId);
+        return depths;
+    }
+
+    // ✅ Status counts of all descendants, from the incrementally maintained table
+    public SubtreeRollupDTO rollup(long taskId) {
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus s : TaskStatus.values()) byStatus.put(s, 0L);
+        long total = 0;
+        for (Map.Entry<String, Long> e : rollupCounts(taskId).entrySet()) {
+            byStatus.put(TaskStatus.valueOf(e.getKey()), e.getValue());
+            total += e.getValue();
+        }
+        double percentDone = total == 0 ? 0.0 : Math.round(byStatus.get(TaskStatus.DONE) * 1000.0 / total) / 10.0;
+        return new SubtreeRollupDTO(taskId, total, byStatus, percentDone);
+    }
+
+    // In the writer's transaction: ancestors follow status changes, deletes leave the tree
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.type() == TaskChangeType.UPDATED) {
+            TaskStatus before = event.before() != null ? event.before().status() : null;
+            TaskStatus after = event.after() != null ? event.after().status() : null;
+            if (before == after) return;
+
+            lockShared();
+            Map<String, Long> deltas = new HashMap<>();
+            if (before != null) deltas.put(before.name(), -1L);
+            if (after != null) deltas.put(after.name(), 1L);
+            addToAncestors(event.taskId(), deltas);
+        } else if (event.type() == TaskChangeType.DELETED) {
+            lockShared();
+            Boolean hasChildren = jdbc.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM task_closure WHERE ancestor_id = ?)", Boolean.class, event.taskId());
+            if (Boolean.TRUE.equals(hasChildren)) {
+                throw new IllegalArgumentException("Task has subtasks; move or delete them first");
+            }
+            TaskStatus status = event.before() != null ? event.before().status() : null;
+            if (status != null) addToAncestors(event.taskId(), Map.of(status.name(), -1L));
+            jdbc.update("DELETE FROM task_closure WHERE descendant_id = ?", event.taskId());
+            jdbc.update("DELETE FROM task_subtree_counts WHERE task_id = ?", event.taskId());
+        }
+    }
+
+    private boolean isAncestor(long ancestorId, long descendantId) {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM task_closure WHERE ancestor_id = ? AND descendant_id = ?)",
+                Boolean.class, ancestorId, descendantId));
+    }
+
+    // Every ancestor of the new parent (and the parent itself) gets a path to every node of the subtree
+    private void insertPaths(long taskId, long parentId) {
+        jdbc.update("INSERT INTO task_closure (ancestor_id, descendant_id, depth)"
+                        + " SELECT p.ancestor_id, s.descendant_id, p.depth + s.depth + 1"
+                        + " FROM (SELECT ancestor_id, depth FROM task_closure WHERE descendant_id = ? UNION ALL SELECT ?::bigint, 0) p"
+                        + " CROSS JOIN (SELECT descendant_id, depth FROM task_closure WHERE ancestor_id = ? UNION ALL SELECT ?::bigint, 0) s",
+                parentId, parentId, taskId, taskId);
+    }
+
+    private void addToAncestors(long taskId, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) return;
+        String[] statuses = deltas.keySet().toArray(new String[0]);
+        Long[] counts = new Long[statuses.length];
+        for (int i = 0; i < statuses.length; i++) counts[i] = deltas.get(statuses[i]);
+        jdbc.update(ADD_TO_ANCESTORS, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("varchar", statuses));
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", counts));
+            ps.setLong(3, taskId);
+        });
+    }
+
+    private Map<String, Long> rollupCounts(long taskId) {
+        Map<String, Long> counts = new HashMap<>();
+        List<Map<String, Object>> rows = jdbc.queryForList(
+                "SELECT status, task_count FROM task_subtree_counts WHERE task_id = ? AND task_count <> 0", taskId);
+        for (Map<String, Object> row : rows) {
+            counts.put((String) row.get("status"), ((Number) row.get("task_count")).longValue());
+        }
+        return counts;
+    }
+
+    private void lockShared() {
+        jdbc.queryForList("SELECT pg_advisory_xact_lock_shared(?)", LOCK_KEY);
+    }
+
+    private void lockExclusive() {
+        jdbc.queryForList("SELECT pg_advisory_xact_lock(?)", LOCK_KEY);
+    }
+}
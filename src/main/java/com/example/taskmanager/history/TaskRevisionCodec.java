@@ -0,0 +1,105 @@
+package com.example.taskmanager.history;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Encodes task states as field maps: full snapshots, or deltas holding only the
+ * fields that changed (with their new values). Values are stored as plain JSON
+ * scalars so the payload does not depend on ObjectMapper date/enum settings.
+ */
+public final class TaskRevisionCodec {
+
+    private static final TypeReference<LinkedHashMap<String, Object>> MAP = new TypeReference<>() {};
+
+    private final ObjectMapper mapper;
+
+    public TaskRevisionCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    public Map<String, Object> snapshot(TaskDTO t) {
+        return delta(null, t);
+    }
+
+    public Map<String, Object> delta(TaskDTO before, TaskDTO after) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        put(changes, "title", before == null ? null : before.title(), after.title(), before == null);
+        put(changes, "description", before == null ? null : before.description(), after.description(), before == null);
+        put(changes, "status", before == null ? null : name(before.status()), name(after.status()), before == null);
+        put(changes, "priority", before == null ? null : name(before.priority()), name(after.priority()), before == null);
+        put(changes, "dueDate", before == null ? null : text(before.dueDate()), text(after.dueDate()), before == null);
+        put(changes, "assignedToId", before == null ? null : before.assignedToId(), after.assignedToId(), before == null);
+        put(changes, "documents", before == null ? null : docs(before.documents()), docs(after.documents()), before == null);
+        return changes;
+    }
+
+    public TaskDTO apply(Long id, TaskDTO base, Map<String, Object> changes) {
+        String title = base != null ? base.title() : null;
+        String description = base != null ? base.description() : null;
+        TaskStatus status = base != null ? base.status() : null;
+        TaskPriority priority = base != null ? base.priority() : null;
+        LocalDate dueDate = base != null ? base.dueDate() : null;
+        Long assignedToId = base != null ? base.assignedToId() : null;
+        List<String> documents = base != null ? base.documents() : null;
+
+        for (Map.Entry<String, Object> e : changes.entrySet()) {
+            Object v = e.getValue();
+            switch (e.getKey()) {
+                case "title" -> title = (String) v;
+                case "description" -> description = (String) v;
+                case "status" -> status = v == null ? null : TaskStatus.valueOf((String) v);
+                case "priority" -> priority = v == null ? null : TaskPriority.valueOf((String) v);
+                case "dueDate" -> dueDate = v == null ? null : LocalDate.parse((String) v);
+                case "assignedToId" -> assignedToId = v == null ? null : ((Number) v).longValue();
+                case "documents" -> documents = v == null ? null : castList(v);
+                default -> { }
+            }
+        }
+        return new TaskDTO(id, title, description, status, priority, dueDate, assignedToId, documents);
+    }
+
+    public String encode(Map<String, Object> changes) {
+        try {
+            return mapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not encode task revision", e);
+        }
+    }
+
+    public Map<String, Object> decode(String payload) {
+        try {
+            return mapper.readValue(payload, MAP);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Corrupt task revision payload", e);
+        }
+    }
+
+    private static void put(Map<String, Object> m, String key, Object oldValue, Object newValue, boolean always) {
+        if (always || !Objects.equals(oldValue, newValue)) m.put(key, newValue);
+    }
+
+    private static String name(Enum<?> e) {
+        return e == null ? null : e.name();
+    }
+
+    private static String text(LocalDate d) {
+        return d == null ? null : d.toString();
+    }
+
+    private static List<String> docs(List<String> docs) {
+        return docs == null ? null : new ArrayList<>(docs);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> castList(Object v) {
+        return new ArrayList<>((List<String>) v);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.taskmanager.idempotency;
+
+/**
+ * A replayed Idempotency-Key that cannot be answered from the stored result:
+ * 409 while the original is still running, 422 when the body differs.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final int status;
+
+    public IdempotencyConflictException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
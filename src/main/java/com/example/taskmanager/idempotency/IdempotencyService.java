@@ -0,0 +1,216 @@
+package com.example.taskmanager.idempotency;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.model.IdempotencyKey;
+import com.example.taskmanager.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Runs a task write at most once per (caller, Idempotency-Key).
+ *
+ * Finished results live in a bounded LRU in front of the idempotency_keys table, so
+ * replays are answered without touching TaskService. Duplicates that arrive while the
+ * first request is still running wait on its future in this JVM; across instances the
+ * table's primary key decides who runs and the loser gets a 409.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 200;
+
+    @FunctionalInterface
+    public interface Action {
+        TaskDTO run() throws IOException;
+    }
+
+    private record Completed(String fingerprint, TaskDTO task, Instant expiresAt) {}
+
+    private record InFlight(String fingerprint, CompletableFuture<TaskDTO> result) {}
+
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final long waitTimeoutMs;
+
+    private final Map<String, Completed> completed;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${app.idempotency.claim-timeout-seconds:120}") long claimTimeoutSeconds,
+                              @Value("${app.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs,
+                              @Value("${app.idempotency.memory-max-entries:10000}") int memoryMaxEntries) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+                return size() > memoryMaxEntries;
+            }
+        });
+    }
+
+    // ✅ Run the action once for this key; later calls with the same key get the same TaskDTO
+    public IdempotentResult execute(String scope, String key, String fingerprint, Action action) throws IOException {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String id = keyId(scope, key);
+
+        Completed done = completed.get(id);
+        if (done != null && done.expiresAt().isAfter(Instant.now())) {
+            requireSameRequest(done.fingerprint(), fingerprint);
+            return new IdempotentResult(done.task(), true);
+        }
+
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            requireSameRequest(running.fingerprint(), fingerprint);
+            return new IdempotentResult(await(running.result()), true);
+        }
+
+        try {
+            IdempotentResult result = runOnce(id, fingerprint, action);
+            mine.result().complete(result.task());
+            return result;
+        } catch (IOException | RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    private IdempotentResult runOnce(String id, String fingerprint, Action action) throws IOException {
+        Instant now = Instant.now();
+        repository.deleteStale(id, now, now.minus(claimTimeout));
+
+        if (repository.claim(id, fingerprint, now, now.plus(ttl)) == 0) {
+            IdempotencyKey row = repository.findById(id)
+                    .orElseThrow(() -> new IdempotencyConflictException(409,
+                            "A request with this Idempotency-Key is still being processed"));
+            requireSameRequest(row.getFingerprint(), fingerprint);
+            if (row.getResponse() == null) {
+                throw new IdempotencyConflictException(409,
+                        "A request with this Idempotency-Key is still being processed");
+            }
+            TaskDTO stored = objectMapper.readValue(row.getResponse(), TaskDTO.class);
+            completed.put(id, new Completed(row.getFingerprint(), stored, row.getExpiresAt()));
+            return new IdempotentResult(stored, true);
+        }
+
+        TaskDTO task;
+        try {
+            task = action.run();
+        } catch (IOException | RuntimeException e) {
+            repository.release(id);
+            throw e;
+        }
+
+        repository.complete(id, objectMapper.writeValueAsString(task));
+        completed.put(id, new Completed(fingerprint, task, now.plus(ttl)));
+        return new IdempotentResult(task, false);
+    }
+
+    private TaskDTO await(CompletableFuture<TaskDTO> result) throws IOException {
+        try {
+            return result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException(409, "A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the original request");
+        } catch (ExecutionException e) {
+            // The original failed; its caller got the error, the duplicate gets the same one
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static void requireSameRequest(String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new IdempotencyConflictException(422,
+                    "Idempotency-Key was already used with a different request");
+        }
+    }
+
+    // ✅ Fingerprint of a JSON request body
+    public String fingerprint(String route, Object body) {
+        MessageDigest digest = sha256();
+        digest.update(route.getBytes(StandardCharsets.UTF_8));
+        try {
+            digest.update(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be fingerprinted");
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // ✅ Fingerprint of a multipart upload: names, sizes and bytes of every part
+    public String fingerprint(String route, MultipartFile[] files) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(route.getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[8192];
+        for (MultipartFile f : files) {
+            digest.update(String.valueOf(f.getOriginalFilename()).getBytes(StandardCharsets.UTF_8));
+            digest.update(Long.toString(f.getSize()).getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = f.getInputStream()) {
+                int n;
+                while ((n = in.read(buffer)) > 0) digest.update(buffer, 0, n);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // The scope's length goes first, so no (scope, key) pair can collide with another by moving the separator
+    private static String keyId(String scope, String key) {
+        String raw = scope.length() + ":" + scope + ":" + key;
+        return HexFormat.of().formatHex(sha256().digest(raw.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        synchronized (completed) {
+            completed.values().removeIf(c -> !c.expiresAt().isAfter(now));
+        }
+        int removed = repository.deleteExpired(now);
+        if (removed > 0) log.debug("Purged {} expired idempotency keys", removed);
+    }
+}
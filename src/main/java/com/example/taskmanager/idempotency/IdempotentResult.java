@@ -0,0 +1,6 @@
+package com.example.taskmanager.idempotency;
+
+import com.example.taskmanager.dto.TaskDTO;
+
+/** The task a keyed request produced, and whether it was served from an earlier run. */
+public record IdempotentResult(TaskDTO task, boolean replayed) {}
@@ -0,0 +1,26 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "document_previews")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class DocumentPreview {
+    @Id
+    private String fileName;
+
+    private int pageCount;
+
+    private String title;
+
+    private String author;
+
+    private String producer;
+
+    // Path of the rendered first-page PNG, relative to app.preview.dir
+    private String thumbnail;
+
+    private Instant renderedAt;
+}
@@ -0,0 +1,30 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class IdempotencyKey {
+    // SHA-256 hex of caller + Idempotency-Key header: fixed length whatever the email and key
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    // SHA-256 of route + request body; a reused key with a different body is rejected
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // Serialized TaskDTO; null while the first request is still running
+    @Column(columnDefinition = "text")
+    private String response;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,31 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "preview_jobs",
+        indexes = @Index(name = "idx_preview_jobs_status", columnList = "status, id"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class PreviewJob {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // One job per stored file; the unique key is what dedupes renders
+    @Column(nullable = false, unique = true)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PreviewJobStatus status;
+
+    private int attempts;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+}
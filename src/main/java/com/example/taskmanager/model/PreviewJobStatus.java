@@ -0,0 +1,2 @@
+package com.example.taskmanager.model;
+public enum PreviewJobStatus { PENDING, RUNNING, DONE, FAILED }
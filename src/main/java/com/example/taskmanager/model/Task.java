@@ -2,11 +2,20 @@ package com.example.taskmanager.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks",
+        indexes = {
+                @Index(name = "idx_tasks_due_date", columnList = "due_date"),
+                @Index(name = "idx_tasks_status_completed", columnList = "status, completed_at"),
+                @Index(name = "idx_tasks_assigned_to", columnList = "assigned_to_id, id"),
+                @Index(name = "idx_tasks_parent", columnList = "parent_id")
+        })
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Task {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,10 +35,33 @@ public class Task {
 
     private LocalDate dueDate;
 
+    // Set when the task moves to DONE; drives archival
+    private Instant completedAt;
+
+    // Direct parent for subtasks; the full ancestry lives in task_closure (see TaskHierarchy)
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    // Set on tasks generated from a recurring template, with the date they stand for
+    @Column(name = "template_id")
+    private Long templateId;
+
+    @Column(name = "occurrence_on")
+    private LocalDate occurrenceOn;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_to_id")
     private User assignedTo;
 
+    // A page of tasks loads its documents in one IN query instead of one per task
     @ElementCollection
+    @BatchSize(size = 100)
     private List<String> documents;
+
+    // Lower-case labels; filtered through the bitmaps in TaskTagIndex, not by joining this table
+    @ElementCollection
+    @CollectionTable(name = "task_tags", joinColumns = @JoinColumn(name = "task_id"))
+    @Column(name = "tag", length = 64)
+    @BatchSize(size = 100)
+    private Set<String> tags;
 }
@@ -0,0 +1,35 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+// Append-only: rows are inserted in batches by AuditWriter and never updated
+@Entity
+@Table(name = "task_audit_log",
+        indexes = @Index(name = "idx_task_audit_log_task", columnList = "task_id, id"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TaskAuditEntry {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    private String actor;
+
+    @Column(nullable = false, length = 32)
+    private String action;
+
+    @Column(length = 32)
+    private String field;
+
+    @Column(length = 1000)
+    private String oldValue;
+
+    @Column(length = 1000)
+    private String newValue;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+}
@@ -0,0 +1,27 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+// "blocker blocks blocked": the blocked task should not start before the blocker is DONE
+@Entity
+@Table(name = "task_dependencies",
+        uniqueConstraints = @UniqueConstraint(name = "uk_task_dependencies_edge", columnNames = {"blocker_id", "blocked_id"}),
+        indexes = @Index(name = "idx_task_dependencies_blocked", columnList = "blocked_id"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TaskDependency {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long blockerId;
+
+    @Column(nullable = false)
+    private Long blockedId;
+
+    private String createdBy;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
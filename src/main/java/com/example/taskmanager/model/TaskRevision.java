@@ -0,0 +1,34 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "task_revisions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_task_revisions_task_rev", columnNames = {"task_id", "revision"}),
+        indexes = @Index(name = "idx_task_revisions_task_time", columnList = "task_id, created_at"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TaskRevision {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false)
+    private int revision;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RevisionKind kind;
+
+    // JSON: every field for a SNAPSHOT, only the changed fields for a DELTA
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    private String actor;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,53 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "task_templates",
+        indexes = {
+                // The generator's only access path: templates with an occurrence inside the look-ahead window
+                @Index(name = "idx_task_templates_next", columnList = "next_occurrence"),
+                @Index(name = "idx_task_templates_assignee", columnList = "assigned_to_id, id")
+        })
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TaskTemplate {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(length = 1000)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private TaskPriority priority;
+
+    @Column(name = "assigned_to_id", nullable = false)
+    private Long assignedToId;
+
+    private String createdBy;
+
+    // RFC 5545 RRULE (date part), see RecurrenceRule
+    @Column(nullable = false, length = 500)
+    private String rrule;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    // Earliest occurrence not turned into a task yet; null once the rule has ended or the template is stopped
+    @Column(name = "next_occurrence")
+    private LocalDate nextOccurrence;
+
+    // Occurrences used up so far (generated or skipped), for COUNT rules
+    private int generatedCount;
+
+    private boolean active;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,19 @@
+package com.example.taskmanager.observability;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of JDBC statements one request to this handler may run (the JWT user
+ * lookup in the security filter is not counted). Exceeding it is logged; with
+ * {@code app.query-budget.strict=true} (meant for tests) the offending statement fails.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /** Statements allowed per request. */
+    int value();
+}
@@ -0,0 +1,9 @@
+package com.example.taskmanager.observability;
+
+/** Thrown in strict mode when a request goes over its {@link QueryBudget} or repeats a query shape too often. */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
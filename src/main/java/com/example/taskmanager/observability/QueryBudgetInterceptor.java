@@ -0,0 +1,42 @@
+package com.example.taskmanager.observability;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/** Ties {@link QueryTracker} to the handler method serving the request. */
+@Component
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private final QueryTracker tracker;
+
+    public QueryBudgetInterceptor(QueryTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), QueryBudget.class);
+            if (budget == null) budget = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), QueryBudget.class);
+            tracker.begin(method.getBeanType().getSimpleName() + "." + method.getMethod().getName(),
+                    budget == null ? 0 : budget.value());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        tracker.end();
+    }
+
+    // Async handlers (streamed downloads, NDJSON reads) get no afterCompletion on this dispatch;
+    // the thread goes back to the pool and must not carry the tally into its next request
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        tracker.discard();
+    }
+}
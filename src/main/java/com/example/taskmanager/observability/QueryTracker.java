@@ -0,0 +1,153 @@
+package com.example.taskmanager.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Per-request statement counting. A sampled request gets a thread-local tally of
+ * statements by query shape; at the end it is checked against the handler's
+ * {@link QueryBudget} and for repeated shapes (the signature of an N+1: the same
+ * select once per parent row). Unsampled requests pay one ThreadLocal read per statement.
+ */
+@Component
+public class QueryTracker {
+
+    private static final Logger log = LoggerFactory.getLogger("sql.budget");
+    private static final int MAX_CACHED_SHAPES = 5_000;
+
+    // IN (?, ?, ?) and VALUES (?,?),(?,?) lists collapse, so batch sizes don't make new shapes
+    private static final Pattern PARAM_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern REPEATED_TUPLES = Pattern.compile("(\\(\\?\\+\\))(\\s*,\\s*\\(\\?\\+\\))+");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern STRING = Pattern.compile("'[^']*'");
+    private static final Pattern SPACE = Pattern.compile("\\s+");
+
+    static final class Tally {
+        final String handler;
+        final int budget;
+        int statements;
+        final Map<String, Integer> shapes = new HashMap<>();
+        boolean reported;
+
+        Tally(String handler, int budget) {
+            this.handler = handler;
+            this.budget = budget;
+        }
+    }
+
+    private final ThreadLocal<Tally> current = new ThreadLocal<>();
+    private final ConcurrentHashMap<String, String> shapeCache = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final boolean strict;
+    private final int repeatThreshold;
+    private final MeterRegistry registry;
+    private final Counter overBudget;
+    private final Counter nPlusOne;
+
+    public QueryTracker(@Value("${app.query-budget.enabled:true}") boolean enabled,
+                        @Value("${app.query-budget.sample-rate:0.05}") double sampleRate,
+                        @Value("${app.query-budget.strict:false}") boolean strict,
+                        @Value("${app.query-budget.n-plus-one-threshold:5}") int repeatThreshold,
+                        MeterRegistry registry) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.strict = strict;
+        this.repeatThreshold = repeatThreshold;
+        this.registry = registry;
+        this.overBudget = Counter.builder("db.requests.over.budget").register(registry);
+        this.nPlusOne = Counter.builder("db.requests.n.plus.one").register(registry);
+    }
+
+    boolean enabled() {
+        return enabled;
+    }
+
+    /** Starts tracking this request if it is sampled (strict mode tracks every request). */
+    void begin(String handler, int budget) {
+        // A tally left behind on this thread must never be charged to this request
+        current.remove();
+        if (!enabled) return;
+        if (strict || sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            current.set(new Tally(handler, budget));
+        }
+    }
+
+    /** Called by the DataSource wrapper before each statement runs. */
+    void onStatement(String sql) {
+        Tally tally = current.get();
+        if (tally == null || sql == null) return;
+
+        tally.statements++;
+        String shape = shape(sql);
+        int repeats = tally.shapes.merge(shape, 1, Integer::sum);
+
+        if (strict) {
+            if (tally.budget > 0 && tally.statements > tally.budget) {
+                throw new QueryBudgetExceededException(tally.handler + " ran more than its budget of "
+                        + tally.budget + " statements");
+            }
+            if (repeats >= repeatThreshold) {
+                throw new QueryBudgetExceededException(tally.handler + " repeated one query shape "
+                        + repeats + " times (N+1): " + shape);
+            }
+        }
+    }
+
+    /** Ends tracking and reports; safe to call for requests that were not sampled. */
+    void end() {
+        Tally tally = current.get();
+        if (tally == null) return;
+        current.remove();
+
+        DistributionSummary.builder("db.statements.per.request")
+                .tag("handler", tally.handler)
+                .register(registry)
+                .record(tally.statements);
+
+        if (tally.budget > 0 && tally.statements > tally.budget) {
+            overBudget.increment();
+            log.warn("query_budget_exceeded handler={} statements={} budget={} shapes={}",
+                    tally.handler, tally.statements, tally.budget, tally.shapes.size());
+        }
+        tally.shapes.forEach((shape, count) -> {
+            if (count >= repeatThreshold) {
+                nPlusOne.increment();
+                log.warn("n_plus_one handler={} repeats={} shape=\"{}\"", tally.handler, count, shape);
+            }
+        });
+    }
+
+    /** Drops this thread's tally without reporting it (the request went async and finishes elsewhere). */
+    void discard() {
+        current.remove();
+    }
+
+    /** SQL with literals and parameter lists normalized away; cached per distinct SQL string. */
+    String shape(String sql) {
+        String cached = shapeCache.get(sql);
+        if (cached != null) return cached;
+
+        String s = STRING.matcher(sql).replaceAll("?");
+        s = NUMBER.matcher(s).replaceAll("?");
+        s = SPACE.matcher(s).replaceAll(" ").trim();
+        s = PARAM_LIST.matcher(s).replaceAll("(?+)");
+        s = REPEATED_TUPLES.matcher(s).replaceAll("$1, ...");
+
+        if (shapeCache.size() > MAX_CACHED_SHAPES) shapeCache.clear();
+        shapeCache.put(sql, s);
+        return s;
+    }
+}
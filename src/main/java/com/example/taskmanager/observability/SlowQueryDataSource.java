@@ -0,0 +1,300 @@
+package com.example.taskmanager.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * DataSource wrapper that times every statement and hands the result to {@link SlowQueryLog}.
+ * Parameters are logged as shapes (type and length), never values, and are only formatted
+ * for statements that turned out slow. A query is timed from execute until its ResultSet
+ * (or the statement) is closed, so fetch time and the row count are included. Each
+ * execution is also counted by {@link QueryTracker} for the current request and traced
+ * as a "jdbc.query" span (statement text and row count as attributes).
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private final SlowQueryLog slowLog;
+    private final QueryTracker tracker;
+    private final ObservationRegistry observations;
+
+    public SlowQueryDataSource(DataSource target, SlowQueryLog slowLog, QueryTracker tracker,
+                               ObservationRegistry observations) {
+        super(target);
+        this.slowLog = slowLog;
+        this.tracker = tracker;
+        this.observations = observations;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall" -> statement(CallableStatement.class, (Statement) result, (String) args[0]);
+                case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                default -> result;
+            };
+        }
+
+        private Object statement(Class<? extends Statement> type, Statement statement, String sql) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private String sql;
+        // Setter name and value per parameter index, kept as given; only a slow statement formats them
+        private String[] setters = new String[8];
+        private Object[] values = new Object[8];
+        private int paramCount;
+        private int batched;
+
+        // Query whose ResultSet is still open; its parameters share the arrays above until the next setter
+        private long queryStart;
+        private String querySql;
+        private String[] querySetters;
+        private Object[] queryValues;
+        private int queryParamCount;
+        private CountingResultSet resultSet;
+        private boolean open;
+        private Observation observation;
+        private final Consumer<CountingResultSet> closed = this::resultSetClosed;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                recordParam(index, name, args[1]);
+                return SlowQueryDataSource.invoke(target, method, args);
+            }
+            switch (name) {
+                case "clearParameters" -> paramCount = 0;
+                case "addBatch" -> {
+                    batched++;
+                    if (args != null && args.length == 1 && args[0] instanceof String s) sql = s;
+                }
+                case "executeQuery" -> {
+                    if (args != null && args.length == 1) sql = (String) args[0];
+                    finishOpenQuery();
+                    tracker.onStatement(sql);
+                    Observation traced = startObservation(sql);
+                    long start = System.nanoTime();
+                    ResultSet rs = (ResultSet) invokeTraced(traced, method, args);
+                    openQuery(start, traced);
+                    return countingResultSet(rs, (Statement) proxy);
+                }
+                case "getResultSet" -> {
+                    ResultSet rs = (ResultSet) SlowQueryDataSource.invoke(target, method, args);
+                    return rs == null || !open ? rs : countingResultSet(rs, (Statement) proxy);
+                }
+                case "execute", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch" -> {
+                    if (args != null && args.length >= 1 && args[0] instanceof String s) sql = s;
+                    finishOpenQuery();
+                    tracker.onStatement(sql);
+                    Observation traced = startObservation(sql);
+                    long start = System.nanoTime();
+                    Object result = invokeTraced(traced, method, args);
+                    long elapsed = System.nanoTime() - start;
+                    if (name.equals("execute") && Boolean.TRUE.equals(result)) {
+                        // Rows arrive through getResultSet(); time them like executeQuery
+                        openQuery(start, traced);
+                    } else {
+                        long count = rowCount(result);
+                        if (slowLog.isSlow(elapsed)) {
+                            slowLog.finished(sql, shapes(setters, values, paramCount, batched), elapsed, count);
+                        }
+                        stopObservation(traced, count);
+                    }
+                    batched = 0;
+                    return result;
+                }
+                case "close" -> finishOpenQuery();
+                default -> {
+                }
+            }
+            return SlowQueryDataSource.invoke(target, method, args);
+        }
+
+        private void openQuery(long start, Observation traced) {
+            queryStart = start;
+            querySql = sql;
+            querySetters = setters;
+            queryValues = values;
+            queryParamCount = paramCount;
+            resultSet = null;
+            open = true;
+            observation = traced;
+        }
+
+        // getResultSet() may be called more than once for the same rows. The ResultSet hands out
+        // the proxy as its statement, so closing that still finishes the query here.
+        private ResultSet countingResultSet(ResultSet rs, Statement proxy) {
+            if (resultSet == null || resultSet.target() != rs) resultSet = new CountingResultSet(rs, proxy, closed);
+            return resultSet;
+        }
+
+        private void resultSetClosed(CountingResultSet rs) {
+            if (rs == resultSet) finishOpenQuery();
+        }
+
+        private void finishOpenQuery() {
+            if (!open) return;
+            open = false;
+            long rows = resultSet == null ? -1 : resultSet.rows();
+            long elapsed = System.nanoTime() - queryStart;
+            if (slowLog.isSlow(elapsed)) {
+                slowLog.finished(querySql, shapes(querySetters, queryValues, queryParamCount, 0), elapsed, rows);
+            }
+            stopObservation(observation, rows);
+            observation = null;
+            resultSet = null;
+            querySetters = null;
+            queryValues = null;
+        }
+
+        private Object invokeTraced(Observation traced, Method method, Object[] args) throws Throwable {
+            try {
+                return SlowQueryDataSource.invoke(target, method, args);
+            } catch (Throwable t) {
+                traced.error(t);
+                traced.stop();
+                throw t;
+            }
+        }
+
+        private void recordParam(int index, String setter, Object value) {
+            if (values == queryValues) {
+                // The open query still reports these; copy on its behalf before the first change
+                setters = setters.clone();
+                values = values.clone();
+            }
+            if (index > setters.length) {
+                int size = Math.max(index, setters.length * 2);
+                setters = Arrays.copyOf(setters, size);
+                values = Arrays.copyOf(values, size);
+            }
+            if (index > paramCount) {
+                Arrays.fill(setters, paramCount, index - 1, null);
+                paramCount = index;
+            }
+            setters[index - 1] = setter;
+            values[index - 1] = value;
+        }
+    }
+
+    // Parent is whatever span is current (usually a repository call); not put in scope
+    private Observation startObservation(String sql) {
+        Observation traced = Observation.createNotStarted("jdbc.query", observations);
+        if (traced.isNoop()) return traced;
+        return traced.contextualName("jdbc " + operation(sql))
+                .lowCardinalityKeyValue("db.operation", operation(sql))
+                .highCardinalityKeyValue("db.statement", sql == null ? "" : sql)
+                .start();
+    }
+
+    private static void stopObservation(Observation traced, long rows) {
+        if (traced == null || traced.isNoop()) return;
+        if (rows >= 0) traced.highCardinalityKeyValue("db.rows", Long.toString(rows));
+        traced.stop();
+    }
+
+    private static String operation(String sql) {
+        if (sql == null) return "other";
+        String verb = sql.stripLeading();
+        int end = 0;
+        while (end < verb.length() && Character.isLetter(verb.charAt(end))) end++;
+        return switch (verb.substring(0, end).toLowerCase(Locale.ROOT)) {
+            case "select", "with" -> "select";
+            case "insert" -> "insert";
+            case "update" -> "update";
+            case "delete" -> "delete";
+            default -> "other";
+        };
+    }
+
+    private static List<String> shapes(String[] setters, Object[] values, int count, int batched) {
+        List<String> shapes = new ArrayList<>(count + 1);
+        for (int i = 0; i < count; i++) shapes.add(shape(setters[i], values[i]));
+        if (batched > 1) shapes.add("x" + batched + " batched");
+        return shapes;
+    }
+
+    private static String shape(String setter, Object value) {
+        if (setter == null) return "?";
+        if (setter.equals("setNull") || value == null) return "null";
+        if (value instanceof String s) return "String(" + s.length() + ")";
+        if (value instanceof byte[] b) return "bytes(" + b.length + ")";
+        return value.getClass().getSimpleName();
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Integer i) return i;
+        if (result instanceof Long l) return l;
+        if (result instanceof int[] counts) {
+            long sum = 0;
+            for (int c : counts) if (c > 0) sum += c;
+            return sum;
+        }
+        if (result instanceof long[] counts) {
+            long sum = 0;
+            for (long c : counts) if (c > 0) sum += c;
+            return sum;
+        }
+        return -1;
+    }
+}
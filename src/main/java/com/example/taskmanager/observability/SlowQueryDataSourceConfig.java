@@ -0,0 +1,36 @@
+package com.example.taskmanager.observability;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in {@link SlowQueryDataSource} (slow-query log,
+ * per-request statement counting and JDBC spans); replaces spring.jpa.show-sql.
+ */
+@Configuration
+public class SlowQueryDataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowLog,
+                                                                     ObjectProvider<QueryTracker> tracker,
+                                                                     ObjectProvider<ObservationRegistry> observations) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds && !(bean instanceof SlowQueryDataSource)) {
+                    SlowQueryLog log = slowLog.getObject();
+                    QueryTracker queries = tracker.getObject();
+                    ObservationRegistry registry = observations.getIfAvailable(() -> ObservationRegistry.NOOP);
+                    return log.enabled() || queries.enabled() || !registry.isNoop()
+                            ? new SlowQueryDataSource(ds, log, queries, registry) : bean;
+                }
+                return bean;
+            }
+        };
+    }
+}
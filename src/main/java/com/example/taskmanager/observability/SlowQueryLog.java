@@ -0,0 +1,113 @@
+package com.example.taskmanager.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides which finished JDBC statements get logged: only those slower than
+ * {@code app.sql-log.slow-threshold-ms}, and at most {@code max-per-second} lines per
+ * distinct SQL string. Lines that were sampled away are counted and reported on the next
+ * line for the same statement. Fast statements cost one comparison.
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger("sql.slow");
+    private static final int MAX_TRACKED_STATEMENTS = 10_000;
+    private static final String APP_PACKAGE = "com.example.taskmanager.";
+    private static final String OWN_PACKAGE = "com.example.taskmanager.observability.";
+
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final int maxPerSecond;
+    private final Counter slowCounter;
+    private final ConcurrentHashMap<String, Sampler> samplers = new ConcurrentHashMap<>();
+
+    public SlowQueryLog(@Value("${app.sql-log.enabled:true}") boolean enabled,
+                        @Value("${app.sql-log.slow-threshold-ms:200}") long thresholdMs,
+                        @Value("${app.sql-log.max-per-second:5}") int maxPerSecond,
+                        MeterRegistry registry) {
+        this.enabled = enabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.maxPerSecond = maxPerSecond;
+        this.slowCounter = Counter.builder("db.statements.slow")
+                .description("JDBC statements slower than app.sql-log.slow-threshold-ms")
+                .register(registry);
+    }
+
+    boolean enabled() {
+        return enabled;
+    }
+
+    /** True if a statement that took this long gets passed to {@link #finished}. */
+    boolean isSlow(long elapsedNanos) {
+        return enabled && elapsedNanos >= thresholdNanos;
+    }
+
+    /** Called once per slow statement execution; {@code rows} is -1 when the driver did not say. */
+    void finished(String sql, List<String> paramShapes, long elapsedNanos, long rows) {
+        if (!enabled || elapsedNanos < thresholdNanos || sql == null) return;
+        slowCounter.increment();
+
+        if (samplers.size() > MAX_TRACKED_STATEMENTS) samplers.clear();
+        Sampler sampler = samplers.computeIfAbsent(sql, k -> new Sampler());
+        long suppressed = sampler.tryAcquire(maxPerSecond);
+        if (suppressed < 0) return;
+
+        log.warn("slow_query ms={} rows={} caller=\"{}\" params={} suppressed={} sql=\"{}\"",
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows, callSite(), paramShapes, suppressed,
+                sql.replace('\n', ' '));
+    }
+
+    // Innermost application frame plus the controller method that led to it,
+    // e.g. "TaskService.list:61 < TaskController.list:88"
+    private static String callSite() {
+        List<StackWalker.StackFrame> app = StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(APP_PACKAGE)
+                        && !f.getClassName().startsWith(OWN_PACKAGE)
+                        && !f.getClassName().contains("$$"))
+                .toList());
+        if (app.isEmpty()) return "";
+        StackWalker.StackFrame inner = app.get(0);
+        StackWalker.StackFrame controller = app.stream()
+                .filter(f -> f.getClassName().contains(".controller.") || f.getClassName().endsWith("Controller"))
+                .findFirst().orElse(null);
+        return controller == null || controller == inner
+                ? frame(inner)
+                : frame(inner) + " < " + frame(controller);
+    }
+
+    private static String frame(StackWalker.StackFrame f) {
+        String cls = f.getClassName();
+        return cls.substring(cls.lastIndexOf('.') + 1) + "." + f.getMethodName() + ":" + f.getLineNumber();
+    }
+
+    /** Fixed one-second window per statement. */
+    private static final class Sampler {
+        private final AtomicLong windowStart = new AtomicLong();
+        private final AtomicLong inWindow = new AtomicLong();
+        private final LongAdder suppressed = new LongAdder();
+
+        /** Returns the number of lines suppressed since the last logged one, or -1 to suppress this one. */
+        long tryAcquire(int maxPerSecond) {
+            long now = System.nanoTime();
+            long start = windowStart.get();
+            if (now - start >= 1_000_000_000L && windowStart.compareAndSet(start, now)) inWindow.set(0);
+            if (inWindow.incrementAndGet() > maxPerSecond) {
+                suppressed.increment();
+                return -1;
+            }
+            return suppressed.sumThenReset();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.taskmanager.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail-based sampling in front of the exporting processor. Ended spans are held per trace
+ * until the trace's local root (the server span) ends; then the whole trace is kept if the
+ * root took at least the slow threshold, if any span failed or the request ended in a 5xx,
+ * or with the baseline probability. Everything else is dropped without being exported.
+ *
+ * Only traces the head sampler recorded are seen here, so the head probability should be 1.0.
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor {
+
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final int MAX_REMEMBERED_DECISIONS = 10_000;
+
+    private static final class PendingTrace {
+        final long firstEndNanos = System.nanoTime();
+        final List<ReadableSpan> spans = new ArrayList<>();
+        boolean failed;
+    }
+
+    private final SpanProcessor delegate;
+    private final long slowNanos;
+    private final double baselineRate;
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+    private final long traceTimeoutNanos;
+
+    private final ConcurrentHashMap<String, PendingTrace> pending = new ConcurrentHashMap<>();
+    // Spans that end after their root (async work) follow the root's decision
+    private final Map<String, Boolean> decided = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_REMEMBERED_DECISIONS;
+        }
+    });
+
+    private final Counter keptSlow;
+    private final Counter keptError;
+    private final Counter keptBaseline;
+    private final Counter dropped;
+    private final Counter overflow;
+
+    public TailSamplingSpanProcessor(SpanProcessor delegate, long slowThresholdMs, double baselineRate,
+                                     int maxTraces, int maxSpansPerTrace, long traceTimeoutMs, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.baselineRate = baselineRate;
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.traceTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(traceTimeoutMs);
+
+        this.keptSlow = decisions(registry, "kept_slow");
+        this.keptError = decisions(registry, "kept_error");
+        this.keptBaseline = decisions(registry, "kept_baseline");
+        this.dropped = decisions(registry, "dropped");
+        this.overflow = decisions(registry, "overflow");
+    }
+
+    private static Counter decisions(MeterRegistry registry, String decision) {
+        return Counter.builder("tracing.tail.decisions").tag("decision", decision).register(registry);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        if (delegate.isStartRequired()) delegate.onStart(parentContext, span);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return delegate.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (!span.getSpanContext().isSampled()) return;
+        String traceId = span.getSpanContext().getTraceId();
+        SpanContext parent = span.getParentSpanContext();
+        boolean localRoot = !parent.isValid() || parent.isRemote();
+
+        if (!localRoot) {
+            Boolean keep = decided.get(traceId);
+            if (keep != null) {
+                if (keep) delegate.onEnd(span);
+                return;
+            }
+        }
+
+        PendingTrace trace = pending.get(traceId);
+        if (trace == null) {
+            if (pending.size() >= maxTraces && !evictStale()) {
+                overflow.increment();
+                return;
+            }
+            trace = pending.computeIfAbsent(traceId, id -> new PendingTrace());
+        }
+        synchronized (trace) {
+            // The root always goes in, or a kept trace would be exported without it
+            if (trace.spans.size() < maxSpansPerTrace || localRoot) trace.spans.add(span);
+            if (failed(span)) trace.failed = true;
+        }
+        if (!localRoot) return;
+
+        pending.remove(traceId, trace);
+        boolean keep = decide(span, trace);
+        decided.put(traceId, keep);
+        if (keep) {
+            synchronized (trace) {
+                trace.spans.forEach(delegate::onEnd);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    private boolean decide(ReadableSpan root, PendingTrace trace) {
+        if (root.getLatencyNanos() >= slowNanos) {
+            keptSlow.increment();
+            return true;
+        }
+        if (trace.failed || "SERVER_ERROR".equals(root.getAttribute(OUTCOME))) {
+            keptError.increment();
+            return true;
+        }
+        if (baselineRate > 0 && ThreadLocalRandom.current().nextDouble() < baselineRate) {
+            keptBaseline.increment();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private static boolean failed(ReadableSpan span) {
+        return span.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR;
+    }
+
+    // Traces whose root never ended here (or ended on another thread before we saw it)
+    private boolean evictStale() {
+        long now = System.nanoTime();
+        int before = pending.size();
+        pending.values().removeIf(t -> now - t.firstEndNanos > traceTimeoutNanos);
+        return pending.size() < before;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        pending.clear();
+        return delegate.shutdown();
+    }
+}
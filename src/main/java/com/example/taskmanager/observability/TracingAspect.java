@@ -0,0 +1,83 @@
+package com.example.taskmanager.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One span per TaskService method and per repository call. Repository spans carry the
+ * number of rows handed back to the caller as "db.rows"; the JDBC statements underneath
+ * come from {@link SlowQueryDataSource}.
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    private final ObservationRegistry observations;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public TracingAspect(ObservationRegistry observations) {
+        this.observations = observations;
+    }
+
+    @Around("execution(public * com.example.taskmanager.service.TaskService.*(..))")
+    public Object traceTaskService(ProceedingJoinPoint pjp) throws Throwable {
+        String method = pjp.getSignature().getName();
+        Observation observation = Observation.createNotStarted("task.service", observations)
+                .contextualName("TaskService." + method)
+                .lowCardinalityKeyValue("method", method);
+        return observe(observation, pjp, false);
+    }
+
+    @Around("execution(* com.example.taskmanager.repository..*(..)) "
+            + "|| execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint pjp) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(pjp.getThis().getClass(), c -> repositoryName(pjp.getThis()));
+        String method = pjp.getSignature().getName();
+        Observation observation = Observation.createNotStarted("db.repository", observations)
+                .contextualName(repository + "." + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method);
+        return observe(observation, pjp, true);
+    }
+
+    private static Object observe(Observation observation, ProceedingJoinPoint pjp, boolean countRows) throws Throwable {
+        observation.start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            Object result = pjp.proceed();
+            long rows = countRows ? rows(result) : -1;
+            if (rows >= 0) observation.highCardinalityKeyValue("db.rows", Long.toString(rows));
+            return result;
+        } catch (Throwable t) {
+            observation.error(t);
+            throw t;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    // Spring Data repositories are JDK proxies; name them after the interface we declared
+    private static String repositoryName(Object proxy) {
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+            if (type.getName().startsWith("com.example.taskmanager.")) return type.getSimpleName();
+        }
+        return AopProxyUtils.ultimateTargetClass(proxy).getSimpleName();
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection<?> c) return c.size();
+        if (result instanceof Slice<?> s) return s.getNumberOfElements();
+        if (result instanceof Optional<?> o) return o.isPresent() ? 1 : 0;
+        return -1;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.taskmanager.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanProcessors;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts {@link TailSamplingSpanProcessor} between the tracer and Boot's exporting
+ * BatchSpanProcessor (OTLP when management.otlp.tracing.endpoint is set).
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanProcessors spanProcessors(ObjectProvider<SpanProcessor> processors,
+                                         @Value("${app.tracing.tail.slow-threshold-ms:500}") long slowThresholdMs,
+                                         @Value("${app.tracing.tail.baseline-rate:0.01}") double baselineRate,
+                                         @Value("${app.tracing.tail.max-pending-traces:10000}") int maxTraces,
+                                         @Value("${app.tracing.tail.max-spans-per-trace:1000}") int maxSpansPerTrace,
+                                         @Value("${app.tracing.tail.trace-timeout-ms:60000}") long traceTimeoutMs,
+                                         MeterRegistry registry) {
+        SpanProcessor exporting = SpanProcessor.composite(processors.orderedStream().toList());
+        return SpanProcessors.of(new TailSamplingSpanProcessor(exporting, slowThresholdMs, baselineRate,
+                maxTraces, maxSpansPerTrace, traceTimeoutMs, registry));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.taskmanager.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-process consumer that keeps the most recent messages in memory. Used by tests (and
+ * for poking at a running node) to see exactly what the relay delivered and in what order.
+ */
+@Component
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final ArrayDeque<OutboxMessage> recent = new ArrayDeque<>();
+    private long delivered;
+
+    public InMemoryOutboxSink(@Value("${app.outbox.in-memory.capacity:1000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String name() {
+        return "in-memory";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            if (recent.size() == capacity) recent.removeFirst();
+            recent.addLast(message);
+        }
+        delivered += batch.size();
+        notifyAll();
+    }
+
+    /** Oldest first. */
+    public synchronized List<OutboxMessage> recent() {
+        return new ArrayList<>(recent);
+    }
+
+    public synchronized long deliveredCount() {
+        return delivered;
+    }
+
+    /** Blocks until at least {@code count} messages have been delivered in total, or the timeout passes. */
+    public synchronized boolean awaitDelivered(long count, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (delivered < count) {
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) return false;
+            wait(left);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.taskmanager.outbox;
+
+import com.example.taskmanager.event.TaskChangeType;
+
+import java.time.Instant;
+
+/**
+ * One task change as delivered to an {@link OutboxSink}. {@code id} is unique and stable
+ * across redeliveries, so a sink that cannot take part in the relay's transaction can use
+ * it to drop duplicates. {@code payload} is the {@code TaskChangedEvent} as JSON.
+ */
+public record OutboxMessage(
+        long id,
+        long taskId,
+        TaskChangeType type,
+        String actor,
+        Instant createdAt,
+        String payload
+) {}
@@ -0,0 +1,312 @@
+package com.example.taskmanager.outbox;
+
+import com.example.taskmanager.event.TaskChangeType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves task_outbox rows to the {@link OutboxSink}s in ordered batches.
+ * <p>
+ * Order is commit order, not id order: rows are read by (tx_id, id) and only from
+ * transactions older than the oldest one still running, so a row that commits late can
+ * never land behind a consumer's offset. Each consumer's batch runs in one transaction
+ * that locks its offset row (SKIP LOCKED, so with several nodes exactly one delivers to
+ * a given consumer at a time), calls the sink and moves the offset.
+ * <p>
+ * Wake-ups come from LISTEN on a dedicated connection, with polling as the fallback.
+ * Rows every consumer has passed are deleted in bulk.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final int LAG_COUNT_CAP = 100_000;
+
+    private record Position(long txId, long eventId) {
+        static final Position START = new Position(0, 0);
+
+        boolean isBefore(Position other) {
+            return txId < other.txId || (txId == other.txId && eventId < other.eventId);
+        }
+    }
+
+    private record Row(Position position, OutboxMessage message) {}
+
+    private static final class ConsumerMetrics {
+        final AtomicLong lagEvents = new AtomicLong();
+        final AtomicLong lagMillis = new AtomicLong();
+        Counter delivered;
+        Counter failures;
+    }
+
+    private static final RowMapper<Row> ROW = (rs, i) -> new Row(
+            new Position(Long.parseLong(rs.getString("tx_id")), rs.getLong("id")),
+            new OutboxMessage(rs.getLong("id"), rs.getLong("task_id"), TaskChangeType.valueOf(rs.getString("type")),
+                    rs.getString("actor"), rs.getTimestamp("created_at").toInstant(), rs.getString("payload")));
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final DataSource dataSource;
+    private final MeterRegistry registry;
+    private final List<OutboxSink> sinks;
+    private final boolean enabled;
+    private final boolean listen;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int pruneBatchSize;
+    private final Duration maxAge;
+
+    private final Map<String, ConsumerMetrics> metrics = new ConcurrentHashMap<>();
+    private final Counter pruned;
+    private final Counter expired;
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> new Thread(r, "outbox-relay"));
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+    private volatile boolean running = true;
+    private Thread listener;
+
+    public OutboxRelay(JdbcTemplate jdbc,
+                       TransactionTemplate tx,
+                       DataSource dataSource,
+                       MeterRegistry registry,
+                       List<OutboxSink> sinks,
+                       @Value("${app.outbox.enabled:true}") boolean enabled,
+                       @Value("${app.outbox.consumers:}") Set<String> consumers,
+                       @Value("${app.outbox.listen:true}") boolean listen,
+                       @Value("${app.outbox.batch-size:200}") int batchSize,
+                       @Value("${app.outbox.max-batches-per-run:50}") int maxBatchesPerRun,
+                       @Value("${app.outbox.prune-batch-size:5000}") int pruneBatchSize,
+                       @Value("${app.outbox.max-age-hours:168}") long maxAgeHours) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.dataSource = dataSource;
+        this.registry = registry;
+        this.sinks = consumers.isEmpty() ? sinks : sinks.stream().filter(s -> consumers.contains(s.name())).toList();
+        this.enabled = enabled;
+        this.listen = listen;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pruneBatchSize = pruneBatchSize;
+        this.maxAge = Duration.ofHours(maxAgeHours);
+
+        this.pruned = Counter.builder("outbox.pruned").description("Delivered rows deleted").register(registry);
+        this.expired = Counter.builder("outbox.expired")
+                .description("Rows deleted after app.outbox.max-age-hours without reaching every consumer")
+                .register(registry);
+        for (OutboxSink sink : this.sinks) metrics(sink.name());
+    }
+
+    private ConsumerMetrics metrics(String consumer) {
+        return metrics.computeIfAbsent(consumer, name -> {
+            ConsumerMetrics m = new ConsumerMetrics();
+            m.delivered = Counter.builder("outbox.relay.delivered").tag("consumer", name).register(registry);
+            m.failures = Counter.builder("outbox.relay.failures").tag("consumer", name).register(registry);
+            Gauge.builder("outbox.relay.lag.events", m.lagEvents, AtomicLong::get).tag("consumer", name).register(registry);
+            Gauge.builder("outbox.relay.lag.seconds", m.lagMillis, v -> v.get() / 1000.0).tag("consumer", name).register(registry);
+            return m;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        for (OutboxSink sink : sinks) {
+            // A new consumer starts from whatever is still in the table
+            jdbc.update("INSERT INTO outbox_consumer_offsets (consumer, tx_id, event_id) VALUES (?, '0'::xid8, 0)"
+                    + " ON CONFLICT (consumer) DO NOTHING", sink.name());
+        }
+        if (listen) {
+            listener = new Thread(this::listen, "outbox-listen");
+            listener.setDaemon(true);
+            listener.start();
+        }
+        wakeUp();
+    }
+
+    // Fallback for lost notifications and for changes made while LISTEN was reconnecting;
+    // lag is measured here rather than on every wake-up
+    @Scheduled(fixedDelayString = "${app.outbox.poll-ms:5000}")
+    public void poll() {
+        if (!enabled) return;
+        wakeUp();
+        dispatcher.execute(this::measureLag);
+    }
+
+    public void wakeUp() {
+        if (wakeUpQueued.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                wakeUpQueued.set(false);
+                relay();
+            });
+        }
+    }
+
+    // One delivery round for every consumer, on the calling thread (the dispatcher, or a test)
+    void relay() {
+        for (OutboxSink sink : sinks) {
+            try {
+                for (int i = 0; i < maxBatchesPerRun; i++) {
+                    Integer delivered = tx.execute(status -> deliverBatch(sink));
+                    if (delivered == null || delivered < batchSize) break;
+                }
+            } catch (RuntimeException e) {
+                metrics(sink.name()).failures.increment();
+                log.warn("Outbox delivery to {} failed, will retry: {}", sink.name(), e.getMessage());
+            }
+        }
+    }
+
+    private int deliverBatch(OutboxSink sink) {
+        List<Position> offset = jdbc.query(
+                "SELECT tx_id::text, event_id FROM outbox_consumer_offsets WHERE consumer = ? FOR UPDATE SKIP LOCKED",
+                (rs, i) -> new Position(Long.parseLong(rs.getString(1)), rs.getLong(2)), sink.name());
+        if (offset.isEmpty()) return 0; // another node is delivering to this consumer right now
+
+        Position from = offset.get(0);
+        List<Row> rows = jdbc.query("""
+                SELECT id, tx_id::text AS tx_id, task_id, type, actor, payload::text AS payload, created_at
+                FROM task_outbox
+                WHERE (tx_id, id) > (?::xid8, ?) AND tx_id < pg_snapshot_xmin(pg_current_snapshot())
+                ORDER BY tx_id, id
+                LIMIT ?
+                """, ROW, Long.toString(from.txId()), from.eventId(), batchSize);
+        if (rows.isEmpty()) return 0;
+
+        List<OutboxMessage> batch = new ArrayList<>(rows.size());
+        for (Row row : rows) batch.add(row.message());
+        try {
+            sink.publish(batch);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+
+        Position last = rows.get(rows.size() - 1).position();
+        jdbc.update("UPDATE outbox_consumer_offsets SET tx_id = ?::xid8, event_id = ?, updated_at = now() WHERE consumer = ?",
+                Long.toString(last.txId()), last.eventId(), sink.name());
+        metrics(sink.name()).delivered.increment(batch.size());
+        log.debug("Delivered {} outbox event(s) to {}", batch.size(), sink.name());
+        return batch.size();
+    }
+
+    private void measureLag() {
+        for (OutboxSink sink : sinks) {
+            try {
+                Position from = offsetOf(sink.name());
+                if (from == null) continue;
+                String txId = Long.toString(from.txId());
+                Long behind = jdbc.queryForObject("SELECT count(*) FROM (SELECT 1 FROM task_outbox"
+                        + " WHERE (tx_id, id) > (?::xid8, ?) LIMIT " + LAG_COUNT_CAP + ") pending",
+                        Long.class, txId, from.eventId());
+                List<Timestamp> oldest = jdbc.queryForList("SELECT created_at FROM task_outbox"
+                        + " WHERE (tx_id, id) > (?::xid8, ?) ORDER BY tx_id, id LIMIT 1",
+                        Timestamp.class, txId, from.eventId());
+                ConsumerMetrics m = metrics(sink.name());
+                m.lagEvents.set(behind == null ? 0 : behind);
+                m.lagMillis.set(oldest.isEmpty() ? 0
+                        : Math.max(0, Duration.between(oldest.get(0).toInstant(), Instant.now()).toMillis()));
+            } catch (RuntimeException e) {
+                log.debug("Could not measure outbox lag for {}: {}", sink.name(), e.getMessage());
+            }
+        }
+    }
+
+    private Position offsetOf(String consumer) {
+        List<Position> offset = jdbc.query("SELECT tx_id::text, event_id FROM outbox_consumer_offsets WHERE consumer = ?",
+                (rs, i) -> new Position(Long.parseLong(rs.getString(1)), rs.getLong(2)), consumer);
+        return offset.isEmpty() ? null : offset.get(0);
+    }
+
+    // Everything up to the slowest consumer's offset has been delivered everywhere
+    @Scheduled(fixedDelayString = "${app.outbox.prune-interval-ms:60000}")
+    public void prune() {
+        if (!enabled) return;
+
+        Position slowest = null;
+        for (OutboxSink sink : sinks) {
+            Position p = offsetOf(sink.name());
+            if (p == null) return;
+            if (slowest == null || p.isBefore(slowest)) slowest = p;
+        }
+        if (slowest != null && !slowest.equals(Position.START)) {
+            int deleted;
+            do {
+                deleted = jdbc.update("DELETE FROM task_outbox WHERE id IN (SELECT id FROM task_outbox"
+                                + " WHERE (tx_id, id) <= (?::xid8, ?) ORDER BY tx_id, id LIMIT ?)",
+                        Long.toString(slowest.txId()), slowest.eventId(), pruneBatchSize);
+                pruned.increment(deleted);
+            } while (deleted == pruneBatchSize);
+        }
+
+        // Safety valve: a consumer that stays broken must not grow the table forever
+        int dropped;
+        do {
+            dropped = jdbc.update("DELETE FROM task_outbox WHERE id IN (SELECT id FROM task_outbox"
+                    + " WHERE created_at < ? LIMIT ?)", Timestamp.from(Instant.now().minus(maxAge)), pruneBatchSize);
+            expired.increment(dropped);
+        } while (dropped == pruneBatchSize);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + OutboxWriter.CHANNEL);
+                }
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                wakeUp(); // anything committed while we were not listening
+                while (running) {
+                    var notifications = pg.getNotifications(1000);
+                    if (notifications != null && notifications.length > 0) wakeUp();
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("Outbox LISTEN connection lost, polling until it is back: {}", e.getMessage());
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (listener != null) listener.interrupt();
+        dispatcher.shutdownNow();
+    }
+}
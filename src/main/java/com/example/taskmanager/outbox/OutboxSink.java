@@ -0,0 +1,19 @@
+package com.example.taskmanager.outbox;
+
+import java.util.List;
+
+/**
+ * A downstream consumer of task changes. Every OutboxSink bean is a consumer with its own
+ * offset (unless {@code app.outbox.consumers} names a subset). Batches arrive in commit
+ * order; the offset only moves when {@link #publish} returns, inside the same database
+ * transaction, so a sink that writes to this database sees each message exactly once and
+ * any other sink sees it at least once (duplicates only after a failure, recognisable by id).
+ */
+public interface OutboxSink {
+
+    /** Consumer name; the key of its offset row. */
+    String name();
+
+    /** Deliver the batch or throw; a throw leaves the offset where it was and the batch is retried. */
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
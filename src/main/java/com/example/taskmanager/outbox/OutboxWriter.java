@@ -0,0 +1,48 @@
+package com.example.taskmanager.outbox;
+
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+
+/**
+ * Appends every task change to task_outbox inside the transaction that made it, so a
+ * change and its outbox row commit or roll back together. The NOTIFY is delivered by
+ * Postgres only at commit, which is when {@link OutboxRelay} can see the row.
+ */
+@Component
+public class OutboxWriter {
+
+    static final String CHANNEL = "task_outbox";
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public OutboxWriter(JdbcTemplate jdbc, ObjectMapper objectMapper,
+                        @Value("${app.outbox.enabled:true}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @EventListener
+    public void append(TaskChangedEvent event) {
+        if (!enabled) return;
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Task change could not be serialized for the outbox", e);
+        }
+        jdbc.update("INSERT INTO task_outbox (task_id, type, actor, payload, created_at) VALUES (?, ?, ?, ?::jsonb, ?)",
+                event.taskId(), event.type().name(), event.actor(), payload, Timestamp.from(event.occurredAt()));
+        jdbc.execute("NOTIFY " + CHANNEL);
+    }
+}
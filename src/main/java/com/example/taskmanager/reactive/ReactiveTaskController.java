@@ -0,0 +1,54 @@
+package com.example.taskmanager.reactive;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskStatus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only task endpoints served from R2DBC. The JWT is verified by the same
+ * JwtAuthFilter/JwtService chain as every other endpoint; the servlet thread is
+ * released while the query runs and rows are streamed as NDJSON with back-pressure.
+ */
+@RestController
+@RequestMapping("/api/reactive/tasks")
+@ConditionalOnProperty(name = "app.reactive-reads.enabled", havingValue = "true")
+@Tag(name = "reactive-task-controller", description = "Non-blocking task reads")
+@SecurityRequirement(name = "bearerAuth")
+public class ReactiveTaskController {
+
+    private final ReactiveTaskReader reader;
+
+    public ReactiveTaskController(ReactiveTaskReader reader) {
+        this.reader = reader;
+    }
+
+    // ✅ Stream tasks (same filters and visibility as GET /api/tasks)
+    @Operation(summary = "Stream tasks as NDJSON", description = "Supports filtering by status and priority")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskDTO> list(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication auth
+    ) {
+        return reader.list(auth, status, priority, Math.max(0, page), Math.min(Math.max(1, size), 1000))
+                .limitRate(64);
+    }
+
+    // ✅ Get a specific task
+    @Operation(summary = "Get a specific task by ID")
+    @GetMapping("/{id}")
+    public Mono<TaskDTO> getById(@PathVariable Long id, Authentication auth) {
+        return reader.get(auth, id);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.taskmanager.reactive;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.model.Role;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskStatus;
+import com.example.taskmanager.security.AuthenticatedUser;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Non-blocking equivalents of the TaskRepository finders used by TaskService.list
+ * and TaskService.get, with the same admin/assignee rules. Documents are folded
+ * into each row with an ARRAY subquery so a task is always a single row.
+ */
+public class ReactiveTaskReader {
+
+    private static final String SELECT = """
+            SELECT t.id, t.title, t.description, t.status, t.priority, t.due_date, t.assigned_to_id,
+                   ARRAY(SELECT d.documents FROM task_documents d WHERE d.task_id = t.id) AS documents
+            FROM tasks t
+            """;
+
+    private final ConnectionPool pool;
+    private final DatabaseClient db;
+
+    public ReactiveTaskReader(ConnectionPool pool) {
+        this.pool = pool;
+        this.db = DatabaseClient.create(pool);
+    }
+
+    public void close() {
+        pool.dispose();
+    }
+
+    public Flux<TaskDTO> list(Authentication auth, TaskStatus status, TaskPriority priority, int page, int size) {
+        return caller(auth).flatMapMany(caller -> {
+            List<String> where = new ArrayList<>();
+            if (!caller.isAdmin()) where.add("t.assigned_to_id = :assignee");
+            // Same precedence as TaskService.list: status wins over priority
+            if (status != null) where.add("t.status = :status");
+            else if (priority != null) where.add("t.priority = :priority");
+
+            String sql = SELECT + (where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where))
+                    + " ORDER BY t.id LIMIT :limit OFFSET :offset";
+
+            DatabaseClient.GenericExecuteSpec spec = db.sql(sql)
+                    .bind("limit", size)
+                    .bind("offset", (long) page * size);
+            if (!caller.isAdmin()) spec = spec.bind("assignee", caller.getId());
+            if (status != null) spec = spec.bind("status", status.name());
+            else if (priority != null) spec = spec.bind("priority", priority.name());
+
+            return spec.map(ReactiveTaskReader::toDTO).all();
+        });
+    }
+
+    public Mono<TaskDTO> get(Authentication auth, Long id) {
+        return caller(auth).flatMap(caller -> db.sql(SELECT + " WHERE t.id = :id")
+                .bind("id", id)
+                .map(ReactiveTaskReader::toDTO)
+                .one()
+                .switchIfEmpty(Mono.error(new RuntimeException("Task not found")))
+                .flatMap(task -> {
+                    if (!caller.isAdmin() && !Objects.equals(task.assignedToId(), caller.getId())) {
+                        return Mono.error(new RuntimeException("Unauthorized access"));
+                    }
+                    return Mono.just(task);
+                }));
+    }
+
+    // Same as TaskService.caller: the JWT principal already carries id and role; only other principals are looked up
+    private Mono<AuthenticatedUser> caller(Authentication auth) {
+        if (auth.getPrincipal() instanceof AuthenticatedUser user) return Mono.just(user);
+        return db.sql("SELECT id, role FROM users WHERE email = :email")
+                .bind("email", auth.getName())
+                .map(row -> new AuthenticatedUser(row.get("id", Long.class), auth.getName(), null,
+                        Role.valueOf(row.get("role", String.class))))
+                .one()
+                .switchIfEmpty(Mono.error(new RuntimeException("User not found")));
+    }
+
+    private static TaskDTO toDTO(Readable row) {
+        String status = row.get("status", String.class);
+        String priority = row.get("priority", String.class);
+        String[] documents = row.get("documents", String[].class);
+        return new TaskDTO(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                status == null ? null : TaskStatus.valueOf(status),
+                priority == null ? null : TaskPriority.valueOf(priority),
+                row.get("due_date", LocalDate.class),
+                row.get("assigned_to_id", Long.class),
+                documents == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(documents))
+        );
+    }
+}
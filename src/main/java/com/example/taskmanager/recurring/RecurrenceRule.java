@@ -0,0 +1,275 @@
+package com.example.taskmanager.recurring;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * The date part of an RFC 5545 RRULE, e.g. {@code FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH} or
+ * {@code FREQ=MONTHLY;BYDAY=-1FR;COUNT=12}.
+ * <p>
+ * Supported: FREQ (DAILY, WEEKLY, MONTHLY, YEARLY), INTERVAL, COUNT, UNTIL (yyyyMMdd),
+ * BYDAY (with ordinals for MONTHLY/YEARLY), BYMONTHDAY (negative = from month end) and
+ * BYMONTH. Weeks start on Monday. Occurrences are calendar dates, since a task only has
+ * a due date. Expansion jumps straight to the period containing the first wanted date,
+ * so it costs the same for a rule that started yesterday or ten years ago.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    private record WeekdayRule(int ordinal, DayOfWeek day) {}
+
+    // Rules that match nothing (BYMONTHDAY=31;BYMONTH=2) must not spin forever
+    private static final int MAX_EMPTY_PERIODS = 1000;
+    private static final DateTimeFormatter UNTIL = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final String text;
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDate until;
+    private final List<WeekdayRule> byDay = new ArrayList<>();
+    private final List<Integer> byMonthDay = new ArrayList<>();
+    private final List<Integer> byMonth = new ArrayList<>();
+
+    private RecurrenceRule(String text, Frequency frequency, int interval, Integer count, LocalDate until) {
+        this.text = text;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+    }
+
+    public static RecurrenceRule parse(String rrule) {
+        if (rrule == null || rrule.isBlank()) throw new IllegalArgumentException("Recurrence rule is required");
+        String text = rrule.trim().toUpperCase(Locale.ROOT);
+        if (text.startsWith("RRULE:")) text = text.substring(6);
+
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDate until = null;
+        List<String> byDay = List.of();
+        List<String> byMonthDay = List.of();
+        List<String> byMonth = List.of();
+
+        try {
+            for (String part : text.split(";")) {
+                int eq = part.indexOf('=');
+                if (eq < 0) throw new IllegalArgumentException("Malformed recurrence rule part '" + part + "'");
+                String value = part.substring(eq + 1);
+                switch (part.substring(0, eq)) {
+                    case "FREQ" -> frequency = frequency(value);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Integer.parseInt(value);
+                    case "UNTIL" -> until = LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value, UNTIL);
+                    case "BYDAY" -> byDay = List.of(value.split(","));
+                    case "BYMONTHDAY" -> byMonthDay = List.of(value.split(","));
+                    case "BYMONTH" -> byMonth = List.of(value.split(","));
+                    case "WKST" -> {
+                        if (!value.equals("MO")) throw new IllegalArgumentException("Only WKST=MO is supported");
+                    }
+                    default -> throw new IllegalArgumentException("Unsupported recurrence rule part '" + part + "'");
+                }
+            }
+
+            if (frequency == null) throw new IllegalArgumentException("Recurrence rule needs FREQ");
+            if (interval < 1 || interval > 1000) throw new IllegalArgumentException("INTERVAL must be 1-1000");
+            if (count != null && count < 1) throw new IllegalArgumentException("COUNT must be positive");
+            if (count != null && until != null) throw new IllegalArgumentException("Use either COUNT or UNTIL, not both");
+
+            RecurrenceRule rule = new RecurrenceRule(text, frequency, interval, count, until);
+            for (String d : byDay) rule.byDay.add(weekday(d, frequency));
+            for (String d : byMonthDay) {
+                int day = Integer.parseInt(d);
+                if (day == 0 || day < -31 || day > 31) throw new IllegalArgumentException("BYMONTHDAY must be 1-31 or -31..-1");
+                rule.byMonthDay.add(day);
+            }
+            for (String m : byMonth) {
+                int month = Integer.parseInt(m);
+                if (month < 1 || month > 12) throw new IllegalArgumentException("BYMONTH must be 1-12");
+                rule.byMonth.add(month);
+            }
+            return rule;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed recurrence rule: " + rrule);
+        }
+    }
+
+    private static Frequency frequency(String value) {
+        for (Frequency f : Frequency.values()) {
+            if (f.name().equals(value)) return f;
+        }
+        throw new IllegalArgumentException("FREQ must be DAILY, WEEKLY, MONTHLY or YEARLY");
+    }
+
+    private static WeekdayRule weekday(String value, Frequency frequency) {
+        if (value.length() < 2) throw new IllegalArgumentException("Malformed BYDAY value '" + value + "'");
+        String code = value.substring(value.length() - 2);
+        DayOfWeek day = switch (code) {
+            case "MO" -> DayOfWeek.MONDAY;
+            case "TU" -> DayOfWeek.TUESDAY;
+            case "WE" -> DayOfWeek.WEDNESDAY;
+            case "TH" -> DayOfWeek.THURSDAY;
+            case "FR" -> DayOfWeek.FRIDAY;
+            case "SA" -> DayOfWeek.SATURDAY;
+            case "SU" -> DayOfWeek.SUNDAY;
+            default -> throw new IllegalArgumentException("Malformed BYDAY value '" + value + "'");
+        };
+        int ordinal = 0;
+        if (value.length() > 2) {
+            ordinal = Integer.parseInt(value.substring(0, value.length() - 2).replace("+", ""));
+            if (ordinal == 0 || ordinal < -5 || ordinal > 5) throw new IllegalArgumentException("BYDAY ordinal must be 1-5 or -5..-1");
+            if (frequency != Frequency.MONTHLY && frequency != Frequency.YEARLY) {
+                throw new IllegalArgumentException("BYDAY ordinals need FREQ=MONTHLY or YEARLY");
+            }
+        }
+        return new WeekdayRule(ordinal, day);
+    }
+
+    public Integer count() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    /**
+     * Occurrences on or after {@code from} and before {@code to}, oldest first.
+     * {@code remaining} caps the result for COUNT rules (null = no cap).
+     */
+    public List<LocalDate> between(LocalDate start, LocalDate from, LocalDate to, Integer remaining) {
+        List<LocalDate> result = new ArrayList<>();
+        if (from.isBefore(start)) from = start;
+        if (remaining != null && remaining <= 0) return result;
+
+        long period = periodIndex(start, from);
+        int empty = 0;
+        while (empty < MAX_EMPTY_PERIODS) {
+            LocalDate periodStart = periodStart(start, period);
+            if (!periodStart.isBefore(to) || (until != null && periodStart.isAfter(until))) break;
+
+            boolean any = false;
+            for (LocalDate date : candidates(start, periodStart)) {
+                if (date.isBefore(start)) continue;
+                any = true;
+                if (date.isBefore(from)) continue;
+                if (!date.isBefore(to) || (until != null && date.isAfter(until))) return result;
+                result.add(date);
+                if (remaining != null && result.size() >= remaining) return result;
+            }
+            empty = any ? 0 : empty + 1;
+            period++;
+        }
+        return result;
+    }
+
+    /** First occurrence on or after {@code from}, looking at most ~50 years ahead; null if the rule has ended. */
+    public LocalDate next(LocalDate start, LocalDate from, Integer remaining) {
+        List<LocalDate> next = between(start, from, from.plusYears(50), remaining == null ? 1 : Math.min(remaining, 1));
+        return next.isEmpty() ? null : next.get(0);
+    }
+
+    // Index (in units of INTERVAL) of the period that contains 'date'
+    private long periodIndex(LocalDate start, LocalDate date) {
+        long units = switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS.between(start, date);
+            case WEEKLY -> ChronoUnit.WEEKS.between(weekStart(start), weekStart(date));
+            case MONTHLY -> ChronoUnit.MONTHS.between(YearMonth.from(start), YearMonth.from(date));
+            case YEARLY -> (long) date.getYear() - start.getYear();
+        };
+        return Math.max(0, units / interval);
+    }
+
+    private LocalDate periodStart(LocalDate start, long period) {
+        long units = period * interval;
+        return switch (frequency) {
+            case DAILY -> start.plusDays(units);
+            case WEEKLY -> weekStart(start).plusWeeks(units);
+            case MONTHLY -> YearMonth.from(start).plusMonths(units).atDay(1);
+            case YEARLY -> LocalDate.of(start.getYear(), 1, 1).plusYears(units);
+        };
+    }
+
+    private List<LocalDate> candidates(LocalDate start, LocalDate periodStart) {
+        TreeSet<LocalDate> dates = new TreeSet<>();
+        switch (frequency) {
+            case DAILY -> {
+                if (matchesFilters(periodStart)) dates.add(periodStart);
+            }
+            case WEEKLY -> {
+                if (byDay.isEmpty()) dates.add(periodStart.with(TemporalAdjusters.nextOrSame(start.getDayOfWeek())));
+                for (WeekdayRule d : byDay) dates.add(periodStart.with(TemporalAdjusters.nextOrSame(d.day())));
+                dates.removeIf(d -> !byMonth.isEmpty() && !byMonth.contains(d.getMonthValue()));
+            }
+            case MONTHLY -> {
+                YearMonth month = YearMonth.from(periodStart);
+                if (byMonth.isEmpty() || byMonth.contains(month.getMonthValue())) addDaysOfMonth(start, month, dates);
+            }
+            case YEARLY -> {
+                List<Integer> months = byMonth.isEmpty() ? List.of(start.getMonthValue()) : byMonth;
+                for (int m : months) addDaysOfMonth(start, YearMonth.of(periodStart.getYear(), m), dates);
+            }
+        }
+        return new ArrayList<>(dates);
+    }
+
+    private void addDaysOfMonth(LocalDate start, YearMonth month, TreeSet<LocalDate> dates) {
+        if (byDay.isEmpty() && byMonthDay.isEmpty()) {
+            if (start.getDayOfMonth() <= month.lengthOfMonth()) dates.add(month.atDay(start.getDayOfMonth()));
+            return;
+        }
+        TreeSet<LocalDate> byDays = new TreeSet<>();
+        for (WeekdayRule d : byDay) {
+            if (d.ordinal() > 0) {
+                LocalDate date = month.atDay(1).with(TemporalAdjusters.dayOfWeekInMonth(d.ordinal(), d.day()));
+                if (YearMonth.from(date).equals(month)) byDays.add(date);
+            } else if (d.ordinal() < 0) {
+                LocalDate date = month.atEndOfMonth().with(TemporalAdjusters.previousOrSame(d.day())).plusWeeks(d.ordinal() + 1);
+                if (YearMonth.from(date).equals(month)) byDays.add(date);
+            } else {
+                for (LocalDate date = month.atDay(1).with(TemporalAdjusters.nextOrSame(d.day()));
+                     YearMonth.from(date).equals(month); date = date.plusWeeks(1)) {
+                    byDays.add(date);
+                }
+            }
+        }
+        TreeSet<LocalDate> byMonthDays = new TreeSet<>();
+        for (int day : byMonthDay) {
+            int dom = day > 0 ? day : month.lengthOfMonth() + day + 1;
+            if (dom >= 1 && dom <= month.lengthOfMonth()) byMonthDays.add(month.atDay(dom));
+        }
+        // Both given: a date must satisfy both, as in RFC 5545
+        if (byDay.isEmpty()) dates.addAll(byMonthDays);
+        else if (byMonthDay.isEmpty()) dates.addAll(byDays);
+        else {
+            byDays.retainAll(byMonthDays);
+            dates.addAll(byDays);
+        }
+    }
+
+    private boolean matchesFilters(LocalDate date) {
+        if (!byMonth.isEmpty() && !byMonth.contains(date.getMonthValue())) return false;
+        if (!byDay.isEmpty() && byDay.stream().noneMatch(d -> d.day() == date.getDayOfWeek())) return false;
+        if (!byMonthDay.isEmpty()) {
+            int fromEnd = date.getDayOfMonth() - date.lengthOfMonth() - 1;
+            return byMonthDay.contains(date.getDayOfMonth()) || byMonthDay.contains(fromEnd);
+        }
+        return true;
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
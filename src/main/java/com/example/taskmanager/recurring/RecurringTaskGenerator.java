@@ -0,0 +1,245 @@
+package com.example.taskmanager.recurring;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns recurring templates into tasks, {@code app.recurring.lookahead-days} ahead.
+ * <p>
+ * Each template stores the earliest occurrence it has not materialized yet, so a tick
+ * only reads templates whose next_occurrence falls inside the window (an index range
+ * scan; templates that are up to date cost nothing). A batch of them is expanded in
+ * memory and written with one multi-row INSERT and one multi-row UPDATE of their
+ * next_occurrence, in the same transaction, so a crash never leaves a template's
+ * pointer out of step with its tasks.
+ * <p>
+ * Only one node generates at a time: every batch takes a transaction-scoped advisory
+ * lock and a node that does not get it skips the tick. The unique index on
+ * (template_id, occurrence_on) backs this up, so an occurrence is never inserted twice.
+ */
+@Component
+public class RecurringTaskGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringTaskGenerator.class);
+
+    // Arbitrary, fixed key for pg_try_advisory_xact_lock: "recurring generation"
+    private static final long LOCK_KEY = 0x5441534B52454355L;
+
+    private static final String INSERT_TASKS = """
+            INSERT INTO tasks (title, description, status, priority, due_date, assigned_to_id, template_id, occurrence_on)
+            SELECT t.title, t.description, 'TODO', t.priority, t.occurrence_on, t.assigned_to_id, t.template_id, t.occurrence_on
+            FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::bigint[], ?::bigint[], ?::date[])
+                 AS t(title, description, priority, assigned_to_id, template_id, occurrence_on)
+            ON CONFLICT (template_id, occurrence_on) WHERE template_id IS NOT NULL DO NOTHING
+            RETURNING id, template_id, occurrence_on""";
+
+    private static final String ADVANCE_TEMPLATES = """
+            UPDATE task_templates tt
+            SET next_occurrence = u.next_occurrence, generated_count = u.generated_count, updated_at = now()
+            FROM unnest(?::bigint[], ?::date[], ?::int[]) AS u(id, next_occurrence, generated_count)
+            WHERE tt.id = u.id""";
+
+    private record Due(long id, String title, String description, TaskPriority priority, long assignedToId,
+                       String createdBy, String rrule, LocalDate startDate, LocalDate nextOccurrence, int generatedCount) {}
+
+    private record Occurrence(Due template, LocalDate date) {}
+
+    private record Generated(long taskId, long templateId, LocalDate date) {}
+
+    record Plan(List<LocalDate> dates, LocalDate next, int used) {}
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final boolean enabled;
+    private final int lookaheadDays;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter generated;
+
+    public RecurringTaskGenerator(JdbcTemplate jdbc,
+                                  TransactionTemplate tx,
+                                  ApplicationEventPublisher events,
+                                  MeterRegistry registry,
+                                  @Value("${app.recurring.enabled:true}") boolean enabled,
+                                  @Value("${app.recurring.lookahead-days:14}") int lookaheadDays,
+                                  @Value("${app.recurring.batch-size:500}") int batchSize,
+                                  @Value("${app.recurring.max-batches-per-run:200}") int maxBatches) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.events = events;
+        this.enabled = enabled;
+        this.lookaheadDays = lookaheadDays;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.generated = Counter.builder("tasks.recurring.generated")
+                .description("Tasks created from recurring templates").register(registry);
+    }
+
+    /** Last day (exclusive) the generator materializes up to. */
+    public LocalDate horizon() {
+        return LocalDate.now().plusDays(lookaheadDays);
+    }
+
+    @Scheduled(fixedDelayString = "${app.recurring.interval-ms:60000}", initialDelayString = "${app.recurring.initial-delay-ms:30000}")
+    public void run() {
+        if (!enabled) return;
+
+        LocalDate today = LocalDate.now();
+        LocalDate horizon = horizon();
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int[] result = tx.execute(status -> generateBatch(today, horizon));
+            if (result == null) break;
+            total += result[1];
+            if (result[0] < batchSize) break;
+        }
+        if (total > 0) log.info("Generated {} recurring task(s) up to {}", total, horizon);
+    }
+
+    // {templates processed, tasks inserted}; null when another node holds the lock
+    private int[] generateBatch(LocalDate today, LocalDate horizon) {
+        Boolean locked = jdbc.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) return null;
+
+        List<Due> due = jdbc.query("""
+                        SELECT id, title, description, priority, assigned_to_id, created_by, rrule, start_date,
+                               next_occurrence, generated_count
+                        FROM task_templates
+                        WHERE next_occurrence < ? AND active
+                        ORDER BY next_occurrence, id
+                        LIMIT ?""",
+                (rs, i) -> new Due(rs.getLong("id"), rs.getString("title"), rs.getString("description"),
+                        rs.getString("priority") == null ? TaskPriority.MEDIUM : TaskPriority.valueOf(rs.getString("priority")),
+                        rs.getLong("assigned_to_id"), rs.getString("created_by"), rs.getString("rrule"),
+                        rs.getDate("start_date").toLocalDate(), rs.getDate("next_occurrence").toLocalDate(),
+                        rs.getInt("generated_count")),
+                Date.valueOf(horizon), batchSize);
+        if (due.isEmpty()) return new int[]{0, 0};
+
+        List<Occurrence> occurrences = new ArrayList<>();
+        Long[] ids = new Long[due.size()];
+        Date[] next = new Date[due.size()];
+        Integer[] counts = new Integer[due.size()];
+        for (int i = 0; i < due.size(); i++) {
+            Due t = due.get(i);
+            ids[i] = t.id();
+            LocalDate nextOccurrence = null;
+            int used = t.generatedCount();
+            try {
+                Plan plan = plan(RecurrenceRule.parse(t.rrule()), t.startDate(), t.nextOccurrence(), used, today, horizon);
+                for (LocalDate date : plan.dates()) occurrences.add(new Occurrence(t, date));
+                nextOccurrence = plan.next();
+                used = plan.used();
+            } catch (IllegalArgumentException e) {
+                // Rules are validated on create; one that no longer parses is parked instead of retried every tick
+                log.warn("Template {} has an invalid rule '{}', stopping it: {}", t.id(), t.rrule(), e.getMessage());
+            }
+            next[i] = nextOccurrence == null ? null : Date.valueOf(nextOccurrence);
+            counts[i] = used;
+        }
+
+        List<Generated> inserted = occurrences.isEmpty() ? List.of() : insert(occurrences);
+        jdbc.update(ADVANCE_TEMPLATES, ps -> {
+            Connection c = ps.getConnection();
+            ps.setArray(1, c.createArrayOf("bigint", ids));
+            ps.setArray(2, c.createArrayOf("date", next));
+            ps.setArray(3, c.createArrayOf("integer", counts));
+        });
+
+        publish(due, inserted);
+        generated.increment(inserted.size());
+        return new int[]{due.size(), inserted.size()};
+    }
+
+    /**
+     * What one run does for one template: the new dates in [max(today, nextOccurrence), horizon),
+     * the occurrence after them (null once the rule has ended) and the COUNT used so far.
+     * Dates before nextOccurrence were generated by earlier runs and are never produced
+     * (or counted) again, even if their task has since been deleted.
+     */
+    static Plan plan(RecurrenceRule rule, LocalDate start, LocalDate nextOccurrence, int used,
+                     LocalDate today, LocalDate horizon) {
+        LocalDate from = nextOccurrence;
+        // Occurrences missed while generation was down are used up, not back-filled
+        if (from.isBefore(today)) {
+            used += rule.between(start, from, today, remaining(rule, used)).size();
+            from = today;
+        }
+        List<LocalDate> dates = rule.between(start, from, horizon, remaining(rule, used));
+        used += dates.size();
+        return new Plan(dates, rule.next(start, horizon, remaining(rule, used)), used);
+    }
+
+    private static Integer remaining(RecurrenceRule rule, int used) {
+        return rule.count() == null ? null : rule.count() - used;
+    }
+
+    private List<Generated> insert(List<Occurrence> occurrences) {
+        int n = occurrences.size();
+        String[] titles = new String[n];
+        String[] descriptions = new String[n];
+        String[] priorities = new String[n];
+        Long[] assignees = new Long[n];
+        Long[] templates = new Long[n];
+        Date[] dates = new Date[n];
+        for (int i = 0; i < n; i++) {
+            Occurrence o = occurrences.get(i);
+            titles[i] = o.template().title();
+            descriptions[i] = o.template().description();
+            priorities[i] = o.template().priority().name();
+            assignees[i] = o.template().assignedToId();
+            templates[i] = o.template().id();
+            dates[i] = Date.valueOf(o.date());
+        }
+        return jdbc.query(con -> {
+            var ps = con.prepareStatement(INSERT_TASKS);
+            try {
+                ps.setArray(1, con.createArrayOf("varchar", titles));
+                ps.setArray(2, con.createArrayOf("varchar", descriptions));
+                ps.setArray(3, con.createArrayOf("varchar", priorities));
+                ps.setArray(4, con.createArrayOf("bigint", assignees));
+                ps.setArray(5, con.createArrayOf("bigint", templates));
+                ps.setArray(6, con.createArrayOf("date", dates));
+            } catch (SQLException e) {
+                ps.close();
+                throw e;
+            }
+            return ps;
+        }, (rs, i) -> new Generated(rs.getLong(1), rs.getLong(2), rs.getDate(3).toLocalDate()));
+    }
+
+    // Same events TaskService publishes, so history, outbox, indexes and caches see generated tasks
+    private void publish(List<Due> due, List<Generated> inserted) {
+        Map<Long, Due> byId = new HashMap<>();
+        for (Due t : due) byId.put(t.id(), t);
+        for (Generated g : inserted) {
+            Due t = byId.get(g.templateId());
+            TaskDTO dto = new TaskDTO(g.taskId(), t.title(), t.description(), TaskStatus.TODO, t.priority(),
+                    g.date(), t.assignedToId(), new ArrayList<>());
+            events.publishEvent(TaskChangedEvent.of(TaskChangeType.CREATED, t.createdBy(), null, dto));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.taskmanager.recurring;
+
+import com.example.taskmanager.dto.CreateTemplateRequest;
+import com.example.taskmanager.dto.TaskTemplateDTO;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskTemplate;
+import com.example.taskmanager.repository.TaskTemplateRepository;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.security.AuthenticatedUser;
+import com.example.taskmanager.service.TaskService;
+import jakarta.transaction.Transactional;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Recurring task templates. Creating one only stores the rule and its first occurrence;
+ * the tasks themselves are written by {@link RecurringTaskGenerator}.
+ */
+@Service
+@Transactional
+public class TaskTemplateService {
+
+    private static final int MAX_PREVIEW = 100;
+
+    private final TaskTemplateRepository repository;
+    private final UserRepository userRepository;
+    private final TaskService taskService;
+
+    public TaskTemplateService(TaskTemplateRepository repository, UserRepository userRepository,
+                               TaskService taskService) {
+        this.repository = repository;
+        this.userRepository = userRepository;
+        this.taskService = taskService;
+    }
+
+    // ✅ Create a template (the rule is validated here, never by the generator)
+    public TaskTemplateDTO create(Authentication auth, CreateTemplateRequest req) {
+        AuthenticatedUser caller = taskService.caller(auth);
+        RecurrenceRule rule = RecurrenceRule.parse(req.rrule());
+
+        Long assignee = caller.getId();
+        if (req.assignedToId() != null && !req.assignedToId().equals(caller.getId())) {
+            if (!caller.isAdmin()) throw new IllegalArgumentException("Only admins can create templates for other users");
+            if (!userRepository.existsById(req.assignedToId())) throw new IllegalArgumentException("User not found");
+            assignee = req.assignedToId();
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate start = req.startDate() == null ? today : req.startDate();
+        // Occurrences before today are never generated, but they still use up COUNT
+        int used = start.isBefore(today) && rule.count() != null ? rule.between(start, start, today, rule.count()).size() : 0;
+        LocalDate first = rule.next(start, start.isBefore(today) ? today : start,
+                rule.count() == null ? null : rule.count() - used);
+        if (first == null) throw new IllegalArgumentException("Recurrence rule has no upcoming occurrences");
+
+        Instant now = Instant.now();
+        TaskTemplate template = TaskTemplate.builder()
+                .title(req.title().trim())
+                .description(req.description())
+                .priority(req.priority() == null ? TaskPriority.MEDIUM : req.priority())
+                .assignedToId(assignee)
+                .createdBy(auth.getName())
+                .rrule(rule.toString())
+                .startDate(start)
+                .nextOccurrence(first)
+                .generatedCount(used)
+                .active(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        return toDTO(repository.save(template));
+    }
+
+    // ✅ Templates assigned to the caller (admins see all)
+    public List<TaskTemplateDTO> list(Authentication auth) {
+        AuthenticatedUser caller = taskService.caller(auth);
+        List<TaskTemplate> templates = caller.isAdmin()
+                ? repository.findAllByOrderByIdDesc()
+                : repository.findByAssignedToIdOrderByIdDesc(caller.getId());
+        return templates.stream().map(this::toDTO).toList();
+    }
+
+    // ✅ One template
+    public TaskTemplateDTO getById(Authentication auth, Long id) {
+        return toDTO(get(auth, id));
+    }
+
+    // ✅ Upcoming dates of a template, including ones not generated yet
+    public List<LocalDate> upcoming(Authentication auth, Long id, int limit) {
+        if (limit < 1 || limit > MAX_PREVIEW) throw new IllegalArgumentException("limit must be 1-" + MAX_PREVIEW);
+        TaskTemplate template = get(auth, id);
+        if (template.getNextOccurrence() == null) return List.of();
+
+        RecurrenceRule rule = RecurrenceRule.parse(template.getRrule());
+        Integer remaining = rule.count() == null ? limit : Math.min(limit, rule.count() - template.getGeneratedCount());
+        return rule.between(template.getStartDate(), template.getNextOccurrence(), template.getNextOccurrence().plusYears(50), remaining);
+    }
+
+    // ✅ Stop generating; tasks already created are kept
+    public TaskTemplateDTO stop(Authentication auth, Long id) {
+        TaskTemplate template = get(auth, id);
+        template.setActive(false);
+        template.setNextOccurrence(null);
+        template.setUpdatedAt(Instant.now());
+        return toDTO(template);
+    }
+
+    private TaskTemplate get(Authentication auth, Long id) {
+        AuthenticatedUser caller = taskService.caller(auth);
+        TaskTemplate template = repository.findById(id).orElseThrow(() -> new RuntimeException("Template not found"));
+        if (!caller.isAdmin() && !template.getAssignedToId().equals(caller.getId())) {
+            throw new RuntimeException("Unauthorized access");
+        }
+        return template;
+    }
+
+    private TaskTemplateDTO toDTO(TaskTemplate t) {
+        return new TaskTemplateDTO(t.getId(), t.getTitle(), t.getDescription(), t.getPriority(), t.getAssignedToId(),
+                t.getRrule(), t.getStartDate(), t.getNextOccurrence(), t.getGeneratedCount(), t.isActive());
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.DocumentPreview;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DocumentPreviewRepository extends JpaRepository<DocumentPreview, String> {
+}
@@ -0,0 +1,44 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // Atomic claim: 1 if this caller owns the key now, 0 if someone else got there first
+    @Transactional
+    @Modifying
+    @Query(value = "insert into idempotency_keys (id, fingerprint, created_at, expires_at) "
+            + "values (:id, :fingerprint, :now, :expiresAt) on conflict (id) do nothing", nativeQuery = true)
+    int claim(@Param("id") String id, @Param("fingerprint") String fingerprint,
+              @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyKey k set k.response = :response where k.id = :id")
+    int complete(@Param("id") String id, @Param("response") String response);
+
+    // Failed requests give the key back so the client's retry can run for real
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.id = :id and k.response is null")
+    int release(@Param("id") String id);
+
+    // Expired keys, and claims left behind by a request that never finished
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.id = :id and "
+            + "(k.expiresAt < :now or (k.response is null and k.createdAt < :claimCutoff))")
+    int deleteStale(@Param("id") String id, @Param("now") Instant now, @Param("claimCutoff") Instant claimCutoff);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
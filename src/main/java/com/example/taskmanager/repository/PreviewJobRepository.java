@@ -0,0 +1,11 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.PreviewJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface PreviewJobRepository extends JpaRepository<PreviewJob, Long> {
+    Optional<PreviewJob> findByFileName(String fileName);
+    boolean existsByFileName(String fileName);
+}
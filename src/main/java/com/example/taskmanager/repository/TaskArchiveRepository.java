@@ -0,0 +1,111 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Read access to tasks_archive (see schema.sql). Archived rows are immutable, so
+ * they are mapped straight to {@link TaskDTO}s rather than entities.
+ */
+@Repository
+public class TaskArchiveRepository {
+
+    private static final String COLUMNS =
+            "id, title, description, status, priority, due_date, assigned_to_id, documents";
+
+    // Task properties a page may be sorted by, and their archive columns
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id", "title", "title", "description", "description", "status", "status",
+            "priority", "priority", "dueDate", "due_date", "completedAt", "completed_at");
+
+    private static final RowMapper<TaskDTO> MAPPER = (rs, i) -> {
+        Date due = rs.getDate("due_date");
+        Array docs = rs.getArray("documents");
+        long assignee = rs.getLong("assigned_to_id");
+        boolean unassigned = rs.wasNull();
+        return new TaskDTO(
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getString("status") == null ? null : TaskStatus.valueOf(rs.getString("status")),
+                rs.getString("priority") == null ? null : TaskPriority.valueOf(rs.getString("priority")),
+                due == null ? null : due.toLocalDate(),
+                unassigned ? null : assignee,
+                docs == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList((String[]) docs.getArray()))
+        );
+    };
+
+    private final JdbcTemplate jdbc;
+
+    public TaskArchiveRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Optional<TaskDTO> findById(Long id) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM tasks_archive WHERE id = ?", MAPPER, id)
+                .stream().findFirst();
+    }
+
+    // assigneeId == null means no ownership filter (admin)
+    public long count(Long assigneeId, TaskPriority priority) {
+        Filter f = new Filter(assigneeId, priority);
+        Long n = jdbc.queryForObject("SELECT count(*) FROM tasks_archive" + f.where, Long.class, f.args.toArray());
+        return n == null ? 0 : n;
+    }
+
+    // Same order as the active page before it
+    public List<TaskDTO> find(Long assigneeId, TaskPriority priority, Sort sort, long offset, int limit) {
+        requireSortable(sort);
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", ", id");
+        for (Sort.Order order : sort) {
+            orderBy.add(SORT_COLUMNS.get(order.getProperty()) + (order.isDescending() ? " DESC" : " ASC"));
+        }
+        Filter f = new Filter(assigneeId, priority);
+        List<Object> args = new ArrayList<>(f.args);
+        args.add(limit);
+        args.add(offset);
+        return jdbc.query("SELECT " + COLUMNS + " FROM tasks_archive" + f.where + orderBy + " LIMIT ? OFFSET ?",
+                MAPPER, args.toArray());
+    }
+
+    // Static so callers get the IllegalArgumentException itself, not the repository proxy's translation of it
+    public static void requireSortable(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORT_COLUMNS.containsKey(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort archived tasks by '" + order.getProperty() + "'");
+            }
+        }
+    }
+
+    private static final class Filter {
+        final String where;
+        final List<Object> args = new ArrayList<>();
+
+        Filter(Long assigneeId, TaskPriority priority) {
+            List<String> clauses = new ArrayList<>();
+            if (assigneeId != null) {
+                clauses.add("assigned_to_id = ?");
+                args.add(assigneeId);
+            }
+            if (priority != null) {
+                clauses.add("priority = ?");
+                args.add(priority.name());
+            }
+            where = clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+        }
+    }
+}
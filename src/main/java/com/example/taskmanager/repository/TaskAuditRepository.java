@@ -0,0 +1,13 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.TaskAuditEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface TaskAuditRepository extends JpaRepository<TaskAuditEntry, Long> {
+    // Keyset pages, newest first: pass the last id of the previous page as the cursor
+    List<TaskAuditEntry> findByIdLessThanOrderByIdDesc(Long cursor, Limit limit);
+    List<TaskAuditEntry> findByTaskIdAndIdLessThanOrderByIdDesc(Long taskId, Long cursor, Limit limit);
+}
@@ -0,0 +1,28 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.TaskDependency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface TaskDependencyRepository extends JpaRepository<TaskDependency, Long> {
+
+    // Another node may have linked the same pair a moment ago; that is not an error
+    @Modifying
+    @Query(value = "insert into task_dependencies (blocker_id, blocked_id, created_by, created_at) "
+            + "values (:blockerId, :blockedId, :createdBy, :createdAt) on conflict (blocker_id, blocked_id) do nothing",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("blockerId") Long blockerId, @Param("blockedId") Long blockedId,
+                       @Param("createdBy") String createdBy, @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query("delete from TaskDependency d where d.blockerId = :blockerId and d.blockedId = :blockedId")
+    int deleteEdge(@Param("blockerId") Long blockerId, @Param("blockedId") Long blockedId);
+
+    @Modifying
+    @Query("delete from TaskDependency d where d.blockerId = :taskId or d.blockedId = :taskId")
+    int deleteTouching(@Param("taskId") Long taskId);
+}
@@ -3,18 +3,67 @@ package com.example.taskmanager.repository;
 import com.example.taskmanager.model.Task;
 import com.example.taskmanager.model.TaskPriority;
 import com.example.taskmanager.model.TaskStatus;
-import com.example.taskmanager.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByAssignedTo(User assignedTo);
-    Page<Task> findByAssignedTo(User user, Pageable pageable);
-    Page<Task> findByStatus(TaskStatus status, Pageable pageable);
-    Page<Task> findByPriority(TaskPriority priority, Pageable pageable);
-    Page<Task> findByAssignedToAndStatus(User user, TaskStatus status, Pageable pageable);
-    Page<Task> findByAssignedToAndPriority(User user, TaskPriority priority, Pageable pageable);
+    // Row-level access: task reads carry the ownership predicate, so rows the caller
+    // may not see are filtered by the database and never loaded.
+    String VISIBLE = "(:admin = true or t.assignedTo.id = :callerId)";
+
+    @Query("select t from Task t where t.id = :id and " + VISIBLE)
+    Optional<Task> findVisibleById(@Param("id") Long id, @Param("callerId") Long callerId,
+                                   @Param("admin") boolean admin);
+
+    // Writers lock the row: concurrent edits of one task apply (and number their revisions) in turn
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id = :id and " + VISIBLE)
+    Optional<Task> findVisibleByIdForUpdate(@Param("id") Long id, @Param("callerId") Long callerId,
+                                            @Param("admin") boolean admin);
+
+    @Query(value = "select t from Task t where " + VISIBLE
+            + " and (:status is null or t.status = :status)"
+            + " and (:priority is null or t.priority = :priority)",
+            countQuery = "select count(t) from Task t where " + VISIBLE
+            + " and (:status is null or t.status = :status)"
+            + " and (:priority is null or t.priority = :priority)")
+    Page<Task> findVisible(@Param("callerId") Long callerId, @Param("admin") boolean admin,
+                           @Param("status") TaskStatus status, @Param("priority") TaskPriority priority,
+                           Pageable pageable);
+
+    // Same filter, ids only: task pages are assembled from TaskJsonCache fragments
+    @Query(value = "select t.id from Task t where " + VISIBLE
+            + " and (:status is null or t.status = :status)"
+            + " and (:priority is null or t.priority = :priority)",
+            countQuery = "select count(t) from Task t where " + VISIBLE
+            + " and (:status is null or t.status = :status)"
+            + " and (:priority is null or t.priority = :priority)")
+    Page<Long> findVisibleIds(@Param("callerId") Long callerId, @Param("admin") boolean admin,
+                              @Param("status") TaskStatus status, @Param("priority") TaskPriority priority,
+                              Pageable pageable);
+
+    // One statement for the whole batch; documents come back in the same join
+    @Query("select distinct t from Task t left join fetch t.documents where t.id in :ids and " + VISIBLE)
+    List<Task> findVisibleWithDocumentsByIdIn(@Param("ids") Collection<Long> ids,
+                                              @Param("callerId") Long callerId, @Param("admin") boolean admin);
+
+    // All descendants of a task via the closure table, nearest levels first
+    @Query(value = "select t.* from task_closure c join tasks t on t.id = c.descendant_id"
+            + " where c.ancestor_id = :id and (:admin = true or t.assigned_to_id = :callerId)"
+            + " order by c.depth, t.id", nativeQuery = true)
+    List<Task> findVisibleSubtree(@Param("id") Long id, @Param("callerId") Long callerId,
+                                  @Param("admin") boolean admin);
+
+    // Ids only, to tell forbidden from missing without loading the rows
+    @Query("select t.id from Task t where t.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,18 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.RevisionKind;
+import com.example.taskmanager.model.TaskRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface TaskRevisionRepository extends JpaRepository<TaskRevision, Long> {
+    Optional<TaskRevision> findTopByTaskIdOrderByRevisionDesc(Long taskId);
+    Optional<TaskRevision> findTopByTaskIdAndCreatedAtLessThanEqualOrderByRevisionDesc(Long taskId, Instant at);
+    Optional<TaskRevision> findTopByTaskIdAndKindAndRevisionLessThanEqualOrderByRevisionDesc(Long taskId, RevisionKind kind, int revision);
+    Optional<TaskRevision> findByTaskIdAndRevision(Long taskId, int revision);
+    List<TaskRevision> findByTaskIdAndRevisionBetweenOrderByRevision(Long taskId, int from, int to);
+    List<TaskRevision> findByTaskIdOrderByRevisionDesc(Long taskId);
+}
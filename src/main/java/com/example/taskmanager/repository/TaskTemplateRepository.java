@@ -0,0 +1,13 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.TaskTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface TaskTemplateRepository extends JpaRepository<TaskTemplate, Long> {
+
+    List<TaskTemplate> findByAssignedToIdOrderByIdDesc(Long assignedToId);
+
+    List<TaskTemplate> findAllByOrderByIdDesc();
+}
@@ -0,0 +1,82 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.UserDTO;
+import com.example.taskmanager.dto.UserPickerItem;
+import com.example.taskmanager.model.Role;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Keyset-paged user search backed by the expression indexes in schema.sql.
+ * Rows are ordered by (lower(email) COLLATE "C", id); prefix search uses the same
+ * btree, substring search the trigram GIN indexes.
+ */
+@Repository
+public class UserDirectoryRepository {
+
+    private static final String EMAIL_KEY = "lower(email) COLLATE \"C\"";
+    private static final String NAME_KEY = "lower(name) COLLATE \"C\"";
+
+    /** A directory row plus its sort key, which is what the next page's cursor must carry. */
+    public record Match(UserDTO user, String emailKey) {}
+
+    private final JdbcTemplate jdbc;
+
+    public UserDirectoryRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // afterEmail is the emailKey of the previous page's last match, exactly as Postgres lowercased it
+    public List<Match> search(String q, boolean contains, String afterEmail, Long afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT id, name, email, role, lower(email) AS email_key FROM users"
+                + where(q, contains, afterEmail, afterId, args)
+                + " ORDER BY " + EMAIL_KEY + ", id LIMIT ?";
+        args.add(limit);
+        return jdbc.query(sql, (rs, i) -> new Match(new UserDTO(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("role") == null ? null : Role.valueOf(rs.getString("role"))
+        ), rs.getString("email_key")), args.toArray());
+    }
+
+    public List<UserPickerItem> picker(String q, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT id, name, email FROM users" + where(q, false, null, null, args)
+                + " ORDER BY " + EMAIL_KEY + ", id LIMIT ?";
+        args.add(limit);
+        return jdbc.query(sql, (rs, i) -> new UserPickerItem(rs.getLong(1), rs.getString(2), rs.getString(3)),
+                args.toArray());
+    }
+
+    private static String where(String q, boolean contains, String afterEmail, Long afterId, List<Object> args) {
+        List<String> clauses = new ArrayList<>();
+        if (q != null && !q.isBlank()) {
+            String term = escapeLike(q.trim().toLowerCase(Locale.ROOT));
+            if (contains) {
+                clauses.add("(lower(email) LIKE ? OR lower(name) LIKE ?)");
+                args.add("%" + term + "%");
+                args.add("%" + term + "%");
+            } else {
+                clauses.add("(" + EMAIL_KEY + " LIKE ? OR " + NAME_KEY + " LIKE ?)");
+                args.add(term + "%");
+                args.add(term + "%");
+            }
+        }
+        if (afterEmail != null && afterId != null) {
+            clauses.add("(" + EMAIL_KEY + ", id) > (?, ?)");
+            args.add(afterEmail);
+            args.add(afterId);
+        }
+        return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
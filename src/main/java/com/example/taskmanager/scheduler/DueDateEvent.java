@@ -0,0 +1,10 @@
+package com.example.taskmanager.scheduler;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A batch of tasks whose reminder or overdue deadline passed in the same tick.
+ * Delivery is at-least-once: a restart may repeat deadlines from the current tick.
+ */
+public record DueDateEvent(DueDateEventType type, List<Long> taskIds, Instant firedAt) {}
@@ -0,0 +1,2 @@
+package com.example.taskmanager.scheduler;
+public enum DueDateEventType { REMINDER, OVERDUE }
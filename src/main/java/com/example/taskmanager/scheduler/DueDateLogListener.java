@@ -0,0 +1,18 @@
+package com.example.taskmanager.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Default consumer until notifications are wired up
+@Component
+public class DueDateLogListener {
+
+    private static final Logger log = LoggerFactory.getLogger(DueDateLogListener.class);
+
+    @EventListener
+    public void onDueDate(DueDateEvent event) {
+        log.info("{} fired for {} task(s): {}", event.type(), event.taskIds().size(), event.taskIds());
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.taskmanager.scheduler;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.model.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps reminder and overdue deadlines for open tasks in a {@link TimingWheel}.
+ * <p>
+ * Only tasks due within {@code app.due.horizon-days} are held in memory. The window
+ * is loaded from the due_date index at startup and slid forward once a day, and
+ * TaskService writes keep it current in between, so the tasks table is never polled.
+ * Each task owns two timer ids: {@code id * 2} (reminder) and {@code id * 2 + 1} (overdue).
+ */
+@Component
+public class DueDateScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(DueDateScheduler.class);
+
+    private final JdbcTemplate jdbc;
+    private final ApplicationEventPublisher events;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final int horizonDays;
+    private final long reminderLeadMs;
+    private final int batchSize;
+
+    private final TimingWheel wheel;
+    // Tasks due before this date are covered by the wheel; later ones are loaded as the window slides
+    private LocalDate loadedUntil;
+
+    public DueDateScheduler(JdbcTemplate jdbc,
+                            ApplicationEventPublisher events,
+                            @Value("${app.due.tick-ms:60000}") long tickMs,
+                            @Value("${app.due.horizon-days:14}") int horizonDays,
+                            @Value("${app.due.reminder-lead-hours:24}") long reminderLeadHours,
+                            @Value("${app.due.batch-size:500}") int batchSize) {
+        this.jdbc = jdbc;
+        this.events = events;
+        this.horizonDays = horizonDays;
+        this.reminderLeadMs = reminderLeadHours * 3_600_000L;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel(tickMs, 64, System.currentTimeMillis());
+    }
+
+    // Recovery: yesterday's tasks may have gone overdue while we were down
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDate today = LocalDate.now(zone);
+        synchronized (this) {
+            loadedUntil = today.minusDays(1);
+        }
+        extendHorizon();
+    }
+
+    @Scheduled(cron = "${app.due.extend-cron:0 5 0 * * *}")
+    public void extendHorizon() {
+        LocalDate from;
+        LocalDate until = LocalDate.now(zone).plusDays(horizonDays);
+        synchronized (this) {
+            if (loadedUntil == null || !loadedUntil.isBefore(until)) return;
+            from = loadedUntil;
+        }
+
+        List<long[]> due = jdbc.query(
+                "SELECT id, due_date FROM tasks WHERE due_date >= ? AND due_date < ? AND status IS DISTINCT FROM 'DONE'",
+                (rs, i) -> new long[]{rs.getLong(1), rs.getDate(2).toLocalDate().toEpochDay()},
+                Date.valueOf(from), Date.valueOf(until));
+
+        List<Long> reminders = new ArrayList<>();
+        List<Long> overdue = new ArrayList<>();
+        synchronized (this) {
+            for (long[] row : due) {
+                schedule(row[0], LocalDate.ofEpochDay(row[1]), reminders, overdue);
+            }
+            loadedUntil = until;
+        }
+        log.info("Due-date wheel loaded {} task(s) due before {} ({} pending timers)", due.size(), until, wheel.size());
+        publish(DueDateEventType.REMINDER, reminders);
+        publish(DueDateEventType.OVERDUE, overdue);
+    }
+
+    @Scheduled(fixedDelayString = "${app.due.tick-ms:60000}")
+    public void tick() {
+        List<Long> reminders = new ArrayList<>();
+        List<Long> overdue = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(System.currentTimeMillis(), timerId -> {
+                if (timerId % 2 == 0) reminders.add(timerId / 2);
+                else overdue.add(timerId / 2);
+            });
+        }
+        publish(DueDateEventType.REMINDER, reminders);
+        publish(DueDateEventType.OVERDUE, overdue);
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        List<Long> reminders = new ArrayList<>();
+        List<Long> overdue = new ArrayList<>();
+        synchronized (this) {
+            if (loadedUntil == null) return;
+            cancel(event.taskId());
+
+            TaskDTO after = event.after();
+            if (event.type() != TaskChangeType.DELETED && after != null
+                    && after.dueDate() != null && after.status() != TaskStatus.DONE
+                    && after.dueDate().isBefore(loadedUntil)) {
+                boolean isNew = event.type() == TaskChangeType.CREATED;
+                boolean moved = event.before() != null && !after.dueDate().equals(event.before().dueDate());
+                // Past deadlines fire once, for new or re-dated tasks only
+                if (isNew || moved) schedule(after.id(), after.dueDate(), reminders, overdue);
+                else reschedulePending(after.id(), after.dueDate());
+            }
+        }
+        publish(DueDateEventType.REMINDER, reminders);
+        publish(DueDateEventType.OVERDUE, overdue);
+    }
+
+    public synchronized int pendingTimers() {
+        return wheel.size();
+    }
+
+    private void schedule(long taskId, LocalDate dueDate, List<Long> reminders, List<Long> overdue) {
+        long overdueAt = overdueAt(dueDate);
+        if (!wheel.schedule(taskId * 2, overdueAt - reminderLeadMs)) {
+            if (overdueAt > wheel.currentTime()) reminders.add(taskId);
+        }
+        if (!wheel.schedule(taskId * 2 + 1, overdueAt)) overdue.add(taskId);
+    }
+
+    // Unchanged due date: only re-arm deadlines that have not fired yet
+    private void reschedulePending(long taskId, LocalDate dueDate) {
+        long overdueAt = overdueAt(dueDate);
+        if (overdueAt - reminderLeadMs > wheel.currentTime()) wheel.schedule(taskId * 2, overdueAt - reminderLeadMs);
+        if (overdueAt > wheel.currentTime()) wheel.schedule(taskId * 2 + 1, overdueAt);
+    }
+
+    private void cancel(long taskId) {
+        wheel.cancel(taskId * 2);
+        wheel.cancel(taskId * 2 + 1);
+    }
+
+    // A task becomes overdue when its due date has fully passed
+    private long overdueAt(LocalDate dueDate) {
+        return dueDate.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private void publish(DueDateEventType type, List<Long> taskIds) {
+        Instant now = Instant.now();
+        for (int i = 0; i < taskIds.size(); i += batchSize) {
+            List<Long> batch = List.copyOf(taskIds.subList(i, Math.min(i + batchSize, taskIds.size())));
+            events.publishEvent(new DueDateEvent(type, batch, now));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.taskmanager.scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel keyed by long timer ids.
+ * <p>
+ * Each level has {@code wheelSize} buckets; a level's tick is the previous level's
+ * full rotation, and levels are added lazily as far-out deadlines arrive. Schedule
+ * and cancel are O(1) (bucket lists are intrusive and doubly linked); advancing the
+ * clock by one tick touches one bucket per level. Deadlines fire at tick resolution.
+ * <p>
+ * Not thread-safe: callers serialize access.
+ */
+public final class TimingWheel {
+
+    private static final class Timer {
+        final long id;
+        final long deadline;
+        Timer prev, next;
+        Bucket bucket;
+
+        Timer(long id, long deadline) {
+            this.id = id;
+            this.deadline = deadline;
+        }
+    }
+
+    private static final class Bucket {
+        final Timer head = new Timer(-1, -1);
+
+        Bucket() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        void add(Timer t) {
+            t.bucket = this;
+            t.prev = head.prev;
+            t.next = head;
+            head.prev.next = t;
+            head.prev = t;
+        }
+
+        static void unlink(Timer t) {
+            t.prev.next = t.next;
+            t.next.prev = t.prev;
+            t.prev = t.next = null;
+            t.bucket = null;
+        }
+    }
+
+    private static final class Level {
+        final long tick;
+        final long interval;
+        final Bucket[] buckets;
+        long currentTime;
+
+        Level(long tick, int wheelSize, long startTime) {
+            this.tick = tick;
+            this.interval = tick * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) buckets[i] = new Bucket();
+            this.currentTime = startTime - (startTime % tick);
+        }
+
+        Bucket bucketFor(long time) {
+            return buckets[(int) ((time / tick) % buckets.length)];
+        }
+    }
+
+    private final int wheelSize;
+    private final Level[] levels = new Level[8];
+    private int levelCount;
+    private final Map<Long, Timer> timers = new HashMap<>();
+
+    public TimingWheel(long tickMs, int wheelSize, long startTimeMs) {
+        this.wheelSize = wheelSize;
+        levels[0] = new Level(tickMs, wheelSize, startTimeMs);
+        levelCount = 1;
+    }
+
+    /**
+     * Schedules (or reschedules) a timer. Returns false without scheduling when the
+     * deadline already falls inside the current tick; the caller should fire it now.
+     */
+    public boolean schedule(long id, long deadlineMs) {
+        cancel(id);
+        Timer t = new Timer(id, deadlineMs);
+        if (!place(t)) return false;
+        timers.put(id, t);
+        return true;
+    }
+
+    public boolean cancel(long id) {
+        Timer t = timers.remove(id);
+        if (t == null) return false;
+        Bucket.unlink(t);
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return timers.containsKey(id);
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    public long currentTime() {
+        return levels[0].currentTime;
+    }
+
+    /**
+     * Moves the clock forward to {@code nowMs}, handing every expired timer id to
+     * {@code expired} in deadline-tick order.
+     */
+    public void advanceTo(long nowMs, LongConsumer expired) {
+        Level root = levels[0];
+        while (root.currentTime + root.tick <= nowMs) {
+            long t = root.currentTime + root.tick;
+            for (int i = 0; i < levelCount; i++) {
+                levels[i].currentTime = t - (t % levels[i].tick);
+            }
+
+            // Each level whose tick boundary was crossed re-files its current bucket:
+            // timers either expire or move down to a finer level
+            for (int i = levelCount - 1; i >= 0; i--) {
+                Level level = levels[i];
+                if (t % level.tick != 0) continue;
+                Bucket bucket = level.bucketFor(t);
+                Timer cur = bucket.head.next;
+                while (cur != bucket.head) {
+                    Timer next = cur.next;
+                    Bucket.unlink(cur);
+                    if (!place(cur)) {
+                        timers.remove(cur.id);
+                        expired.accept(cur.id);
+                    }
+                    cur = next;
+                }
+            }
+        }
+    }
+
+    private boolean place(Timer t) {
+        for (int i = 0; ; i++) {
+            if (i == levelCount) addLevel();
+            Level level = levels[i];
+            if (i == 0 && t.deadline < level.currentTime + level.tick) return false;
+            if (t.deadline < level.currentTime + level.interval) {
+                level.bucketFor(t.deadline).add(t);
+                return true;
+            }
+        }
+    }
+
+    private void addLevel() {
+        if (levelCount == levels.length) throw new IllegalStateException("Deadline beyond timing wheel range");
+        Level below = levels[levelCount - 1];
+        levels[levelCount++] = new Level(below.interval, wheelSize, levels[0].currentTime);
+    }
+}
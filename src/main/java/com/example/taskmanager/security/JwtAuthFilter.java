@@ -1,6 +1,8 @@
 package com.example.taskmanager.security;
 
 import com.example.taskmanager.repository.UserRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,23 +11,23 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final ObservationRegistry observations;
 
-    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository) {
+    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository, ObservationRegistry observations) {
         this.jwtService = jwtService;
         this.userRepository = userRepository;
+        this.observations = observations;
     }
 
     @Override
@@ -37,28 +39,36 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             chain.doFilter(request, response);
             return;
         }
-        String token = authHeader.substring(7);
+        // Span covers token parsing and the user lookup only, not the rest of the chain
+        Observation observation = Observation.start("security.jwt", observations);
+        try (Observation.Scope ignored = observation.openScope()) {
+            observation.lowCardinalityKeyValue("outcome", authenticate(request, authHeader.substring(7)));
+        } catch (RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String authenticate(HttpServletRequest request, String token) {
         String username;
         try {
             username = jwtService.extractUsername(token);
         } catch (Exception e) {
-            chain.doFilter(request, response);
-            return;
+            return "invalid";
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var dbUser = userRepository.findByEmail(username).orElse(null);
-            if (dbUser != null && jwtService.isTokenValid(token, username)) {
-                UserDetails userDetails = User.withUsername(dbUser.getEmail())
-                        .password(dbUser.getPassword())
-                        .authorities("ROLE_" + dbUser.getRole().name())
-                        .build();
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
-        }
-        chain.doFilter(request, response);
+        if (username == null || SecurityContextHolder.getContext().getAuthentication() != null) return "skipped";
+        var dbUser = userRepository.findByEmail(username).orElse(null);
+        if (dbUser == null || !jwtService.isTokenValid(token, username)) return "rejected";
+
+        UserDetails userDetails = AuthenticatedUser.from(dbUser);
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        return "authenticated";
     }
 }
@@ -0,0 +1,177 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.storage.AttachmentStorage;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Byte-budgeted LRU of memory-mapped attachments for the download path when attachments
+ * are local files ({@code app.storage.type=local}).
+ * <p>
+ * Cached bytes live in the OS page cache behind a {@link MappedByteBuffer}, so the
+ * budget costs no Java heap: the map itself only holds a handful of small objects
+ * per file. An entry is dropped when its file is re-uploaded, its task is deleted,
+ * or the file's size/mtime no longer match what was mapped. Evicted mappings are
+ * released when the buffer is collected.
+ */
+@Component
+public class AttachmentCache {
+
+    private record Entry(MappedByteBuffer buffer, long size, long lastModified) {}
+
+    private final long budgetBytes;
+    private final long maxEntryBytes;
+    private final ObservationRegistry observations;
+    private final AttachmentStorage storage;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long usedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder hitBytes = new LongAdder();
+    private final LongAdder missBytes = new LongAdder();
+
+    public AttachmentCache(@Value("${app.attachment-cache.budget-bytes:268435456}") long budgetBytes,
+                           @Value("${app.attachment-cache.max-entry-bytes:33554432}") long maxEntryBytes,
+                           MeterRegistry registry,
+                           ObservationRegistry observations,
+                           AttachmentStorage storage) {
+        this.budgetBytes = budgetBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.observations = observations;
+        this.storage = storage;
+
+        FunctionCounter.builder("attachment.cache.requests", hits, LongAdder::sum).tag("result", "hit").register(registry);
+        FunctionCounter.builder("attachment.cache.requests", misses, LongAdder::sum).tag("result", "miss").register(registry);
+        FunctionCounter.builder("attachment.cache.bytes.served", hitBytes, LongAdder::sum).tag("result", "hit").register(registry);
+        FunctionCounter.builder("attachment.cache.bytes.served", missBytes, LongAdder::sum).tag("result", "miss").register(registry);
+        Gauge.builder("attachment.cache.size", this, AttachmentCache::usedBytes).baseUnit("bytes").register(registry);
+        Gauge.builder("attachment.cache.entries", this, AttachmentCache::entryCount).register(registry);
+        Gauge.builder("attachment.cache.hit.ratio", this, c -> ratio(c.hits.sum(), c.misses.sum())).register(registry);
+        Gauge.builder("attachment.cache.byte.hit.ratio", this, c -> ratio(c.hitBytes.sum(), c.missBytes.sum())).register(registry);
+    }
+
+    /**
+     * Returns a read-only view of the file's bytes, mapping (and caching) it on a miss.
+     * Files larger than the per-entry limit are mapped but not retained.
+     */
+    public ByteBuffer read(Path path) throws IOException {
+        Observation observation = Observation.createNotStarted("task.file", observations)
+                .contextualName("attachment read")
+                .lowCardinalityKeyValue("operation", "read")
+                .start();
+        try {
+            ByteBuffer data = read(path, observation);
+            observation.highCardinalityKeyValue("bytes", Integer.toString(data.remaining()));
+            return data;
+        } catch (IOException | RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private ByteBuffer read(Path path, Observation observation) throws IOException {
+        String key = path.toString();
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attrs.size();
+        long mtime = attrs.lastModifiedTime().toMillis();
+
+        synchronized (this) {
+            Entry e = entries.get(key);
+            if (e != null && e.size() == size && e.lastModified() == mtime) {
+                hits.increment();
+                hitBytes.add(size);
+                observation.lowCardinalityKeyValue("cache", "hit");
+                return e.buffer().asReadOnlyBuffer();
+            }
+            if (e != null) remove(key);
+        }
+
+        MappedByteBuffer mapped;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        misses.increment();
+        missBytes.add(size);
+        observation.lowCardinalityKeyValue("cache", "miss");
+
+        if (size <= maxEntryBytes && size <= budgetBytes) {
+            synchronized (this) {
+                remove(key);
+                evictUntilFits(size);
+                entries.put(key, new Entry(mapped, size, mtime));
+                usedBytes += size;
+            }
+        }
+        return mapped.asReadOnlyBuffer();
+    }
+
+    public synchronized void invalidate(Path path) {
+        remove(path.toString());
+    }
+
+    // Overwrites and deletes go through TaskService, so follow its change events
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        List<String> stale = event.type() == TaskChangeType.DELETED
+                ? event.before().documents()
+                : event.type() == TaskChangeType.DOCUMENTS_UPLOADED ? event.addedDocuments() : null;
+        Path root = storage.localRoot().orElse(null);
+        if (stale == null || root == null) return;
+        for (String fileName : stale) {
+            invalidate(root.resolve(fileName));
+        }
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int entryCount() {
+        return entries.size();
+    }
+
+    private void remove(String key) {
+        Entry old = entries.remove(key);
+        if (old != null) usedBytes -= old.size();
+    }
+
+    private void evictUntilFits(long incoming) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (usedBytes + incoming > budgetBytes && it.hasNext()) {
+            usedBytes -= it.next().getValue().size();
+            it.remove();
+        }
+    }
+
+    private static double ratio(double hit, double miss) {
+        double total = hit + miss;
+        return total == 0 ? 0.0 : hit / total;
+    }
+}
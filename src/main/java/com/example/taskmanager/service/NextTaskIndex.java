@@ -0,0 +1,250 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskStatus;
+import com.example.taskmanager.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Each user's open tasks, ordered the way "what should I do next" wants them: highest
+ * priority first, then soonest due (no due date last), then oldest.
+ * <p>
+ * A user's queue is a skip list plus an id -> position map, so a change moves one entry
+ * and the top N is read without a lock or a query. Queues are loaded from Postgres on a
+ * user's first request, kept current from committed task changes (including moving a
+ * task between assignees), reloaded once older than {@code app.next.max-age-ms} (which
+ * is how other nodes' writes arrive) and dropped after {@code app.next.idle-ms} without
+ * a request, or least recently used first beyond {@code app.next.max-users}.
+ */
+@Component
+public class NextTaskIndex {
+
+    private static final int MAX_LIMIT = 100;
+
+    private static final String LOAD = """
+            SELECT t.id, t.title, t.description, t.status, t.priority, t.due_date,
+                   ARRAY(SELECT d.documents FROM task_documents d WHERE d.task_id = t.id)
+            FROM tasks t
+            WHERE t.assigned_to_id = ? AND t.status IS DISTINCT FROM 'DONE'""";
+
+    // HIGH before MEDIUM before LOW, then due date (none = last), then id
+    private record Key(int rank, long dueDay, long id) implements Comparable<Key> {
+        static Key of(TaskDTO task) {
+            int rank = task.priority() == null ? TaskPriority.MEDIUM.ordinal() : task.priority().ordinal();
+            long dueDay = task.dueDate() == null ? Long.MAX_VALUE : task.dueDate().toEpochDay();
+            return new Key(-rank, dueDay, task.id());
+        }
+
+        @Override
+        public int compareTo(Key o) {
+            if (rank != o.rank) return Integer.compare(rank, o.rank);
+            if (dueDay != o.dueDay) return Long.compare(dueDay, o.dueDay);
+            return Long.compare(id, o.id);
+        }
+    }
+
+    private static final class Queue {
+        final ConcurrentSkipListMap<Key, TaskDTO> tasks = new ConcurrentSkipListMap<>();
+        final Map<Long, Key> keys = new HashMap<>();
+        final CompletableFuture<Void> loaded = new CompletableFuture<>();
+        // Ids changed while the initial query ran: the event is newer than the row, so the row is skipped
+        Set<Long> touched = new HashSet<>();
+        // Set once the queue left the map, so a late event cannot count entries nobody holds
+        boolean dropped;
+        volatile long loadedAtNanos;
+        volatile long lastAccessNanos = System.nanoTime();
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TaskService taskService;
+    private final long maxAgeNanos;
+    private final long idleNanos;
+    private final int maxUsers;
+
+    private final ConcurrentHashMap<Long, Queue> queues = new ConcurrentHashMap<>();
+    private final AtomicLong entries = new AtomicLong();
+
+    public NextTaskIndex(JdbcTemplate jdbc,
+                         TaskService taskService,
+                         MeterRegistry registry,
+                         @Value("${app.next.max-age-ms:300000}") long maxAgeMs,
+                         @Value("${app.next.idle-ms:900000}") long idleMs,
+                         @Value("${app.next.max-users:10000}") int maxUsers) {
+        this.jdbc = jdbc;
+        this.taskService = taskService;
+        this.maxAgeNanos = maxAgeMs * 1_000_000L;
+        this.idleNanos = idleMs * 1_000_000L;
+        this.maxUsers = maxUsers;
+
+        Gauge.builder("tasks.next.users", queues, Map::size).register(registry);
+        Gauge.builder("tasks.next.tasks", entries, AtomicLong::get).register(registry);
+    }
+
+    // ✅ The caller's first 'limit' open tasks in "do next" order. Deliberately not transactional:
+    // with a JWT principal, a resident queue is answered without borrowing a connection.
+    public List<TaskDTO> next(Authentication auth, int limit) {
+        AuthenticatedUser caller = auth.getPrincipal() instanceof AuthenticatedUser user ? user : taskService.caller(auth);
+        return next(caller.getId(), limit);
+    }
+
+    // ✅ The user's first 'limit' open tasks in "do next" order
+    public List<TaskDTO> next(long userId, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) throw new IllegalArgumentException("limit must be 1-" + MAX_LIMIT);
+
+        Queue queue = queue(userId);
+        List<TaskDTO> result = new ArrayList<>(limit);
+        for (TaskDTO task : queue.tasks.values()) {
+            result.add(task);
+            if (result.size() == limit) break;
+        }
+        return result;
+    }
+
+    private Queue queue(long userId) {
+        long now = System.nanoTime();
+        while (true) {
+            Queue queue = queues.get(userId);
+            if (queue != null && queue.loaded.isDone() && now - queue.loadedAtNanos > maxAgeNanos) {
+                drop(userId, queue);
+                queue = null;
+            }
+            if (queue == null) {
+                Queue mine = new Queue();
+                queue = queues.putIfAbsent(userId, mine);
+                if (queue == null) {
+                    load(userId, mine);
+                    if (queues.size() > maxUsers) evictLeastRecentlyUsed();
+                    return mine;
+                }
+            }
+            try {
+                queue.loaded.join();
+                queue.lastAccessNanos = now;
+                return queue;
+            } catch (CompletionException e) {
+                // The loader removed its queue and threw; the next pass loads again
+                if (!(e.getCause() instanceof RuntimeException)) throw e;
+            }
+        }
+    }
+
+    private void load(long userId, Queue queue) {
+        try {
+            List<TaskDTO> rows = jdbc.query(LOAD, (rs, i) -> {
+                Date due = rs.getDate(6);
+                Array documents = rs.getArray(7);
+                return new TaskDTO(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        rs.getString(4) == null ? null : TaskStatus.valueOf(rs.getString(4)),
+                        rs.getString(5) == null ? null : TaskPriority.valueOf(rs.getString(5)),
+                        due == null ? null : due.toLocalDate(), userId,
+                        new ArrayList<>(Arrays.asList((String[]) documents.getArray())));
+            }, userId);
+            synchronized (queue) {
+                for (TaskDTO task : rows) {
+                    if (!queue.touched.contains(task.id())) put(queue, task);
+                }
+                queue.touched = null;
+            }
+            queue.loadedAtNanos = System.nanoTime();
+            queue.loaded.complete(null);
+        } catch (RuntimeException e) {
+            drop(userId, queue);
+            queue.loaded.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        long id = event.taskId();
+        TaskDTO before = event.before();
+        TaskDTO after = event.after();
+        Long owner = after != null && after.status() != TaskStatus.DONE ? after.assignedToId() : null;
+
+        if (before != null && before.assignedToId() != null && !before.assignedToId().equals(owner)) {
+            apply(before.assignedToId(), id, null);
+        }
+        if (after != null && after.assignedToId() != null) {
+            apply(after.assignedToId(), id, owner != null ? after : null);
+        }
+    }
+
+    // Upsert (task != null) or remove one task in a resident queue; other users load it when they ask
+    private void apply(long userId, long id, TaskDTO task) {
+        Queue queue = queues.get(userId);
+        if (queue == null) return;
+        synchronized (queue) {
+            if (queue.dropped) return;
+            if (queue.touched != null) queue.touched.add(id);
+            if (task != null) put(queue, task);
+            else remove(queue, id);
+        }
+    }
+
+    private void put(Queue queue, TaskDTO task) {
+        Key key = Key.of(task);
+        Key old = queue.keys.put(task.id(), key);
+        if (old == null) entries.incrementAndGet();
+        else if (!old.equals(key)) queue.tasks.remove(old);
+        queue.tasks.put(key, task);
+    }
+
+    private void remove(Queue queue, long id) {
+        Key old = queue.keys.remove(id);
+        if (old == null) return;
+        queue.tasks.remove(old);
+        entries.decrementAndGet();
+    }
+
+    private void drop(long userId, Queue queue) {
+        if (!queues.remove(userId, queue)) return;
+        synchronized (queue) {
+            queue.dropped = true;
+            entries.addAndGet(-queue.keys.size());
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        while (queues.size() > maxUsers) {
+            Map.Entry<Long, Queue> oldest = null;
+            for (Map.Entry<Long, Queue> e : queues.entrySet()) {
+                if (!e.getValue().loaded.isDone()) continue;
+                if (oldest == null || e.getValue().lastAccessNanos < oldest.getValue().lastAccessNanos) oldest = e;
+            }
+            if (oldest == null) return;
+            drop(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.next.sweep-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        queues.forEach((userId, queue) -> {
+            if (queue.loaded.isDone() && now - queue.lastAccessNanos > idleNanos) drop(userId, queue);
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.DocumentPreviewDTO;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.model.DocumentPreview;
+import com.example.taskmanager.model.PreviewJob;
+import com.example.taskmanager.model.PreviewJobStatus;
+import com.example.taskmanager.repository.DocumentPreviewRepository;
+import com.example.taskmanager.repository.PreviewJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Front half of the preview pipeline: queues render jobs for new uploads and
+ * serves the derived artifacts. Rendering itself happens in {@link PreviewWorker}.
+ */
+@Service
+public class PreviewService {
+
+    private final PreviewJobRepository jobRepository;
+    private final DocumentPreviewRepository previewRepository;
+    private final PreviewWorker worker;
+    private final Path previewDir;
+
+    public PreviewService(PreviewJobRepository jobRepository,
+                          DocumentPreviewRepository previewRepository,
+                          PreviewWorker worker,
+                          @Value("${app.preview.dir:previews}") String previewDir) {
+        this.jobRepository = jobRepository;
+        this.previewRepository = previewRepository;
+        this.worker = worker;
+        this.previewDir = Paths.get(previewDir);
+    }
+
+    // Runs inside the upload transaction, so the job rows commit (or roll back) with the task
+    @EventListener
+    public void enqueue(TaskChangedEvent event) {
+        if (event.type() != TaskChangeType.DOCUMENTS_UPLOADED) return;
+
+        Instant now = Instant.now();
+        for (String fileName : event.addedDocuments()) {
+            if (jobRepository.existsByFileName(fileName)) continue;
+            jobRepository.save(PreviewJob.builder()
+                    .fileName(fileName)
+                    .status(PreviewJobStatus.PENDING)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+    }
+
+    // Only wake the worker once the jobs are visible to other connections
+    @TransactionalEventListener
+    public void afterUploadCommit(TaskChangedEvent event) {
+        if (event.type() == TaskChangeType.DOCUMENTS_UPLOADED) {
+            worker.wakeUp();
+        }
+    }
+
+    public Optional<DocumentPreviewDTO> info(String fileName) {
+        Optional<PreviewJob> job = jobRepository.findByFileName(fileName);
+        if (job.isEmpty()) return Optional.empty();
+
+        DocumentPreview p = previewRepository.findById(fileName).orElse(null);
+        return Optional.of(new DocumentPreviewDTO(
+                fileName,
+                job.get().getStatus(),
+                p != null ? p.getPageCount() : null,
+                p != null ? p.getTitle() : null,
+                p != null ? p.getAuthor() : null,
+                p != null ? p.getProducer() : null,
+                p != null ? p.getRenderedAt() : null
+        ));
+    }
+
+    public Optional<byte[]> thumbnail(String fileName) throws IOException {
+        DocumentPreview p = previewRepository.findById(fileName).orElse(null);
+        if (p == null || p.getThumbnail() == null) return Optional.empty();
+
+        Path path = previewDir.resolve(p.getThumbnail());
+        if (!Files.exists(path)) return Optional.empty();
+        return Optional.of(Files.readAllBytes(path));
+    }
+}
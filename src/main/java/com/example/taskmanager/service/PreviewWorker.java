@@ -0,0 +1,169 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.model.DocumentPreview;
+import com.example.taskmanager.repository.DocumentPreviewRepository;
+import com.example.taskmanager.storage.AttachmentStorage;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Back half of the preview pipeline. Jobs live in the preview_jobs table, so the
+ * queue survives restarts; this component claims PENDING rows in small batches
+ * and renders them on a fixed-size pool that never holds more than
+ * {@code app.preview.workers} jobs at once.
+ */
+@Component
+public class PreviewWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(PreviewWorker.class);
+
+    private final JdbcTemplate jdbc;
+    private final DocumentPreviewRepository previewRepository;
+    private final AttachmentStorage storage;
+    private final Path previewDir;
+    private final float dpi;
+    private final int maxAttempts;
+    private final int workers;
+
+    private final ExecutorService renderPool;
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> new Thread(r, "preview-dispatch"));
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public PreviewWorker(JdbcTemplate jdbc,
+                         DocumentPreviewRepository previewRepository,
+                         AttachmentStorage storage,
+                         @Value("${app.preview.dir:previews}") String previewDir,
+                         @Value("${app.preview.dpi:48}") float dpi,
+                         @Value("${app.preview.max-attempts:3}") int maxAttempts,
+                         @Value("${app.preview.workers:2}") int workers) {
+        this.jdbc = jdbc;
+        this.previewRepository = previewRepository;
+        this.storage = storage;
+        this.previewDir = Paths.get(previewDir);
+        this.dpi = dpi;
+        this.maxAttempts = maxAttempts;
+        this.workers = workers;
+
+        AtomicInteger seq = new AtomicInteger();
+        this.renderPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers),
+                r -> new Thread(r, "preview-render-" + seq.incrementAndGet()));
+    }
+
+    // Jobs left RUNNING by a crash or shutdown are put back in the queue
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int reset = jdbc.update("UPDATE preview_jobs SET status = 'PENDING', updated_at = now() WHERE status = 'RUNNING'");
+        if (reset > 0) log.info("Re-queued {} interrupted preview job(s)", reset);
+        wakeUp();
+    }
+
+    // Safety net for wake-ups lost to a restart or a full pool
+    @Scheduled(fixedDelayString = "${app.preview.poll-ms:10000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    public void wakeUp() {
+        if (dispatcher.isShutdown()) return;
+        try {
+            dispatcher.execute(this::dispatch);
+        } catch (RejectedExecutionException e) {
+            // Shut down between the check and the submit; PENDING rows are picked up on the next start
+        }
+    }
+
+    private void dispatch() {
+        int free = workers - inFlight.get();
+        if (free <= 0) return;
+
+        List<Object[]> claimed = jdbc.query("""
+                UPDATE preview_jobs SET status = 'RUNNING', attempts = attempts + 1, updated_at = now()
+                WHERE id IN (SELECT id FROM preview_jobs WHERE status = 'PENDING'
+                             ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)
+                RETURNING id, file_name, attempts
+                """, (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getInt(3)}, free);
+
+        for (Object[] job : claimed) {
+            inFlight.incrementAndGet();
+            renderPool.execute(() -> {
+                try {
+                    run((Long) job[0], (String) job[1], (Integer) job[2]);
+                } finally {
+                    inFlight.decrementAndGet();
+                    wakeUp();
+                }
+            });
+        }
+    }
+
+    private void run(Long jobId, String fileName, int attempts) {
+        try {
+            previewRepository.save(render(fileName));
+            jdbc.update("UPDATE preview_jobs SET status = 'DONE', last_error = NULL, updated_at = now() WHERE id = ?", jobId);
+        } catch (Exception e) {
+            String status = attempts >= maxAttempts ? "FAILED" : "PENDING";
+            String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            jdbc.update("UPDATE preview_jobs SET status = ?, last_error = ?, updated_at = now() WHERE id = ?",
+                    status, error.length() > 500 ? error.substring(0, 500) : error, jobId);
+            log.warn("Preview render failed for {} (attempt {}): {}", fileName, attempts, error);
+        }
+    }
+
+    private DocumentPreview render(String fileName) throws IOException {
+        if (storage.stat(fileName).isEmpty()) throw new IOException("Source file missing");
+        if (!Files.exists(previewDir)) Files.createDirectories(previewDir);
+        // PDFBox wants random access: the file itself locally, a temporary copy from remote storage
+        return storage.withLocalFile(fileName, source -> render(fileName, source));
+    }
+
+    private DocumentPreview render(String fileName, Path source) throws IOException {
+
+        String thumbnail = fileName + ".png";
+        Path tmp = previewDir.resolve(thumbnail + ".tmp");
+
+        try (PDDocument doc = Loader.loadPDF(source.toFile())) {
+            PDDocumentInformation info = doc.getDocumentInformation();
+            BufferedImage image = new PDFRenderer(doc).renderImageWithDPI(0, dpi, ImageType.RGB);
+            ImageIO.write(image, "png", tmp.toFile());
+            Files.move(tmp, previewDir.resolve(thumbnail), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            return DocumentPreview.builder()
+                    .fileName(fileName)
+                    .pageCount(doc.getNumberOfPages())
+                    .title(info.getTitle())
+                    .author(info.getAuthor())
+                    .producer(info.getProducer())
+                    .thumbnail(thumbnail)
+                    .renderedAt(Instant.now())
+                    .build();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        renderPool.shutdownNow();
+    }
+}
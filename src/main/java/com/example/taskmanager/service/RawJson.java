@@ -0,0 +1,118 @@
+package com.example.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An already serialized JSON value. Jackson copies the UTF-8 bytes into its output
+ * buffer as they are, so a page of cached tasks is written without re-serializing them.
+ * Only the unquoted UTF-8 methods are used on that path; the others go through a String.
+ */
+public final class RawJson implements JsonSerializable, SerializableString {
+
+    private final byte[] utf8;
+    private SerializedString text;
+
+    public RawJson(byte[] utf8) {
+        this.utf8 = utf8;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(this);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return utf8;
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+        if (offset + utf8.length > buffer.length) return -1;
+        System.arraycopy(utf8, 0, buffer, offset, utf8.length);
+        return utf8.length;
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(utf8);
+        return utf8.length;
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer out) {
+        if (out.remaining() < utf8.length) return -1;
+        out.put(utf8);
+        return utf8.length;
+    }
+
+    private SerializedString text() {
+        if (text == null) text = new SerializedString(new String(utf8, StandardCharsets.UTF_8));
+        return text;
+    }
+
+    @Override
+    public String getValue() {
+        return text().getValue();
+    }
+
+    @Override
+    public int charLength() {
+        return text().charLength();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        return text().asQuotedChars();
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return text().asQuotedUTF8();
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+        return text().appendQuotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+        return text().appendQuoted(buffer, offset);
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+        return text().appendUnquoted(buffer, offset);
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        return text().writeQuotedUTF8(out);
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) {
+        return text().putQuotedUTF8(buffer);
+    }
+
+    @Override
+    public String toString() {
+        return getValue();
+    }
+}
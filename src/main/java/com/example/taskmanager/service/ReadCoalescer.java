@@ -0,0 +1,157 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.event.TaskTagsChangedEvent;
+import com.example.taskmanager.security.AuthenticatedUser;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for identical task reads. The first caller for a key runs the query;
+ * callers arriving while it runs wait for the same result instead of issuing their own.
+ * With a result TTL > 0 the finished result is also served for that long.
+ *
+ * Keys always start with the authorization scope: all admins share "admin" (they see
+ * every row), everyone else is scoped to their own user id. Any committed task change
+ * bumps a generation that is part of the key, so no read started before the change is
+ * handed to a caller arriving after it.
+ */
+@Component
+public class ReadCoalescer {
+
+    // Position of the generation bump among after-commit listeners
+    static final int AFTER_COMMIT_ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private static final class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile long completedAtNanos;
+    }
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder cached = new LongAdder();
+
+    public ReadCoalescer(@Value("${app.read-coalescing.enabled:true}") boolean enabled,
+                         @Value("${app.read-coalescing.result-ttl-ms:0}") long resultTtlMs,
+                         @Value("${app.read-coalescing.max-entries:10000}") int maxEntries,
+                         MeterRegistry registry) {
+        this.enabled = enabled;
+        this.ttlNanos = resultTtlMs * 1_000_000L;
+        this.maxEntries = maxEntries;
+
+        FunctionCounter.builder("tasks.read.coalescing", executed, LongAdder::sum).tag("result", "executed").register(registry);
+        FunctionCounter.builder("tasks.read.coalescing", joined, LongAdder::sum).tag("result", "joined").register(registry);
+        FunctionCounter.builder("tasks.read.coalescing", cached, LongAdder::sum).tag("result", "cached").register(registry);
+        Gauge.builder("tasks.read.coalescing.inflight", flights, ConcurrentHashMap::size).register(registry);
+        // Share of reads that did not run their own query
+        Gauge.builder("tasks.read.coalescing.ratio", this, ReadCoalescer::coalescingRatio).register(registry);
+    }
+
+    /** "admin" for admins, "user:<id>" for everyone else. */
+    public String scope(Authentication auth) {
+        if (auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.isAdmin() ? "admin" : "user:" + user.getId();
+        }
+        return "name:" + auth.getName();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, Supplier<T> loader) {
+        if (!enabled) return loader.get();
+
+        String fullKey = generation.get() + "|" + scope + "|" + key;
+        while (true) {
+            Flight flight = flights.get(fullKey);
+            if (flight == null) {
+                Flight mine = new Flight();
+                flight = flights.putIfAbsent(fullKey, mine);
+                if (flight == null) return (T) lead(fullKey, mine, loader);
+            }
+
+            if (!flight.result.isDone()) {
+                joined.increment();
+                return (T) join(flight);
+            }
+            if (!flight.result.isCompletedExceptionally() && System.nanoTime() - flight.completedAtNanos < ttlNanos) {
+                cached.increment();
+                return (T) join(flight);
+            }
+            flights.remove(fullKey, flight);
+        }
+    }
+
+    private Object lead(String key, Flight flight, Supplier<?> loader) {
+        executed.increment();
+        try {
+            Object value = loader.get();
+            flight.completedAtNanos = System.nanoTime();
+            flight.result.complete(value);
+            if (ttlNanos <= 0) flights.remove(key, flight);
+            else if (flights.size() > maxEntries) evictExpired();
+            return value;
+        } catch (RuntimeException e) {
+            flight.result.completeExceptionally(e);
+            flights.remove(key, flight);
+            throw e;
+        }
+    }
+
+    private static Object join(Flight flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        flights.values().removeIf(f -> f.result.isDone() && now - f.completedAtNanos >= ttlNanos);
+    }
+
+    // Reads that start after a committed change never join or reuse a pre-change result.
+    // Runs before TaskJsonCache's version bump (AFTER_COMMIT_ORDER + 1), so a page can never
+    // pair a pre-change id list with fragments serialized after the change
+    @Order(AFTER_COMMIT_ORDER)
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        generation.incrementAndGet();
+        flights.values().removeIf(f -> f.result.isDone());
+    }
+
+    // Tag filters are part of list keys
+    @Order(AFTER_COMMIT_ORDER)
+    @TransactionalEventListener
+    public void onTaskTagsChanged(TaskTagsChangedEvent event) {
+        generation.incrementAndGet();
+        flights.values().removeIf(f -> f.result.isDone());
+    }
+
+    private double coalescingRatio() {
+        double shared = joined.sum() + cached.sum();
+        double total = shared + executed.sum();
+        return total == 0 ? 0.0 : shared / total;
+    }
+}
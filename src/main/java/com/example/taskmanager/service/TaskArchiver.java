@@ -0,0 +1,131 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dependency.TaskDependencyIndex;
+import com.example.taskmanager.tag.TaskTagIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves DONE tasks older than {@code app.archive.after-days} (by completion date,
+ * falling back to due date for rows completed before completed_at existed) into the
+ * monthly partitions of tasks_archive, documents included. Works in small batches
+ * with a pause between them so the active table never sees long locks.
+ */
+@Component
+public class TaskArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+    private static final String COMPLETED_ON = "COALESCE(CAST(completed_at AS date), due_date, CURRENT_DATE)";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final TaskDependencyIndex dependencies;
+    private final TaskTagIndex tags;
+    private final TaskJsonCache taskJson;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int batchSize;
+    private final long pauseMs;
+    private final int maxBatches;
+    private final Set<LocalDate> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    public TaskArchiver(JdbcTemplate jdbc,
+                        TransactionTemplate tx,
+                        TaskDependencyIndex dependencies,
+                        TaskTagIndex tags,
+                        TaskJsonCache taskJson,
+                        @Value("${app.archive.enabled:true}") boolean enabled,
+                        @Value("${app.archive.after-days:30}") int afterDays,
+                        @Value("${app.archive.batch-size:500}") int batchSize,
+                        @Value("${app.archive.batch-pause-ms:200}") long pauseMs,
+                        @Value("${app.archive.max-batches-per-run:100}") int maxBatches) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.dependencies = dependencies;
+        this.tags = tags;
+        this.taskJson = taskJson;
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:600000}", initialDelayString = "${app.archive.initial-delay-ms:60000}")
+    public void run() throws InterruptedException {
+        if (!enabled) return;
+
+        LocalDate cutoff = LocalDate.now().minusDays(afterDays);
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Integer moved = tx.execute(status -> moveBatch(cutoff));
+            if (moved == null || moved == 0) break;
+            total += moved;
+            Thread.sleep(pauseMs);
+        }
+        if (total > 0) log.info("Archived {} DONE task(s) completed before {}", total, cutoff);
+    }
+
+    private int moveBatch(LocalDate cutoff) {
+        List<Object[]> batch = jdbc.query(
+                "SELECT id, " + COMPLETED_ON + " FROM tasks WHERE status = 'DONE' AND " + COMPLETED_ON + " < ?"
+                        // Tasks in a hierarchy stay active: they feed their ancestors' rollups
+                        + " AND NOT EXISTS (SELECT 1 FROM task_closure c WHERE c.ancestor_id = tasks.id)"
+                        + " AND NOT EXISTS (SELECT 1 FROM task_closure c WHERE c.descendant_id = tasks.id)"
+                        + " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getDate(2).toLocalDate()},
+                Date.valueOf(cutoff), batchSize);
+        if (batch.isEmpty()) return 0;
+
+        Set<LocalDate> months = new TreeSet<>();
+        Long[] ids = new Long[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            ids[i] = (Long) batch.get(i)[0];
+            months.add(((LocalDate) batch.get(i)[1]).withDayOfMonth(1));
+        }
+        months.forEach(this::ensurePartition);
+
+        jdbc.update("INSERT INTO tasks_archive (id, title, description, status, priority, due_date, assigned_to_id,"
+                        + " completed_at, documents, tags, completed_on)"
+                        + " SELECT t.id, t.title, t.description, t.status, t.priority, t.due_date, t.assigned_to_id,"
+                        + " t.completed_at, ARRAY(SELECT d.documents FROM task_documents d WHERE d.task_id = t.id),"
+                        + " ARRAY(SELECT g.tag FROM task_tags g WHERE g.task_id = t.id), "
+                        + COMPLETED_ON + " FROM tasks t WHERE t.id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+        jdbc.update("DELETE FROM task_documents WHERE task_id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+        jdbc.update("DELETE FROM task_tags WHERE task_id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+        tags.removeTasksAfterCommit(ids);
+        // An archived task is DONE, so it no longer blocks anything
+        jdbc.update("DELETE FROM task_dependencies WHERE blocker_id = ANY (?) OR blocked_id = ANY (?)", ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids));
+        });
+        dependencies.removeTasksAfterCommit(ids);
+        taskJson.removeTasksAfterCommit(ids);
+        return jdbc.update("DELETE FROM tasks WHERE id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+    }
+
+    private void ensurePartition(LocalDate month) {
+        if (knownPartitions.contains(month)) return;
+        jdbc.execute("CREATE TABLE IF NOT EXISTS tasks_archive_" + month.format(PARTITION_SUFFIX)
+                + " PARTITION OF tasks_archive FOR VALUES FROM ('" + month + "') TO ('" + month.plusMonths(1) + "')");
+        knownPartitions.add(month);
+    }
+}
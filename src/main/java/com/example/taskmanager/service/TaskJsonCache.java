@@ -0,0 +1,266 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.security.AuthenticatedUser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Serialized TaskDTO JSON for GET /api/tasks/{id} and task pages, held off-heap.
+ * <p>
+ * The bytes live in one direct buffer of {@code app.task-json-cache.budget-bytes} that is
+ * filled like a ring: new entries are appended and the oldest are overwritten, so there is
+ * no fragmentation and the budget costs no Java heap. The heap only holds a small index
+ * entry per task with its position, assignee and the version it was serialized at.
+ * <p>
+ * Versions are per id stripe and move on every committed change (write, upload, delete,
+ * archive). An entry counts only while its version is current, so a read that started
+ * before a change can never cache what it loaded. Changes made on other nodes are not
+ * seen here; {@code app.task-json-cache.ttl-ms} bounds how long such an entry is served.
+ */
+@Component
+public class TaskJsonCache {
+
+    private static final int STRIPES = 4096;
+
+    private record Entry(long offset, int length, long version, Long assigneeId, long storedAtNanos) {}
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int capacity;
+    private final int maxEntryBytes;
+    private final long ttlNanos;
+    private final ByteBuffer arena;
+
+    private final StampedLock lock = new StampedLock();
+    // Absolute write position; the arena holds [head - capacity, head)
+    private long head;
+    private final ConcurrentHashMap<Long, Entry> index = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TaskJsonCache(ObjectMapper objectMapper,
+                         MeterRegistry registry,
+                         @Value("${app.task-json-cache.enabled:true}") boolean enabled,
+                         @Value("${app.task-json-cache.budget-bytes:67108864}") int budgetBytes,
+                         @Value("${app.task-json-cache.max-entry-bytes:16384}") int maxEntryBytes,
+                         @Value("${app.task-json-cache.ttl-ms:30000}") long ttlMs) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled && budgetBytes > 0;
+        this.capacity = this.enabled ? budgetBytes : 0;
+        this.maxEntryBytes = Math.min(maxEntryBytes, this.capacity);
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.arena = ByteBuffer.allocateDirect(capacity);
+
+        FunctionCounter.builder("tasks.json.cache.requests", hits, LongAdder::sum).tag("result", "hit").register(registry);
+        FunctionCounter.builder("tasks.json.cache.requests", misses, LongAdder::sum).tag("result", "miss").register(registry);
+        Gauge.builder("tasks.json.cache.entries", index, Map::size).register(registry);
+        Gauge.builder("tasks.json.cache.size", this, TaskJsonCache::usedBytes).baseUnit("bytes").register(registry);
+    }
+
+    /**
+     * The task as JSON. A cached entry is returned after an in-memory check that the caller
+     * is an admin or the assignee; anything else (miss, someone else's task, a principal
+     * that is not from a JWT) runs the loader, which does the real checks. Loaded tasks are
+     * cached only when {@code cacheable} (archived tasks are not).
+     */
+    public byte[] get(Authentication auth, long id, boolean cacheable, Supplier<TaskDTO> loader) {
+        if (enabled && auth.getPrincipal() instanceof AuthenticatedUser caller) {
+            Entry entry = index.get(id);
+            if (entry != null && (caller.isAdmin() || caller.getId().equals(entry.assigneeId()))) {
+                byte[] json = read(id, entry);
+                if (json != null) {
+                    hits.increment();
+                    return json;
+                }
+            }
+        }
+        misses.increment();
+        long version = version(id);
+        TaskDTO task = loader.get();
+        byte[] json = serialize(task);
+        if (cacheable) store(id, version, task.assignedToId(), json);
+        return json;
+    }
+
+    /**
+     * A page of tasks the caller may see, assembled from cached fragments. Ids without a
+     * current entry are loaded in one call and cached. Tasks deleted between the id query
+     * and the load are left out.
+     */
+    public Page<RawJson> page(Page<Long> ids, Function<Collection<Long>, List<TaskDTO>> loader) {
+        List<Long> content = ids.getContent();
+        Map<Long, byte[]> found = new HashMap<>();
+        Map<Long, Long> missing = new HashMap<>();
+        for (Long id : content) {
+            Entry entry = enabled ? index.get(id) : null;
+            byte[] json = entry == null ? null : read(id, entry);
+            if (json != null) found.put(id, json);
+            else missing.put(id, version(id));
+        }
+        hits.add(found.size());
+        misses.add(missing.size());
+
+        if (!missing.isEmpty()) {
+            for (TaskDTO task : loader.apply(missing.keySet())) {
+                byte[] json = serialize(task);
+                store(task.id(), missing.get(task.id()), task.assignedToId(), json);
+                found.put(task.id(), json);
+            }
+        }
+
+        List<RawJson> fragments = new ArrayList<>(content.size());
+        for (Long id : content) {
+            byte[] json = found.get(id);
+            if (json != null) fragments.add(new RawJson(json));
+        }
+        return new PageImpl<>(fragments, ids.getPageable(), ids.getTotalElements());
+    }
+
+    private byte[] serialize(TaskDTO task) {
+        try {
+            return objectMapper.writeValueAsBytes(task);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize task " + task.id(), e);
+        }
+    }
+
+    private byte[] read(long id, Entry entry) {
+        if (entry.version() != versions.get(stripe(id)) || System.nanoTime() - entry.storedAtNanos() > ttlNanos) {
+            index.remove(id, entry);
+            return null;
+        }
+        byte[] json = new byte[entry.length()];
+        int at = (int) (entry.offset() % capacity);
+
+        // Readers never wait for each other; a writer that overlapped the copy forces a locked retry
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0 && head - entry.offset() <= capacity) {
+            arena.get(at, json);
+            if (lock.validate(stamp)) return json;
+        }
+        stamp = lock.readLock();
+        try {
+            if (head - entry.offset() > capacity) {
+                index.remove(id, entry);
+                return null;
+            }
+            arena.get(at, json);
+            return json;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void store(long id, long version, Long assigneeId, byte[] json) {
+        if (!enabled || json.length > maxEntryBytes || versions.get(stripe(id)) != version) return;
+
+        Entry entry;
+        long stamp = lock.writeLock();
+        try {
+            long offset = head;
+            int at = (int) (offset % capacity);
+            // Entries never wrap around the end of the arena: skip the tail instead
+            if (at + json.length > capacity) {
+                offset += capacity - at;
+                at = 0;
+            }
+            arena.put(at, json);
+            head = offset + json.length;
+            entry = new Entry(offset, json.length, version, assigneeId, System.nanoTime());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        index.put(id, entry);
+    }
+
+    private long version(long id) {
+        return versions.get(stripe(id));
+    }
+
+    private static int stripe(long id) {
+        return (int) (id ^ (id >>> 32)) & (STRIPES - 1);
+    }
+
+    private void invalidate(long id) {
+        versions.incrementAndGet(stripe(id));
+        index.remove(id);
+    }
+
+    // Every write, upload and delete through TaskService (and generated tasks) ends up here,
+    // right after ReadCoalescer has moved to a new generation
+    @Order(ReadCoalescer.AFTER_COMMIT_ORDER + 1)
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        invalidate(event.taskId());
+    }
+
+    // For rows removed without a TaskChangedEvent (the archiver)
+    public void removeTasksAfterCommit(Long[] taskIds) {
+        Runnable purge = () -> {
+            for (Long id : taskIds) invalidate(id);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            purge.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                purge.run();
+            }
+        });
+    }
+
+    // Index entries whose bytes were overwritten or expired are otherwise only dropped when read
+    @Scheduled(fixedDelayString = "${app.task-json-cache.sweep-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        long oldest = headSnapshot() - capacity;
+        index.entrySet().removeIf(e -> e.getValue().offset() < oldest
+                || now - e.getValue().storedAtNanos() > ttlNanos
+                || e.getValue().version() != versions.get(stripe(e.getKey())));
+    }
+
+    private long headSnapshot() {
+        long stamp = lock.readLock();
+        try {
+            return head;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private long usedBytes() {
+        return Math.min(headSnapshot(), capacity);
+    }
+}
@@ -1,20 +1,38 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.BatchTaskResult;
 import com.example.taskmanager.dto.CreateTaskRequest;
+import com.example.taskmanager.dto.SubtaskDTO;
+import com.example.taskmanager.dto.SubtreeRollupDTO;
 import com.example.taskmanager.dto.TaskDTO;
 import com.example.taskmanager.dto.UpdateTaskRequest;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.event.TaskTagsChangedEvent;
+import com.example.taskmanager.hierarchy.TaskHierarchy;
 import com.example.taskmanager.model.*;
+import com.example.taskmanager.repository.TaskArchiveRepository;
 import com.example.taskmanager.repository.TaskRepository;
 import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.security.AuthenticatedUser;
+import com.example.taskmanager.storage.AttachmentStorage;
+import com.example.taskmanager.tag.TagFilter;
+import com.example.taskmanager.tag.TaskTagIndex;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.*;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -22,12 +40,30 @@ import java.util.*;
 @Transactional
 public class TaskService {
 
+    private static final int MAX_BATCH_IDS = 200;
+    private static final int MAX_TAGS = 20;
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
-
-    public TaskService(TaskRepository taskRepository, UserRepository userRepository) {
+    private final TaskArchiveRepository archiveRepository;
+    private final ApplicationEventPublisher events;
+    private final AttachmentStorage storage;
+    private final ObservationRegistry observations;
+    private final TaskHierarchy hierarchy;
+    private final TaskTagIndex tagIndex;
+
+    public TaskService(TaskRepository taskRepository, UserRepository userRepository,
+                       TaskArchiveRepository archiveRepository, ApplicationEventPublisher events,
+                       AttachmentStorage storage, ObservationRegistry observations, TaskHierarchy hierarchy,
+                       TaskTagIndex tagIndex) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
+        this.archiveRepository = archiveRepository;
+        this.events = events;
+        this.storage = storage;
+        this.observations = observations;
+        this.hierarchy = hierarchy;
+        this.tagIndex = tagIndex;
     }
 
     private User getCurrentUser(Authentication auth) {
@@ -35,32 +71,73 @@ public class TaskService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    // Id and role straight from the JWT principal; only other Authentication types hit the DB
+    public AuthenticatedUser caller(Authentication auth) {
+        if (auth.getPrincipal() instanceof AuthenticatedUser user) return user;
+        return AuthenticatedUser.from(getCurrentUser(auth));
+    }
+
     // ✅ List all tasks (supports filters)
     public Page<TaskDTO> list(Authentication auth, TaskStatus status, TaskPriority priority, Pageable pageable) {
-        User currentUser = getCurrentUser(auth);
-
-        Page<Task> tasksPage;
-        boolean isAdmin = currentUser.getRole() == Role.ADMIN;
-
-        if (isAdmin) {
-            if (status != null) tasksPage = taskRepository.findByStatus(status, pageable);
-            else if (priority != null) tasksPage = taskRepository.findByPriority(priority, pageable);
-            else tasksPage = taskRepository.findAll(pageable);
-        } else {
-            if (status != null)
-                tasksPage = taskRepository.findByAssignedToAndStatus(currentUser, status, pageable);
-            else if (priority != null)
-                tasksPage = taskRepository.findByAssignedToAndPriority(currentUser, priority, pageable);
-            else
-                tasksPage = taskRepository.findByAssignedTo(currentUser, pageable);
+        AuthenticatedUser caller = caller(auth);
+        // status wins over priority when both are given
+        TaskPriority priorityFilter = status != null ? null : priority;
+        return taskRepository.findVisible(caller.getId(), caller.isAdmin(), status, priorityFilter, pageable)
+                .map(this::toDTO);
+    }
+
+    // ✅ List, continuing into archived DONE tasks once the active rows run out
+    public Page<TaskDTO> list(Authentication auth, TaskStatus status, TaskPriority priority,
+                              boolean includeArchived, Pageable pageable) {
+        if (!includeArchived || (status != null && status != TaskStatus.DONE)) return list(auth, status, priority, pageable);
+        // Checked on every page, not only once the active rows run out
+        TaskArchiveRepository.requireSortable(pageable.getSort());
+        Page<TaskDTO> active = list(auth, status, priority, pageable);
+
+        AuthenticatedUser caller = caller(auth);
+        Long assigneeId = caller.isAdmin() ? null : caller.getId();
+        TaskPriority archivePriority = status != null ? null : priority;
+
+        long activeTotal = active.getTotalElements();
+        long archivedTotal = archiveRepository.count(assigneeId, archivePriority);
+
+        List<TaskDTO> content = new ArrayList<>(active.getContent());
+        int missing = pageable.getPageSize() - content.size();
+        if (missing > 0 && archivedTotal > 0) {
+            long archiveOffset = Math.max(0, pageable.getOffset() - activeTotal);
+            content.addAll(archiveRepository.find(assigneeId, archivePriority, pageable.getSort(), archiveOffset, missing));
         }
+        return new PageImpl<>(content, pageable, activeTotal + archivedTotal);
+    }
 
-        return tasksPage.map(this::toDTO);
+    // ✅ List filtered by a tag expression (see TagFilter): matched in the bitmap index, then one page loaded.
+    // Archived tasks have no index entry, so a tag filter only covers active tasks.
+    public Page<TaskDTO> list(Authentication auth, TaskStatus status, TaskPriority priority, String tags,
+                              boolean includeArchived, Pageable pageable) {
+        if (tags == null || tags.isBlank()) return list(auth, status, priority, includeArchived, pageable);
+
+        AuthenticatedUser caller = caller(auth);
+        TaskPriority priorityFilter = status != null ? null : priority;
+        var matches = tagIndex.evaluate(TagFilter.parse(tags), status, priorityFilter,
+                caller.isAdmin() ? null : caller.getId());
+        List<Long> ids = tagIndex.page(matches, pageable);
+        if (ids.isEmpty()) return new PageImpl<>(List.of(), pageable, matches.getLongCardinality());
+
+        Map<Long, Task> found = new HashMap<>();
+        for (Task t : taskRepository.findVisibleWithDocumentsByIdIn(ids, caller.getId(), caller.isAdmin())) {
+            found.put(t.getId(), t);
+        }
+        List<TaskDTO> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Task t = found.get(id);
+            if (t != null) content.add(toDTO(t));
+        }
+        return new PageImpl<>(content, pageable, matches.getLongCardinality());
     }
 
     // ✅ Create task
     public TaskDTO create(Authentication auth, CreateTaskRequest req) {
-        User user = getCurrentUser(auth);
+        AuthenticatedUser caller = caller(auth);
 
         String safeTitle = (req.title() == null || req.title().isBlank()) ? "Untitled Task" : req.title().trim();
 
@@ -70,25 +147,51 @@ public class TaskService {
         task.setStatus(req.status() == null ? TaskStatus.TODO : req.status());
         task.setPriority(req.priority() == null ? TaskPriority.MEDIUM : req.priority());
         task.setDueDate(req.dueDate() == null ? LocalDate.now().plusDays(1) : req.dueDate());
-        task.setAssignedTo(user);
+        task.setAssignedTo(userRepository.getReferenceById(caller.getId()));
+        if (task.getStatus() == TaskStatus.DONE) task.setCompletedAt(Instant.now());
+        if (req.parentId() != null) task.setParentId(get(auth, req.parentId()).getId());
+
+        Task saved = taskRepository.save(task);
+        if (saved.getParentId() != null) hierarchy.attach(saved.getId(), saved.getParentId(), saved.getStatus());
+        TaskDTO created = toDTO(saved);
+        events.publishEvent(TaskChangedEvent.of(TaskChangeType.CREATED, auth.getName(), null, created));
+        return created;
+    }
 
-        return toDTO(taskRepository.save(task));
+    // ✅ Ids of one page of active tasks (same filters as list); the rows come from TaskJsonCache or findVisible
+    public Page<Long> listIds(Authentication auth, TaskStatus status, TaskPriority priority, String tags, Pageable pageable) {
+        AuthenticatedUser caller = caller(auth);
+        TaskPriority priorityFilter = status != null ? null : priority;
+        if (tags == null || tags.isBlank()) {
+            return taskRepository.findVisibleIds(caller.getId(), caller.isAdmin(), status, priorityFilter, pageable);
+        }
+        var matches = tagIndex.evaluate(TagFilter.parse(tags), status, priorityFilter,
+                caller.isAdmin() ? null : caller.getId());
+        return new PageImpl<>(tagIndex.page(matches, pageable), pageable, matches.getLongCardinality());
     }
 
-    // ✅ Get task entity
-    public Task get(Authentication auth, Long id) {
-        User currentUser = getCurrentUser(auth);
+    // ✅ The given tasks the caller may see, documents included, in one query (order not kept)
+    public List<TaskDTO> findVisible(Authentication auth, Collection<Long> ids) {
+        AuthenticatedUser caller = caller(auth);
+        return taskRepository.findVisibleWithDocumentsByIdIn(ids, caller.getId(), caller.isAdmin()).stream()
+                .map(this::toDTO)
+                .toList();
+    }
 
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+    // ✅ Get task entity (one query: the ownership check is part of the WHERE clause)
+    public Task get(Authentication auth, Long id) {
+        AuthenticatedUser caller = caller(auth);
+        return taskRepository.findVisibleById(id, caller.getId(), caller.isAdmin())
+                .orElseThrow(() -> new RuntimeException(
+                        taskRepository.existsById(id) ? "Unauthorized access" : "Task not found"));
+    }
 
-        if (currentUser.getRole() != Role.ADMIN) {
-            if (task.getAssignedTo() == null ||
-                    !Objects.equals(task.getAssignedTo().getId(), currentUser.getId())) {
-                throw new RuntimeException("Unauthorized access");
-            }
-        }
-        return task;
+    // Same check, row locked until commit; used by every write
+    private Task getForUpdate(Authentication auth, Long id) {
+        AuthenticatedUser caller = caller(auth);
+        return taskRepository.findVisibleByIdForUpdate(id, caller.getId(), caller.isAdmin())
+                .orElseThrow(() -> new RuntimeException(
+                        taskRepository.existsById(id) ? "Unauthorized access" : "Task not found"));
     }
 
     // ✅ Get task DTO by ID (Controller calls this)
@@ -96,13 +199,63 @@ public class TaskService {
         return toDTO(get(auth, id));
     }
 
+    // ✅ Get task DTO by ID, falling through to the archive
+    public TaskDTO getById(Authentication auth, Long id, boolean includeArchived) {
+        if (!includeArchived || taskRepository.existsById(id)) return getById(auth, id);
+
+        TaskDTO archived = archiveRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        AuthenticatedUser caller = caller(auth);
+        if (!caller.isAdmin() && !Objects.equals(archived.assignedToId(), caller.getId())) {
+            throw new RuntimeException("Unauthorized access");
+        }
+        return archived;
+    }
+
+    // ✅ Get many tasks at once: visible rows in one query, ids of the rest in a second
+    public List<BatchTaskResult> getBatch(Authentication auth, List<Long> ids) {
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        if (unique.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        AuthenticatedUser caller = caller(auth);
+
+        Map<Long, Task> found = new HashMap<>();
+        Set<Long> hidden = new HashSet<>();
+        if (!unique.isEmpty()) {
+            for (Task t : taskRepository.findVisibleWithDocumentsByIdIn(unique, caller.getId(), caller.isAdmin())) {
+                found.put(t.getId(), t);
+            }
+            Set<Long> rest = new HashSet<>(unique);
+            rest.removeAll(found.keySet());
+            if (!rest.isEmpty()) hidden.addAll(taskRepository.findExistingIds(rest));
+        }
+
+        List<BatchTaskResult> results = new ArrayList<>(unique.size());
+        for (Long id : unique) {
+            Task t = found.get(id);
+            if (t != null) {
+                results.add(new BatchTaskResult(id, BatchTaskResult.Status.FOUND, toDTO(t)));
+            } else if (hidden.contains(id)) {
+                results.add(new BatchTaskResult(id, BatchTaskResult.Status.FORBIDDEN, null));
+            } else {
+                results.add(new BatchTaskResult(id, BatchTaskResult.Status.MISSING, null));
+            }
+        }
+        return results;
+    }
+
     // ✅ Update task
     public TaskDTO update(Authentication auth, Long id, UpdateTaskRequest req) {
-        Task task = get(auth, id);
+        Task task = getForUpdate(auth, id);
+        TaskDTO before = toDTO(task);
 
         if (req.title() != null && !req.title().isBlank()) task.setTitle(req.title().trim());
         if (req.description() != null) task.setDescription(req.description());
-        if (req.status() != null) task.setStatus(req.status());
+        if (req.status() != null && req.status() != task.getStatus()) {
+            task.setStatus(req.status());
+            task.setCompletedAt(req.status() == TaskStatus.DONE ? Instant.now() : null);
+        }
         if (req.priority() != null) task.setPriority(req.priority());
         if (req.dueDate() != null) task.setDueDate(req.dueDate());
 
@@ -115,13 +268,80 @@ public class TaskService {
         if (task.getTitle() == null || task.getTitle().isBlank())
             task.setTitle("Untitled Task");
 
-        return toDTO(taskRepository.save(task));
+        TaskDTO updated = toDTO(taskRepository.save(task));
+        events.publishEvent(TaskChangedEvent.of(TaskChangeType.UPDATED, auth.getName(), before, updated));
+        return updated;
     }
 
     // ✅ Delete task
     public void delete(Authentication auth, Long id) {
-        Task task = get(auth, id);
+        Task task = getForUpdate(auth, id);
+        TaskDTO before = toDTO(task);
         taskRepository.delete(task);
+        events.publishEvent(TaskChangedEvent.of(TaskChangeType.DELETED, auth.getName(), before, null));
+    }
+
+    // ✅ Tags of a task, sorted
+    public List<String> tags(Authentication auth, Long id) {
+        Task task = get(auth, id);
+        return task.getTags() == null ? List.of() : task.getTags().stream().sorted().toList();
+    }
+
+    // ✅ Replace the tags of a task
+    public List<String> setTags(Authentication auth, Long id, List<String> tags) {
+        Task task = getForUpdate(auth, id);
+        Set<String> after = new TreeSet<>();
+        for (String tag : tags == null ? List.<String>of() : tags) after.add(TagFilter.normalize(tag));
+        if (after.size() > MAX_TAGS) throw new IllegalArgumentException("At most " + MAX_TAGS + " tags per task");
+
+        Set<String> before = task.getTags() == null ? Set.of() : Set.copyOf(task.getTags());
+        if (!before.equals(after)) {
+            if (task.getTags() == null) task.setTags(new HashSet<>());
+            task.getTags().retainAll(after);
+            task.getTags().addAll(after);
+            taskRepository.save(task);
+            events.publishEvent(new TaskTagsChangedEvent(id, before, Set.copyOf(after)));
+        }
+        return List.copyOf(after);
+    }
+
+    // ✅ Tag usage over the tasks the caller can see
+    public Map<String, Long> tagCounts(Authentication auth) {
+        AuthenticatedUser caller = caller(auth);
+        return tagIndex.counts(caller.isAdmin() ? null : caller.getId());
+    }
+
+    // ✅ Move a task (with its subtasks) under another parent; null makes it a top-level task
+    public SubtaskDTO move(Authentication auth, Long id, Long parentId) {
+        Task task = getForUpdate(auth, id);
+        if (parentId != null) get(auth, parentId);
+        if (!Objects.equals(task.getParentId(), parentId)) {
+            hierarchy.move(id, parentId);
+            task.setParentId(parentId);
+            taskRepository.save(task);
+        }
+        return new SubtaskDTO(toDTO(task), parentId, hierarchy.depth(id));
+    }
+
+    // ✅ Every subtask below a task that the caller may see, level by level
+    public List<SubtaskDTO> subtree(Authentication auth, Long id) {
+        AuthenticatedUser caller = caller(auth);
+        get(auth, id);
+        List<Task> tasks = taskRepository.findVisibleSubtree(id, caller.getId(), caller.isAdmin());
+        if (tasks.isEmpty()) return List.of();
+
+        Map<Long, Integer> depths = hierarchy.depths(id);
+        List<SubtaskDTO> result = new ArrayList<>(tasks.size());
+        for (Task t : tasks) {
+            result.add(new SubtaskDTO(toDTO(t), t.getParentId(), depths.getOrDefault(t.getId(), 0)));
+        }
+        return result;
+    }
+
+    // ✅ Status counts over all subtasks of a task
+    public SubtreeRollupDTO rollup(Authentication auth, Long id) {
+        get(auth, id);
+        return hierarchy.rollup(id);
     }
 
     // ✅ Upload PDFs
@@ -220,7 +440,8 @@ public class TaskService {
 
 
     public TaskDTO upload(Authentication auth, Long id, MultipartFile[] files) throws IOException {
-        Task task = get(auth, id); // keeps your existing auth/ownership checks
+        Task task = getForUpdate(auth, id); // keeps your existing auth/ownership checks
+        TaskDTO before = toDTO(task);
 
         if (files == null || files.length == 0) {
             throw new RuntimeException("No files provided");
@@ -229,9 +450,6 @@ public class TaskService {
             throw new RuntimeException("Max 3 files allowed per upload");
         }
 
-        Path dir = Paths.get("uploads");
-        if (!Files.exists(dir)) Files.createDirectories(dir);
-
         // Load existing docs (may be null)
         List<String> existing = task.getDocuments() != null
                 ? new ArrayList<>(task.getDocuments())
@@ -254,7 +472,7 @@ public class TaskService {
             }
 
             String savedName = System.currentTimeMillis() + "_" + original;
-            Files.copy(f.getInputStream(), dir.resolve(savedName), StandardCopyOption.REPLACE_EXISTING);
+            storeAttachment(f, savedName);
             newNames.add(savedName);
         }
 
@@ -262,11 +480,32 @@ public class TaskService {
         existing.addAll(newNames);
         task.setDocuments(existing);
 
-        return toDTO(taskRepository.save(task));
+        TaskDTO uploaded = toDTO(taskRepository.save(task));
+        events.publishEvent(TaskChangedEvent.of(TaskChangeType.DOCUMENTS_UPLOADED, auth.getName(), before, uploaded));
+        return uploaded;
     }
 
 
+    // Traced as "task.file" so slow disks or buckets show up next to the DB spans
+    private void storeAttachment(MultipartFile file, String name) throws IOException {
+        Observation observation = Observation.createNotStarted("task.file", observations)
+                .contextualName("upload copy")
+                .lowCardinalityKeyValue("operation", "write")
+                .start();
+        try (InputStream in = file.getInputStream()) {
+            long bytes = storage.store(name, in, file.getSize(), file.getContentType());
+            observation.highCardinalityKeyValue("bytes", Long.toString(bytes));
+        } catch (IOException | RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
     // ✅ Mapper
+    // Documents are copied out of the Hibernate bag: DTOs are shared across request threads
+    // (ReadCoalescer) and serialized after the session that loaded them is gone
     private TaskDTO toDTO(Task t) {
         return new TaskDTO(
                 t.getId(),
@@ -276,7 +515,7 @@ public class TaskService {
                 t.getPriority(),
                 t.getDueDate(),
                 t.getAssignedTo() != null ? t.getAssignedTo().getId() : null,
-                t.getDocuments()
+                t.getDocuments() != null ? new ArrayList<>(t.getDocuments()) : null
         );
     }
 }
@@ -37,20 +37,69 @@
 //}
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.UserDTO;
+import com.example.taskmanager.dto.UserDirectoryPage;
+import com.example.taskmanager.dto.UserPickerItem;
 import com.example.taskmanager.model.Role;
 import com.example.taskmanager.model.User;
+import com.example.taskmanager.repository.UserDirectoryRepository;
 import com.example.taskmanager.repository.UserRepository;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
 @Service
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final UserRepository userRepository;
+    private final UserDirectoryRepository directoryRepository;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserDirectoryRepository directoryRepository) {
         this.userRepository = userRepository;
+        this.directoryRepository = directoryRepository;
+    }
+
+    /**
+     * One page of the user directory, ordered by email.
+     * {@code cursor} is the opaque nextCursor of the previous page.
+     */
+    public UserDirectoryPage directory(String q, boolean contains, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String afterEmail = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = decoded.lastIndexOf('\n');
+                afterEmail = decoded.substring(0, sep);
+                afterId = Long.parseLong(decoded.substring(sep + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        List<UserDirectoryRepository.Match> matches = directoryRepository.search(q, contains, afterEmail, afterId, size);
+        List<UserDTO> items = new ArrayList<>(matches.size());
+        for (UserDirectoryRepository.Match match : matches) items.add(match.user());
+        String next = null;
+        if (matches.size() == size) {
+            // The key Postgres sorted by, not a Java lowercasing of the email that may differ from it
+            UserDirectoryRepository.Match last = matches.get(matches.size() - 1);
+            next = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((last.emailKey() + "\n" + last.user().id()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new UserDirectoryPage(items, next);
+    }
+
+    public List<UserPickerItem> picker(String q, int limit) {
+        return directoryRepository.picker(q, Math.max(1, Math.min(limit, 50)));
     }
 
     /**
@@ -0,0 +1,65 @@
+package com.example.taskmanager.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Where uploaded attachments live. Names are the flat file names stored in
+ * {@code Task.documents}; backends map them to a path or an object key.
+ * Selected with {@code app.storage.type} ({@code local} or {@code s3}).
+ */
+public interface AttachmentStorage {
+
+    @FunctionalInterface
+    interface FileAction<T> {
+        T apply(Path file) throws IOException;
+    }
+
+    /** Streams {@code size} bytes (-1 if unknown) into the named attachment, replacing it; returns bytes written. */
+    long store(String name, InputStream content, long size, String contentType) throws IOException;
+
+    Optional<StoredAttachment> stat(String name) throws IOException;
+
+    /** Bytes {@code [offset, offset + length)} of the attachment; {@code length} -1 reads to the end. */
+    InputStream open(String name, long offset, long length) throws IOException;
+
+    /** A URL the client can fetch the bytes from directly, if this backend hands those out. */
+    default Optional<URI> downloadUrl(String name) {
+        return Optional.empty();
+    }
+
+    /** Directory holding the attachments when they are plain local files. */
+    default Optional<Path> localRoot() {
+        return Optional.empty();
+    }
+
+    /** Runs {@code action} on a local file with the attachment's bytes (a temporary copy for remote backends). */
+    default <T> T withLocalFile(String name, FileAction<T> action) throws IOException {
+        Optional<Path> root = localRoot();
+        if (root.isPresent()) return action.apply(root.get().resolve(checkName(name)));
+
+        Path copy = Files.createTempFile("attachment-", ".tmp");
+        try {
+            try (InputStream in = open(name, 0, -1)) {
+                Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return action.apply(copy);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    /** Attachment names are single path segments; anything else is rejected before touching storage. */
+    static String checkName(String name) {
+        if (name == null || name.isBlank() || name.contains("/") || name.contains("\\")
+                || name.equals(".") || name.equals("..")) {
+            throw new IllegalArgumentException("Invalid file name");
+        }
+        return name;
+    }
+}
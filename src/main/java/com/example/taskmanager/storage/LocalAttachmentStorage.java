@@ -0,0 +1,58 @@
+package com.example.taskmanager.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+
+/** Attachments as files under {@code app.storage.local.root}; the single-node default. */
+public class LocalAttachmentStorage implements AttachmentStorage {
+
+    private final Path root;
+
+    public LocalAttachmentStorage(@Value("${app.storage.local.root:uploads}") String root) {
+        this.root = Paths.get(root);
+    }
+
+    @Override
+    public long store(String name, InputStream content, long size, String contentType) throws IOException {
+        Path target = root.resolve(AttachmentStorage.checkName(name));
+        if (!Files.exists(root)) Files.createDirectories(root);
+        return Files.copy(content, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public Optional<StoredAttachment> stat(String name) throws IOException {
+        Path path = root.resolve(AttachmentStorage.checkName(name));
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attrs.isRegularFile()) return Optional.empty();
+            return Optional.of(new StoredAttachment(attrs.size(), attrs.lastModifiedTime().toMillis()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public InputStream open(String name, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(root.resolve(AttachmentStorage.checkName(name)), StandardOpenOption.READ);
+        channel.position(offset);
+        InputStream in = Channels.newInputStream(channel);
+        return length < 0 ? in : new BoundedInputStream(in, length);
+    }
+
+    @Override
+    public Optional<Path> localRoot() {
+        return Optional.of(root);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.taskmanager.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Attachments as objects in an S3-compatible bucket (AWS, MinIO, ...), so every node
+ * sees the same files. Uploads up to one part are a single streamed PUT; larger ones
+ * are multipart uploads holding one part in memory at a time. Reads are ranged GETs
+ * streamed straight through. With presigned downloads on, clients are redirected to
+ * the bucket and file bytes never pass through this JVM.
+ */
+public class S3AttachmentStorage implements AttachmentStorage {
+
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3;
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final String keyPrefix;
+    private final int partSize;
+    private final boolean presignDownloads;
+    private final Duration presignTtl;
+
+    public S3AttachmentStorage(@Value("${app.storage.s3.endpoint:}") String endpoint,
+                               @Value("${app.storage.s3.region:us-east-1}") String region,
+                               @Value("${app.storage.s3.bucket}") String bucket,
+                               @Value("${app.storage.s3.key-prefix:attachments/}") String keyPrefix,
+                               @Value("${app.storage.s3.access-key:}") String accessKey,
+                               @Value("${app.storage.s3.secret-key:}") String secretKey,
+                               @Value("${app.storage.s3.path-style:false}") boolean pathStyle,
+                               @Value("${app.storage.s3.part-size-mb:8}") int partSizeMb,
+                               @Value("${app.storage.s3.presign-downloads:true}") boolean presignDownloads,
+                               @Value("${app.storage.s3.presign-ttl-seconds:300}") long presignTtlSeconds) {
+        this.bucket = bucket;
+        this.keyPrefix = keyPrefix;
+        this.partSize = Math.max(MIN_PART_SIZE, partSizeMb * 1024 * 1024);
+        this.presignDownloads = presignDownloads;
+        this.presignTtl = Duration.ofSeconds(presignTtlSeconds);
+
+        // Static keys for MinIO and local runs; otherwise the usual AWS credential chain
+        AwsCredentialsProvider credentials = accessKey.isBlank()
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+        S3Configuration config = S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build();
+
+        var client = S3Client.builder().region(Region.of(region)).credentialsProvider(credentials)
+                .serviceConfiguration(config);
+        var presign = S3Presigner.builder().region(Region.of(region)).credentialsProvider(credentials)
+                .serviceConfiguration(config);
+        if (!endpoint.isBlank()) {
+            client.endpointOverride(URI.create(endpoint));
+            presign.endpointOverride(URI.create(endpoint));
+        }
+        this.s3 = client.build();
+        this.presigner = presign.build();
+    }
+
+    @Override
+    public long store(String name, InputStream content, long size, String contentType) throws IOException {
+        String key = key(name);
+        try {
+            if (size >= 0 && size <= partSize) {
+                s3.putObject(b -> b.bucket(bucket).key(key).contentType(contentType).contentLength(size),
+                        RequestBody.fromInputStream(content, size));
+                return size;
+            }
+            return storeMultipart(key, content, contentType);
+        } catch (SdkException e) {
+            throw new IOException("Storing " + name + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private long storeMultipart(String key, InputStream content, String contentType) throws IOException {
+        String uploadId = s3.createMultipartUpload(b -> b.bucket(bucket).key(key).contentType(contentType)).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            byte[] buffer = new byte[partSize];
+            long total = 0;
+            while (true) {
+                int read = content.readNBytes(buffer, 0, partSize);
+                if (read == 0 && !parts.isEmpty()) break;
+                int partNumber = parts.size() + 1;
+                // ByteArrayInputStream is resettable, so the SDK can retry a part without copying it
+                String etag = s3.uploadPart(b -> b.bucket(bucket).key(key).uploadId(uploadId).partNumber(partNumber),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(etag).build());
+                total += read;
+                if (read < partSize) break;
+            }
+            s3.completeMultipartUpload(b -> b.bucket(bucket).key(key).uploadId(uploadId)
+                    .multipartUpload(m -> m.parts(parts)));
+            return total;
+        } catch (IOException | RuntimeException e) {
+            s3.abortMultipartUpload(b -> b.bucket(bucket).key(key).uploadId(uploadId));
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<StoredAttachment> stat(String name) throws IOException {
+        try {
+            HeadObjectResponse head = s3.headObject(b -> b.bucket(bucket).key(key(name)));
+            return Optional.of(new StoredAttachment(head.contentLength(), head.lastModified().toEpochMilli()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) return Optional.empty();
+            throw new IOException("Reading metadata of " + name + " failed: " + e.getMessage(), e);
+        } catch (SdkException e) {
+            throw new IOException("Reading metadata of " + name + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public InputStream open(String name, long offset, long length) throws IOException {
+        String range = length < 0
+                ? (offset > 0 ? "bytes=" + offset + "-" : null)
+                : "bytes=" + offset + "-" + (offset + length - 1);
+        try {
+            return s3.getObject(b -> b.bucket(bucket).key(key(name)).range(range));
+        } catch (SdkException e) {
+            throw new IOException("Reading " + name + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Optional<URI> downloadUrl(String name) {
+        if (!presignDownloads) return Optional.empty();
+        String key = key(name);
+        var request = presigner.presignGetObject(p -> p.signatureDuration(presignTtl)
+                .getObjectRequest(g -> g.bucket(bucket).key(key)
+                        .responseContentType("application/pdf")
+                        .responseContentDisposition("inline; filename=" + name)));
+        try {
+            return Optional.of(request.url().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String key(String name) {
+        return keyPrefix + AttachmentStorage.checkName(name);
+    }
+
+    public void close() {
+        presigner.close();
+        s3.close();
+    }
+}
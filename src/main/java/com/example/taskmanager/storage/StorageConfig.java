@@ -0,0 +1,25 @@
+package com.example.taskmanager.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Picks the {@link AttachmentStorage} backend from {@code app.storage.type} when the
+ * context starts rather than with a condition, so an AOT-processed build (fast-startup
+ * profile) can still be switched between local and s3 at deploy time.
+ */
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    public AttachmentStorage attachmentStorage(@Value("${app.storage.type:local}") String type,
+                                               AutowireCapableBeanFactory beanFactory) {
+        return switch (type) {
+            case "local" -> beanFactory.createBean(LocalAttachmentStorage.class);
+            case "s3" -> beanFactory.createBean(S3AttachmentStorage.class);
+            default -> throw new IllegalArgumentException("Unknown app.storage.type: " + type);
+        };
+    }
+}
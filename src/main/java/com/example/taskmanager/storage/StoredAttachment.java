@@ -0,0 +1,4 @@
+package com.example.taskmanager.storage;
+
+/** Size and modification time (epoch millis) of a stored attachment. */
+public record StoredAttachment(long size, long lastModified) {}
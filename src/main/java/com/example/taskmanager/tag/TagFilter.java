@@ -0,0 +1,48 @@
+package com.example.taskmanager.tag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed {@code tags=} filter: comma- or space-separated terms that must all hold.
+ * A term is one tag or several alternatives joined with '|'; a leading '-' or '!'
+ * negates it. {@code backend,urgent|critical,-blocked} means
+ * backend AND (urgent OR critical) AND NOT blocked.
+ */
+public record TagFilter(List<Set<String>> required, List<Set<String>> excluded) {
+
+    private static final int MAX_TERMS = 20;
+    private static final Pattern TAG = Pattern.compile("[a-z0-9][a-z0-9_.-]{0,63}");
+
+    public static TagFilter parse(String expression) {
+        List<Set<String>> required = new ArrayList<>();
+        List<Set<String>> excluded = new ArrayList<>();
+        for (String raw : expression.trim().split("[,\\s]+")) {
+            if (raw.isEmpty()) continue;
+            boolean negated = raw.startsWith("-") || raw.startsWith("!");
+            String term = negated ? raw.substring(1) : raw;
+
+            List<String> alternatives = new ArrayList<>();
+            for (String tag : term.split("\\|")) alternatives.add(normalize(tag));
+            (negated ? excluded : required).add(Set.copyOf(alternatives));
+        }
+        if (required.isEmpty() && excluded.isEmpty()) throw new IllegalArgumentException("Empty tag filter");
+        if (required.size() + excluded.size() > MAX_TERMS) {
+            throw new IllegalArgumentException("At most " + MAX_TERMS + " tag terms per filter");
+        }
+        return new TagFilter(required, excluded);
+    }
+
+    // Tags are case-insensitive and stored lower-case
+    public static String normalize(String tag) {
+        String t = tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+        if (!TAG.matcher(t).matches()) {
+            throw new IllegalArgumentException("Invalid tag '" + tag
+                    + "': use up to 64 of a-z, 0-9, '_', '.', '-', starting with a letter or digit");
+        }
+        return t;
+    }
+}
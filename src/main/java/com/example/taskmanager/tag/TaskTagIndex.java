@@ -0,0 +1,310 @@
+package com.example.taskmanager.tag;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.event.TaskTagsChangedEvent;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Roaring bitmaps of active task ids per tag, status, priority and assignee.
+ * <p>
+ * A tag filter combined with the status/priority filters and the caller's visibility is
+ * answered with bitmap AND / OR / ANDNOT, smallest operand first; the result is already
+ * sorted by id, so an id-ordered page is a rank lookup and Postgres only loads the rows
+ * on that page. Other sort orders send the matching ids to Postgres in one array.
+ * <p>
+ * Rebuilt at startup and every {@code app.tags.refresh-ms} (which is how other nodes'
+ * writes arrive), and kept current after every local commit in between. A rebuild that
+ * raced with a local change is discarded and retried on the next round.
+ */
+@Component
+public class TaskTagIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskTagIndex.class);
+
+    // Pageable properties that may be used to order a tag-filtered page
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id", "title", "title", "status", "status", "priority", "priority", "dueDate", "due_date");
+
+    private static final class Bitmaps {
+        final Roaring64Bitmap all = new Roaring64Bitmap();
+        final Map<TaskStatus, Roaring64Bitmap> byStatus = new EnumMap<>(TaskStatus.class);
+        final Map<TaskPriority, Roaring64Bitmap> byPriority = new EnumMap<>(TaskPriority.class);
+        final Map<Long, Roaring64Bitmap> byAssignee = new HashMap<>();
+        final Map<String, Roaring64Bitmap> byTag = new HashMap<>();
+
+        void add(long id, TaskStatus status, TaskPriority priority, Long assignee) {
+            all.addLong(id);
+            if (status != null) byStatus.computeIfAbsent(status, k -> new Roaring64Bitmap()).addLong(id);
+            if (priority != null) byPriority.computeIfAbsent(priority, k -> new Roaring64Bitmap()).addLong(id);
+            if (assignee != null) byAssignee.computeIfAbsent(assignee, k -> new Roaring64Bitmap()).addLong(id);
+        }
+
+        void remove(long id, TaskStatus status, TaskPriority priority, Long assignee) {
+            if (status != null) removeFrom(byStatus, status, id);
+            if (priority != null) removeFrom(byPriority, priority, id);
+            if (assignee != null) removeFrom(byAssignee, assignee, id);
+        }
+
+        void tag(long id, String tag) {
+            byTag.computeIfAbsent(tag, k -> new Roaring64Bitmap()).addLong(id);
+        }
+
+        void untag(long id, String tag) {
+            removeFrom(byTag, tag, id);
+        }
+
+        // Without the task's last known attributes every bitmap has to be visited
+        void purge(long id) {
+            all.removeLong(id);
+            byStatus.values().forEach(b -> b.removeLong(id));
+            byPriority.values().forEach(b -> b.removeLong(id));
+            byAssignee.values().removeIf(b -> {
+                b.removeLong(id);
+                return b.isEmpty();
+            });
+            byTag.values().removeIf(b -> {
+                b.removeLong(id);
+                return b.isEmpty();
+            });
+        }
+
+        private static <K> void removeFrom(Map<K, Roaring64Bitmap> map, K key, long id) {
+            Roaring64Bitmap bitmap = map.get(key);
+            if (bitmap == null) return;
+            bitmap.removeLong(id);
+            if (bitmap.isEmpty()) map.remove(key);
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Bitmaps bitmaps = new Bitmaps();
+    private long version;
+    private volatile boolean loaded;
+
+    public TaskTagIndex(JdbcTemplate jdbc, MeterRegistry registry) {
+        this.jdbc = jdbc;
+        Gauge.builder("tasks.tags.index.tasks", this, i -> i.read(b -> b.all.getLongCardinality())).register(registry);
+        Gauge.builder("tasks.tags.index.tags", this, i -> i.read(b -> b.byTag.size())).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.tags.refresh-ms:300000}", initialDelayString = "${app.tags.refresh-ms:300000}")
+    public void refresh() {
+        long startVersion = read(b -> version);
+
+        Bitmaps fresh = new Bitmaps();
+        jdbc.query("SELECT id, status, priority, assigned_to_id FROM tasks", rs -> {
+            String status = rs.getString(2);
+            String priority = rs.getString(3);
+            long assignee = rs.getLong(4);
+            boolean unassigned = rs.wasNull();
+            fresh.add(rs.getLong(1),
+                    status == null ? null : TaskStatus.valueOf(status),
+                    priority == null ? null : TaskPriority.valueOf(priority),
+                    unassigned ? null : assignee);
+        });
+        jdbc.query("SELECT task_id, tag FROM task_tags", rs -> {
+            fresh.tag(rs.getLong(1), rs.getString(2));
+        });
+        fresh.all.runOptimize();
+        fresh.byStatus.values().forEach(Roaring64Bitmap::runOptimize);
+        fresh.byPriority.values().forEach(Roaring64Bitmap::runOptimize);
+        fresh.byAssignee.values().forEach(Roaring64Bitmap::runOptimize);
+        fresh.byTag.values().forEach(Roaring64Bitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            if (version != startVersion) return;
+            bitmaps = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!loaded) {
+            log.info("Tag index loaded {} task(s), {} tag(s)", fresh.all.getLongCardinality(), fresh.byTag.size());
+        }
+        loaded = true;
+    }
+
+    // ✅ Ids of the active tasks matching the filter, sorted ascending
+    public Roaring64Bitmap evaluate(TagFilter filter, TaskStatus status, TaskPriority priority, Long assigneeId) {
+        if (!loaded) throw new RuntimeException("Tag index is still loading, try again shortly");
+
+        lock.readLock().lock();
+        try {
+            Bitmaps b = bitmaps;
+            List<Roaring64Bitmap> operands = new ArrayList<>();
+            for (Set<String> term : filter.required()) operands.add(union(b, term));
+            if (assigneeId != null) operands.add(b.byAssignee.getOrDefault(assigneeId, new Roaring64Bitmap()));
+            if (status != null) operands.add(b.byStatus.getOrDefault(status, new Roaring64Bitmap()));
+            if (priority != null) operands.add(b.byPriority.getOrDefault(priority, new Roaring64Bitmap()));
+            operands.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+
+            Roaring64Bitmap result = operands.isEmpty() ? b.all.clone() : operands.get(0).clone();
+            for (int i = 1; i < operands.size() && !result.isEmpty(); i++) result.and(operands.get(i));
+            for (Set<String> term : filter.excluded()) {
+                if (result.isEmpty()) break;
+                result.andNot(union(b, term));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ✅ The ids of one page of a filter result, in the order the Pageable asks for
+    public List<Long> page(Roaring64Bitmap matches, Pageable pageable) {
+        long total = matches.getLongCardinality();
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        if (offset >= total) return List.of();
+
+        Sort sort = pageable.getSort();
+        Sort.Order byId = sort.getOrderFor("id");
+        if (sort.isUnsorted() || (byId != null && sort.stream().count() == 1)) {
+            boolean descending = byId != null && byId.isDescending();
+            List<Long> ids = new ArrayList<>(size);
+            PeekableLongIterator it = descending
+                    ? matches.getReverseLongIteratorFrom(matches.select(total - 1 - offset))
+                    : matches.getLongIteratorFrom(matches.select(offset));
+            while (it.hasNext() && ids.size() < size) ids.add(it.next());
+            return ids;
+        }
+
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", ", id");
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) throw new IllegalArgumentException("Cannot sort tagged tasks by '" + order.getProperty() + "'");
+            orderBy.add(column + (order.isDescending() ? " DESC" : " ASC"));
+        }
+        Long[] ids = new Long[(int) total];
+        int n = 0;
+        for (PeekableLongIterator it = matches.getLongIterator(); it.hasNext(); ) ids[n++] = it.next();
+        return jdbc.query("SELECT id FROM tasks WHERE id = ANY (?)" + orderBy + " LIMIT ? OFFSET ?", ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setInt(2, size);
+            ps.setLong(3, offset);
+        }, (rs, i) -> rs.getLong(1));
+    }
+
+    // ✅ Tag -> number of active tasks, most used first; assigneeId limits it to one user's tasks
+    public Map<String, Long> counts(Long assigneeId) {
+        return read(b -> {
+            Roaring64Bitmap scope = assigneeId == null ? null : b.byAssignee.getOrDefault(assigneeId, new Roaring64Bitmap());
+            List<Map.Entry<String, Long>> entries = new ArrayList<>();
+            for (Map.Entry<String, Roaring64Bitmap> e : b.byTag.entrySet()) {
+                long n = scope == null ? e.getValue().getLongCardinality() : Roaring64Bitmap.andCardinality(scope, e.getValue());
+                if (n > 0) entries.add(Map.entry(e.getKey(), n));
+            }
+            entries.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> e : entries) result.put(e.getKey(), e.getValue());
+            return result;
+        });
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        long id = event.taskId();
+        TaskDTO before = event.before();
+        TaskDTO after = event.after();
+        write(b -> {
+            if (event.type() == TaskChangeType.DELETED) {
+                b.purge(id);
+                return;
+            }
+            if (before != null) b.remove(id, before.status(), before.priority(), before.assignedToId());
+            if (after != null) b.add(id, after.status(), after.priority(), after.assignedToId());
+        });
+    }
+
+    @TransactionalEventListener
+    public void onTagsChanged(TaskTagsChangedEvent event) {
+        long id = event.taskId();
+        write(b -> {
+            for (String tag : event.before()) if (!event.after().contains(tag)) b.untag(id, tag);
+            for (String tag : event.after()) b.tag(id, tag);
+        });
+    }
+
+    // TaskArchiver removes DONE tasks behind TaskService's back
+    public void removeTasksAfterCommit(Long[] taskIds) {
+        Runnable purge = () -> write(b -> {
+            for (Long id : taskIds) b.purge(id);
+        });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            purge.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                purge.run();
+            }
+        });
+    }
+
+    private <T> T read(Function<Bitmaps, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(bitmaps);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Consumer<Bitmaps> change) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            change.accept(bitmaps);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Roaring64Bitmap union(Bitmaps b, Set<String> tags) {
+        Roaring64Bitmap result = new Roaring64Bitmap();
+        for (String tag : tags) {
+            Roaring64Bitmap bitmap = b.byTag.get(tag);
+            if (bitmap != null) result.or(bitmap);
+        }
+        return result;
+    }
+}
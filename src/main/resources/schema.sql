@@ -0,0 +1,82 @@
+-- Runs after Hibernate's ddl-auto (spring.jpa.defer-datasource-initialization=true).
+-- Only objects Hibernate cannot express belong here; every statement must be idempotent.
+
+-- Archive of DONE tasks, range-partitioned by completion month.
+-- Monthly partitions are created on demand by TaskArchiver.
+CREATE TABLE IF NOT EXISTS tasks_archive (
+    id             BIGINT        NOT NULL,
+    title          VARCHAR(255)  NOT NULL,
+    description    VARCHAR(1000),
+    status         VARCHAR(255),
+    priority       VARCHAR(255),
+    due_date       DATE,
+    assigned_to_id BIGINT,
+    completed_at   TIMESTAMP(6) WITH TIME ZONE,
+    documents      TEXT[],
+    completed_on   DATE          NOT NULL,
+    archived_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, completed_on)
+) PARTITION BY RANGE (completed_on);
+
+CREATE TABLE IF NOT EXISTS tasks_archive_default PARTITION OF tasks_archive DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_id ON tasks_archive (id);
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_assignee ON tasks_archive (assigned_to_id, id);
+
+-- User directory: keyset order and prefix search on lower(email)/lower(name) in the
+-- "C" collation (so LIKE 'abc%' can use the btree), trigram GIN for substring search.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users ((lower(email) COLLATE "C"), id);
+CREATE INDEX IF NOT EXISTS idx_users_name_lower ON users ((lower(name) COLLATE "C"), id);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops);
+
+-- Transactional outbox (outbox.OutboxWriter / OutboxRelay). tx_id is the writing
+-- transaction, so (tx_id, id) is a commit-safe delivery order: the relay only reads
+-- transactions older than the oldest one still in progress.
+CREATE TABLE IF NOT EXISTS task_outbox (
+    id         BIGSERIAL     PRIMARY KEY,
+    tx_id      XID8          NOT NULL DEFAULT pg_current_xact_id(),
+    task_id    BIGINT        NOT NULL,
+    type       VARCHAR(32)   NOT NULL,
+    actor      VARCHAR(255),
+    payload    JSONB         NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_outbox_position ON task_outbox (tx_id, id);
+CREATE INDEX IF NOT EXISTS idx_task_outbox_created ON task_outbox (created_at);
+
+-- Last (tx_id, id) each consumer has been given, moved in the delivery transaction
+CREATE TABLE IF NOT EXISTS outbox_consumer_offsets (
+    consumer   VARCHAR(100)  PRIMARY KEY,
+    tx_id      XID8          NOT NULL,
+    event_id   BIGINT        NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+-- Subtask hierarchy (hierarchy.TaskHierarchy). One row per ancestor/descendant pair,
+-- self pairs left out; depth 1 = direct child.
+CREATE TABLE IF NOT EXISTS task_closure (
+    ancestor_id   BIGINT  NOT NULL,
+    descendant_id BIGINT  NOT NULL,
+    depth         INT     NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_closure_descendant ON task_closure (descendant_id, ancestor_id, depth);
+
+-- Descendants of each task by status, adjusted with deltas on every status change and move
+CREATE TABLE IF NOT EXISTS task_subtree_counts (
+    task_id    BIGINT       NOT NULL,
+    status     VARCHAR(32)  NOT NULL,
+    task_count BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (task_id, status)
+);
+
+-- Archived tasks keep their tags
+ALTER TABLE tasks_archive ADD COLUMN IF NOT EXISTS tags TEXT[];
+
+-- One task per template occurrence: makes generation idempotent across retries and nodes
+CREATE UNIQUE INDEX IF NOT EXISTS uk_tasks_template_occurrence
+    ON tasks (template_id, occurrence_on) WHERE template_id IS NOT NULL;
@@ -0,0 +1,129 @@
+package com.example.taskmanager.dependency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class DependencyGraphTest {
+
+    @Test
+    void pathFindsTheEdgeThatWouldCloseACycle() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+
+        // 4 -> 1 would close 1 -> 2 -> 3 -> 4 -> 1
+        assertThat(graph.path(1, 4)).containsExactly(1, 2, 3, 4);
+        // 1 -> 4 is only a shortcut
+        assertThat(graph.path(4, 1)).isNull();
+        assertThat(graph.path(1, 99)).isNull();
+    }
+
+    @Test
+    void selfLinksAreRejected() {
+        DependencyGraph graph = new DependencyGraph();
+        assertThatThrownBy(() -> graph.addEdge(7, 7)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(graph.nodeCount()).isZero();
+    }
+
+    @Test
+    void downstreamListsBlockersBeforeTheTasksTheyBlock() {
+        DependencyGraph graph = diamond();
+
+        long[] order = graph.downstream(1);
+
+        assertThat(order).containsExactlyInAnyOrder(2, 3, 4, 5);
+        assertBlockersFirst(graph, order);
+        assertThat(order[order.length - 1]).isEqualTo(5);
+    }
+
+    @Test
+    void upstreamListsTheOrderPrerequisitesCanBeWorkedThrough() {
+        DependencyGraph graph = diamond();
+
+        long[] order = graph.upstream(5);
+
+        assertThat(order).containsExactlyInAnyOrder(1, 2, 3, 4);
+        assertBlockersFirst(graph, order);
+        assertThat(order[0]).isEqualTo(1);
+    }
+
+    @Test
+    void blockedFollowsDoneFlagsOfDirectBlockers() {
+        DependencyGraph graph = diamond();
+        assertThat(graph.blockedTasks()).containsExactlyInAnyOrder(2, 3, 4, 5);
+
+        graph.setDone(1, true);
+        assertThat(graph.isBlocked(2)).isFalse();
+        assertThat(graph.isBlocked(3)).isFalse();
+        assertThat(graph.blockedTasks()).containsExactlyInAnyOrder(4, 5);
+    }
+
+    @Test
+    void removingNodesKeepsLookupsConsistent() {
+        DependencyGraph graph = new DependencyGraph(16);
+        // Enough ids to grow the table and the slots, then free most of them
+        for (long id = 1; id < 2_000; id++) graph.addEdge(id, id + 1);
+        for (long id = 2; id <= 2_000; id += 2) graph.removeNode(id);
+
+        assertThat(graph.edgeCount()).isZero();
+        assertThat(graph.nodeCount()).isZero();
+        assertThat(graph.contains(1)).isFalse();
+
+        graph.addEdge(10_001, 10_002);
+        graph.addEdge(10_002, 10_003);
+        assertThat(graph.path(10_001, 10_003)).containsExactly(10_001, 10_002, 10_003);
+        assertThat(graph.downstream(10_001)).containsExactly(10_002, 10_003);
+    }
+
+    @Test
+    void linkRejectsACycleAndLeavesTheIndexUnchanged() {
+        TaskDependencyIndex index = emptyIndex();
+        index.link(1, 2, false, false);
+        index.link(2, 3, false, false);
+
+        assertThatThrownBy(() -> index.link(3, 1, false, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("1 -> 2 -> 3 -> 1");
+        assertThat(index.blockers(1)).isEmpty();
+        assertThat(index.downstream(1)).containsExactly(2, 3);
+    }
+
+    // Loaded from a database with no links
+    private static TaskDependencyIndex emptyIndex() {
+        TaskDependencyIndex index = new TaskDependencyIndex(mock(JdbcTemplate.class), new SimpleMeterRegistry());
+        index.load();
+        return index;
+    }
+
+    // 1 blocks 2 and 3, both block 4, 4 blocks 5
+    private static DependencyGraph diamond() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.addEdge(1, 2);
+        graph.addEdge(1, 3);
+        graph.addEdge(2, 4);
+        graph.addEdge(3, 4);
+        graph.addEdge(4, 5);
+        return graph;
+    }
+
+    private static void assertBlockersFirst(DependencyGraph graph, long[] order) {
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < order.length; i++) position.put(order[i], i);
+        for (long id : order) {
+            for (long blocked : graph.blocked(id)) {
+                if (position.containsKey(blocked)) {
+                    assertThat(position.get(id)).as("%d before %d", id, blocked).isLessThan(position.get(blocked));
+                }
+            }
+        }
+    }
+}
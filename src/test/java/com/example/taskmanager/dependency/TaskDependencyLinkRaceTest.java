@@ -0,0 +1,132 @@
+package com.example.taskmanager.dependency;
+
+import com.example.taskmanager.model.Role;
+import com.example.taskmanager.repository.TaskDependencyRepository;
+import com.example.taskmanager.security.AuthenticatedUser;
+import com.example.taskmanager.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two nodes linking A -> B and B -> A at the same moment. Each node is a
+ * TaskDependencyService with an index of its own, so neither sees the other's link in
+ * memory and only the check against task_dependencies can refuse the second one.
+ * <p>
+ * Runs against the Postgres configured in application.properties.
+ */
+@SpringBootTest
+class TaskDependencyLinkRaceTest {
+
+    @Autowired
+    private TaskDependencyRepository repository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Authentication admin = new UsernamePasswordAuthenticationToken(
+            new AuthenticatedUser(0L, "link-race@example.com", "", Role.ADMIN), null);
+
+    private long a;
+    private long b;
+
+    @BeforeEach
+    void createTasks() {
+        a = task("link race A");
+        b = task("link race B");
+    }
+
+    @AfterEach
+    void deleteTasks() {
+        jdbc.update("DELETE FROM task_dependencies WHERE blocker_id IN (?, ?) OR blocked_id IN (?, ?)", a, b, a, b);
+        jdbc.update("DELETE FROM tasks WHERE id IN (?, ?)", a, b);
+    }
+
+    @Test
+    void secondNodeCannotCloseACycleWithALinkCommittedMeanwhile() throws Exception {
+        TaskDependencyService first = node();
+        TaskDependencyService second = node();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch firstLinked = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+
+        // A blocks B, held open until the second node is waiting
+        CompletableFuture<Void> linkAB = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> {
+            first.link(admin, b, a);
+            firstLinked.countDown();
+            await(commitFirst);
+        }));
+        assertThat(firstLinked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // B blocks A: passes its own index, then queues behind the first link's lock
+        CompletableFuture<Void> linkBA = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status ->
+                second.link(admin, a, b)));
+        waitForLockWaiter();
+        assertThat(linkBA).isNotDone();
+
+        commitFirst.countDown();
+        linkAB.get(10, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> linkBA.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cannot block task " + a);
+        assertThat(jdbc.queryForList("SELECT blocker_id FROM task_dependencies WHERE blocker_id IN (?, ?)", Long.class, a, b))
+                .containsExactly(a);
+        // The rolled-back link left the second node's index too
+        assertThat(second.dependencies(admin, a).blockedBy()).isEmpty();
+    }
+
+    private TaskDependencyService node() {
+        TaskDependencyIndex index = new TaskDependencyIndex(jdbc, new SimpleMeterRegistry());
+        index.load();
+        return new TaskDependencyService(repository, index, taskService, jdbc);
+    }
+
+    private long task(String title) {
+        return jdbc.queryForObject("INSERT INTO tasks (title, status, priority) VALUES (?, 'TODO', 'MEDIUM') RETURNING id",
+                Long.class, title);
+    }
+
+    private void waitForLockWaiter() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Integer waiting = jdbc.queryForObject(
+                    "SELECT count(*) FROM pg_locks WHERE locktype = 'advisory' AND NOT granted", Integer.class);
+            if (waiting != null && waiting > 0) return;
+            Thread.sleep(50);
+        }
+        throw new AssertionError("second link never waited for the advisory lock");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) throw new IllegalStateException("timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
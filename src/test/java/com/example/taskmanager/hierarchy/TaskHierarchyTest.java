@@ -0,0 +1,223 @@
+package com.example.taskmanager.hierarchy;
+
+import com.example.taskmanager.dto.SubtreeRollupDTO;
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * TaskHierarchy against real Postgres (advisory locks, unnest upserts), in a schema of its
+ * own: task_closure and task_subtree_counts from schema.sql plus a stand-in tasks table with
+ * the one column the hierarchy reads. Every call runs in a transaction, as in TaskService.
+ * <p>
+ * The tree built before each test:
+ * <pre>
+ *   1 (TODO)            10 (TODO)
+ *   +- 2 (IN_PROGRESS)  +- 11 (TODO)
+ *   |  +- 3 (DONE)
+ *   +- 4 (TODO)
+ * </pre>
+ */
+class TaskHierarchyTest {
+
+    private static final String URL = "jdbc:postgresql://localhost:5432/taskmanager";
+    private static final String SCHEMA = "task_hierarchy_test";
+
+    private static JdbcTemplate jdbc;
+    private static TransactionTemplate tx;
+
+    private final TaskHierarchy hierarchy = new TaskHierarchy(jdbc);
+
+    @BeforeAll
+    static void createSchema() throws IOException {
+        JdbcTemplate admin = new JdbcTemplate(new DriverManagerDataSource(URL, "postgres", "root"));
+        admin.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        admin.execute("CREATE SCHEMA " + SCHEMA);
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL + "?currentSchema=" + SCHEMA, "postgres", "root");
+        jdbc = new JdbcTemplate(dataSource);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbc.execute("CREATE TABLE tasks (id BIGINT PRIMARY KEY, status VARCHAR(32))");
+        for (String statement : hierarchyDdl()) jdbc.execute(statement);
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @BeforeEach
+    void buildTree() {
+        jdbc.execute("TRUNCATE tasks, task_closure, task_subtree_counts");
+        root(1, TaskStatus.TODO);
+        root(10, TaskStatus.TODO);
+        child(2, 1, TaskStatus.IN_PROGRESS);
+        child(3, 2, TaskStatus.DONE);
+        child(4, 1, TaskStatus.TODO);
+        child(11, 10, TaskStatus.TODO);
+    }
+
+    @Test
+    void attachAddsAPathFromEveryAncestorAndCountsTheChild() {
+        assertThat(closure()).containsExactlyInAnyOrder(
+                "1>2@1", "1>3@2", "1>4@1", "2>3@1", "10>11@1");
+        assertThat(hierarchy.depth(3)).isEqualTo(2);
+        assertThat(hierarchy.depths(1)).containsExactlyInAnyOrderEntriesOf(Map.of(2L, 1, 3L, 2, 4L, 1));
+
+        assertRollup(1, 1, 1, 1);
+        assertRollup(2, 0, 0, 1);
+        assertRollup(3, 0, 0, 0);
+        assertThat(hierarchy.rollup(1).percentDone()).isEqualTo(33.3);
+    }
+
+    @Test
+    void moveTakesTheSubtreeAndItsCountsToTheNewParent() {
+        assertThat(hierarchy.depths(10)).containsExactlyInAnyOrderEntriesOf(Map.of(11L, 1));
+        assertRollup(1, 1, 1, 1);
+        assertRollup(10, 1, 0, 0);
+        assertRollup(11, 0, 0, 0);
+
+        inTransaction(() -> hierarchy.move(2, 11L));
+
+        assertThat(closure()).containsExactlyInAnyOrder(
+                "1>4@1", "2>3@1", "10>11@1", "10>2@2", "10>3@3", "11>2@1", "11>3@2");
+        assertThat(hierarchy.depth(3)).isEqualTo(3);
+
+        assertRollup(1, 1, 0, 0);
+        assertRollup(10, 1, 1, 1);
+        assertRollup(11, 0, 1, 1);
+        // The moved task keeps its own subtree's counts
+        assertRollup(2, 0, 0, 1);
+    }
+
+    @Test
+    void moveToTheTopMakesARoot() {
+        inTransaction(() -> hierarchy.move(2, null));
+
+        assertThat(closure()).containsExactlyInAnyOrder("1>4@1", "2>3@1", "10>11@1");
+        assertThat(hierarchy.depth(2)).isZero();
+        assertRollup(1, 1, 0, 0);
+        assertRollup(2, 0, 0, 1);
+    }
+
+    @Test
+    void moveUnderItsOwnDescendantIsRejectedAndChangesNothing() {
+        List<String> before = closure();
+
+        assertThatThrownBy(() -> inTransaction(() -> hierarchy.move(1, 3L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("inside the subtree of task 1");
+        assertThatThrownBy(() -> inTransaction(() -> hierarchy.move(2, 2L)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(closure()).containsExactlyInAnyOrderElementsOf(before);
+        assertRollup(1, 1, 1, 1);
+    }
+
+    @Test
+    void statusChangeMovesOneCountInEveryAncestor() {
+        changeStatus(3, TaskStatus.DONE, TaskStatus.TODO);
+
+        assertRollup(1, 2, 1, 0);
+        assertRollup(2, 1, 0, 0);
+
+        // Saving without a status change leaves the counts alone
+        changeStatus(3, TaskStatus.TODO, TaskStatus.TODO);
+        assertRollup(1, 2, 1, 0);
+    }
+
+    @Test
+    void deletingATaskWithChildrenIsRejected() {
+        assertThatThrownBy(() -> inTransaction(() -> hierarchy.onTaskChanged(deleted(2, TaskStatus.IN_PROGRESS))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("subtasks");
+        assertThat(closure()).contains("1>2@1", "2>3@1");
+    }
+
+    @Test
+    void deletingALeafTakesItOutOfItsAncestorsCounts() {
+        inTransaction(() -> hierarchy.onTaskChanged(deleted(3, TaskStatus.DONE)));
+
+        assertThat(closure()).containsExactlyInAnyOrder("1>2@1", "1>4@1", "10>11@1");
+        assertRollup(1, 1, 1, 0);
+        assertRollup(2, 0, 0, 0);
+    }
+
+    private void root(long id, TaskStatus status) {
+        jdbc.update("INSERT INTO tasks (id, status) VALUES (?, ?)", id, status.name());
+    }
+
+    private void child(long id, long parentId, TaskStatus status) {
+        root(id, status);
+        inTransaction(() -> hierarchy.attach(id, parentId, status));
+    }
+
+    private void changeStatus(long id, TaskStatus from, TaskStatus to) {
+        jdbc.update("UPDATE tasks SET status = ? WHERE id = ?", to.name(), id);
+        inTransaction(() -> hierarchy.onTaskChanged(new TaskChangedEvent(TaskChangeType.UPDATED, id, "test",
+                task(id, from), task(id, to), Instant.now())));
+    }
+
+    private static TaskChangedEvent deleted(long id, TaskStatus status) {
+        return new TaskChangedEvent(TaskChangeType.DELETED, id, "test", task(id, status), null, Instant.now());
+    }
+
+    private static TaskDTO task(long id, TaskStatus status) {
+        return new TaskDTO(id, "task " + id, null, status, null, null, null, List.of());
+    }
+
+    private static void inTransaction(Runnable action) {
+        tx.executeWithoutResult(status -> action.run());
+    }
+
+    private void assertRollup(long taskId, long todo, long inProgress, long done) {
+        SubtreeRollupDTO rollup = hierarchy.rollup(taskId);
+        assertThat(rollup.byStatus()).as("rollup of %d", taskId).containsExactlyInAnyOrderEntriesOf(Map.of(
+                TaskStatus.TODO, todo, TaskStatus.IN_PROGRESS, inProgress, TaskStatus.DONE, done));
+        assertThat(rollup.total()).isEqualTo(todo + inProgress + done);
+    }
+
+    // "ancestor>descendant@depth"
+    private static List<String> closure() {
+        return jdbc.query("SELECT ancestor_id, descendant_id, depth FROM task_closure",
+                (rs, i) -> rs.getLong(1) + ">" + rs.getLong(2) + "@" + rs.getInt(3));
+    }
+
+    // The CREATE statements for task_closure and task_subtree_counts, as the application runs them
+    private static List<String> hierarchyDdl() throws IOException {
+        String sql;
+        try (InputStream in = TaskHierarchyTest.class.getResourceAsStream("/schema.sql")) {
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> statements = new ArrayList<>();
+        // Comments go first: some of them contain semicolons
+        for (String statement : sql.replaceAll("(?m)^\\s*--.*$", "").split(";")) {
+            String body = statement.strip();
+            if (body.matches("(?s)CREATE (TABLE IF NOT EXISTS|INDEX IF NOT EXISTS \\w+ ON) (task_closure|task_subtree_counts)\\b.*")) {
+                statements.add(body);
+            }
+        }
+        assertThat(statements).hasSize(3);
+        return statements;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.taskmanager.history;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Payload size of snapshot+delta history versus a full copy per revision, and the
+ * CPU cost of rebuilding a random revision (decode + apply; excludes the DB read).
+ * Run with: mvn -q test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.taskmanager.history.RevisionStorageBenchmark
+ */
+public class RevisionStorageBenchmark {
+
+    private static final int TASKS = 2_000;
+    private static final int REVISIONS = 64;
+    private static final int SNAPSHOT_EVERY = 16;
+
+    public static void main(String[] args) {
+        TaskRevisionCodec codec = new TaskRevisionCodec(new ObjectMapper());
+        SplittableRandom rnd = new SplittableRandom(7);
+
+        long fullBytes = 0;
+        long compactBytes = 0;
+        List<List<String>> histories = new ArrayList<>();
+
+        for (long id = 1; id <= TASKS; id++) {
+            TaskDTO state = new TaskDTO(id, "Task " + id, text(rnd, 300 + rnd.nextInt(700)), TaskStatus.TODO,
+                    TaskPriority.MEDIUM, LocalDate.of(2026, 1, 1), 1L, List.of("1760706849226_spec.pdf"));
+            List<String> payloads = new ArrayList<>();
+            TaskDTO before = null;
+            for (int rev = 1; rev <= REVISIONS; rev++) {
+                if (before != null) state = edit(rnd, state);
+                String full = codec.encode(codec.snapshot(state));
+                String stored = before == null || (rev - 1) % SNAPSHOT_EVERY == 0
+                        ? full
+                        : codec.encode(codec.delta(before, state));
+                fullBytes += full.getBytes(StandardCharsets.UTF_8).length;
+                compactBytes += stored.getBytes(StandardCharsets.UTF_8).length;
+                payloads.add(stored);
+                before = state;
+            }
+            histories.add(payloads);
+        }
+
+        System.out.printf("%,d tasks x %d revisions%n", TASKS, REVISIONS);
+        System.out.printf("  full copy per revision : %,d bytes%n", fullBytes);
+        System.out.printf("  snapshot every %d + deltas: %,d bytes (%.1f%%)%n",
+                SNAPSHOT_EVERY, compactBytes, 100.0 * compactBytes / fullBytes);
+
+        for (int round = 1; round <= 3; round++) {
+            int samples = 200_000;
+            long sink = 0;
+            long t0 = System.nanoTime();
+            for (int i = 0; i < samples; i++) {
+                List<String> payloads = histories.get(rnd.nextInt(TASKS));
+                int rev = 1 + rnd.nextInt(REVISIONS);
+                int base = ((rev - 1) / SNAPSHOT_EVERY) * SNAPSHOT_EVERY + 1;
+                TaskDTO t = null;
+                for (int r = base; r <= rev; r++) {
+                    t = codec.apply(1L, t, codec.decode(payloads.get(r - 1)));
+                }
+                sink += t.title().length();
+            }
+            long ns = System.nanoTime() - t0;
+            System.out.printf("  round %d reconstruct: %.2f us/op (checksum %d)%n", round, ns / 1000.0 / samples, sink);
+        }
+    }
+
+    private static TaskDTO edit(SplittableRandom rnd, TaskDTO t) {
+        return switch (rnd.nextInt(10)) {
+            case 0 -> new TaskDTO(t.id(), t.title(), text(rnd, 300 + rnd.nextInt(700)), t.status(), t.priority(),
+                    t.dueDate(), t.assignedToId(), t.documents());
+            case 1, 2, 3 -> new TaskDTO(t.id(), t.title(), t.description(),
+                    TaskStatus.values()[rnd.nextInt(3)], t.priority(), t.dueDate(), t.assignedToId(), t.documents());
+            case 4, 5 -> new TaskDTO(t.id(), t.title(), t.description(), t.status(),
+                    TaskPriority.values()[rnd.nextInt(3)], t.dueDate(), t.assignedToId(), t.documents());
+            case 6, 7 -> new TaskDTO(t.id(), t.title(), t.description(), t.status(), t.priority(),
+                    t.dueDate().plusDays(1 + rnd.nextInt(5)), t.assignedToId(), t.documents());
+            case 8 -> new TaskDTO(t.id(), t.title(), t.description(), t.status(), t.priority(),
+                    t.dueDate(), 1L + rnd.nextInt(50), t.documents());
+            default -> new TaskDTO(t.id(), t.title() + "!", t.description(), t.status(), t.priority(),
+                    t.dueDate(), t.assignedToId(), t.documents());
+        };
+    }
+
+    private static String text(SplittableRandom rnd, int len) {
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) sb.append((char) ('a' + rnd.nextInt(26)));
+        return sb.toString();
+    }
+}
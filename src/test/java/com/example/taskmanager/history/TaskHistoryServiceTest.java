@@ -0,0 +1,147 @@
+package com.example.taskmanager.history;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.model.RevisionKind;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskRevision;
+import com.example.taskmanager.model.TaskStatus;
+import com.example.taskmanager.repository.TaskRevisionRepository;
+import com.example.taskmanager.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Revisions recorded from task change events and rebuilt from them, with a snapshot every
+ * 4 revisions. task_revisions is an in-memory list behind the repository's derived queries.
+ */
+class TaskHistoryServiceTest {
+
+    private static final long TASK_ID = 11L;
+    private static final Instant T0 = Instant.parse("2026-05-01T09:00:00Z");
+
+    private final List<TaskRevision> rows = new ArrayList<>();
+    private final TaskRevisionRepository repository = mock(TaskRevisionRepository.class);
+    private final Authentication auth = mock(Authentication.class);
+    private final TaskHistoryService history = new TaskHistoryService(repository, mock(TaskService.class),
+            new ObjectMapper(), 4);
+
+    // states.get(n - 1) is the task as of revision n
+    private final List<TaskDTO> states = new ArrayList<>();
+
+    @BeforeEach
+    void backRepositoryWithAList() {
+        when(repository.save(any())).thenAnswer(call -> {
+            rows.add(call.getArgument(0));
+            return call.getArgument(0);
+        });
+        when(repository.findTopByTaskIdOrderByRevisionDesc(anyLong())).thenAnswer(call ->
+                rows.stream().max(Comparator.comparingInt(TaskRevision::getRevision)));
+        when(repository.findTopByTaskIdAndKindAndRevisionLessThanEqualOrderByRevisionDesc(anyLong(), any(), anyInt()))
+                .thenAnswer(call -> rows.stream()
+                        .filter(r -> r.getKind() == call.getArgument(1) && r.getRevision() <= (int) call.getArgument(2))
+                        .max(Comparator.comparingInt(TaskRevision::getRevision)));
+        when(repository.findByTaskIdAndRevisionBetweenOrderByRevision(anyLong(), anyInt(), anyInt()))
+                .thenAnswer(call -> rows.stream()
+                        .filter(r -> r.getRevision() >= (int) call.getArgument(1) && r.getRevision() <= (int) call.getArgument(2))
+                        .sorted(Comparator.comparingInt(TaskRevision::getRevision))
+                        .toList());
+        when(repository.findTopByTaskIdAndCreatedAtLessThanEqualOrderByRevisionDesc(anyLong(), any()))
+                .thenAnswer(call -> rows.stream()
+                        .filter(r -> !r.getCreatedAt().isAfter(call.getArgument(1)))
+                        .max(Comparator.comparingInt(TaskRevision::getRevision)));
+
+        // Revision n is written at T0 + n minutes; the title changes every time
+        TaskDTO state = new TaskDTO(TASK_ID, "v1", "plan", TaskStatus.TODO, TaskPriority.LOW,
+                LocalDate.of(2026, 6, 1), 3L, List.of());
+        record(TaskChangeType.CREATED, null, state);
+        for (int rev = 2; rev <= 9; rev++) {
+            TaskDTO before = state;
+            state = new TaskDTO(TASK_ID, "v" + rev, before.description(),
+                    rev >= 6 ? TaskStatus.IN_PROGRESS : before.status(),
+                    rev == 3 ? TaskPriority.HIGH : before.priority(),
+                    rev == 7 ? null : before.dueDate(),
+                    before.assignedToId(),
+                    rev == 4 ? List.of("brief.pdf") : before.documents());
+            record(TaskChangeType.UPDATED, before, state);
+        }
+    }
+
+    @Test
+    void snapshotsEveryFourRevisionsAndDeltasInBetween() {
+        assertThat(rows).extracting(TaskRevision::getKind).containsExactly(
+                RevisionKind.SNAPSHOT, RevisionKind.DELTA, RevisionKind.DELTA, RevisionKind.DELTA,
+                RevisionKind.SNAPSHOT, RevisionKind.DELTA, RevisionKind.DELTA, RevisionKind.DELTA,
+                RevisionKind.SNAPSHOT);
+    }
+
+    @Test
+    void everyRevisionRebuildsToTheStateThatWasRecorded() {
+        for (int rev = 1; rev <= states.size(); rev++) {
+            assertThat(history.atRevision(auth, TASK_ID, rev)).as("revision %d", rev).isEqualTo(states.get(rev - 1));
+        }
+    }
+
+    @Test
+    void deltasAreAppliedInOrderOnTopOfTheSnapshot() {
+        // Revision 4 = snapshot 1 + deltas 2, 3, 4: the title from 4, the priority from 3, the documents from 4
+        TaskDTO rebuilt = history.atRevision(auth, TASK_ID, 4);
+
+        assertThat(rebuilt.title()).isEqualTo("v4");
+        assertThat(rebuilt.priority()).isEqualTo(TaskPriority.HIGH);
+        assertThat(rebuilt.documents()).containsExactly("brief.pdf");
+    }
+
+    @Test
+    void revisionOnTheSnapshotIntervalNeedsNoDeltas() {
+        assertThat(history.atRevision(auth, TASK_ID, 5)).isEqualTo(states.get(4));
+        verify(repository, never()).findByTaskIdAndRevisionBetweenOrderByRevision(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void asOfBetweenASnapshotAndLaterDeltasStopsAtTheLastRevisionBeforeIt() {
+        // Revision 7 at T0+7m, revision 8 at T0+8m: half way between is still revision 7
+        TaskDTO rebuilt = history.asOf(auth, TASK_ID, T0.plusSeconds(7 * 60 + 30));
+
+        assertThat(rebuilt).isEqualTo(states.get(6));
+        assertThat(rebuilt.dueDate()).isNull();
+        assertThat(rebuilt.status()).isEqualTo(TaskStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void asOfBeforeTheFirstRevisionIsAnError() {
+        assertThatThrownBy(() -> history.asOf(auth, TASK_ID, T0)).hasMessageContaining("No revision");
+    }
+
+    @Test
+    void missingDeltaIsReportedRatherThanSkipped() {
+        rows.removeIf(r -> r.getRevision() == 7);
+        assertThatThrownBy(() -> history.atRevision(auth, TASK_ID, 7)).hasMessage("Revision not found");
+        assertThat(history.atRevision(auth, TASK_ID, 6)).isEqualTo(states.get(5));
+    }
+
+    private void record(TaskChangeType type, TaskDTO before, TaskDTO after) {
+        states.add(after);
+        history.record(new TaskChangedEvent(type, TASK_ID, "alice@example.com", before, after,
+                T0.plusSeconds(states.size() * 60L)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.taskmanager.history;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskRevisionCodecTest {
+
+    private final TaskRevisionCodec codec = new TaskRevisionCodec(new ObjectMapper());
+
+    private final TaskDTO task = new TaskDTO(7L, "Write spec", null, TaskStatus.TODO, TaskPriority.HIGH,
+            LocalDate.of(2026, 3, 1), 42L, List.of("spec.pdf"));
+
+    @Test
+    void snapshotHoldsEveryFieldAndRoundTripsThroughJson() {
+        Map<String, Object> snapshot = codec.decode(codec.encode(codec.snapshot(task)));
+
+        // Nulls are kept: a snapshot is a base state, not a change list
+        assertThat(snapshot).containsOnlyKeys("title", "description", "status", "priority", "dueDate",
+                "assignedToId", "documents");
+        assertThat(codec.apply(7L, null, snapshot)).isEqualTo(task);
+    }
+
+    @Test
+    void deltaHoldsOnlyChangedFieldsIncludingClearedOnes() {
+        TaskDTO after = new TaskDTO(7L, "Write spec", "first draft", TaskStatus.IN_PROGRESS, TaskPriority.HIGH,
+                null, 42L, List.of("spec.pdf"));
+
+        Map<String, Object> delta = codec.decode(codec.encode(codec.delta(task, after)));
+
+        assertThat(delta).containsOnlyKeys("description", "status", "dueDate");
+        assertThat(delta.get("dueDate")).isNull();
+        assertThat(codec.apply(7L, task, delta)).isEqualTo(after);
+    }
+
+    @Test
+    void unchangedTaskGivesAnEmptyDelta() {
+        assertThat(codec.delta(task, task)).isEmpty();
+    }
+
+    @Test
+    void documentsAreCopiedNotShared() {
+        TaskDTO state = codec.apply(7L, null, codec.snapshot(task));
+        TaskDTO next = codec.apply(7L, state, Map.of("documents", List.of("spec.pdf", "notes.pdf")));
+
+        assertThat(state.documents()).containsExactly("spec.pdf");
+        assertThat(next.documents()).containsExactly("spec.pdf", "notes.pdf");
+    }
+}
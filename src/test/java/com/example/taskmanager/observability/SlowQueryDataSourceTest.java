@@ -0,0 +1,101 @@
+package com.example.taskmanager.observability;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The statement and ResultSet wrappers against real Postgres, with every finished
+ * "jdbc.query" observation recorded as "statement -> rows".
+ */
+class SlowQueryDataSourceTest {
+
+    private static final String URL = "jdbc:postgresql://localhost:5432/taskmanager";
+    private static final String SERIES = "SELECT g FROM generate_series(1, 3) g";
+
+    private final List<String> finished = new CopyOnWriteArrayList<>();
+    private SlowQueryDataSource dataSource;
+
+    @BeforeEach
+    void wrapDataSource() {
+        ObservationRegistry observations = ObservationRegistry.create();
+        observations.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+
+            @Override
+            public void onStop(Observation.Context context) {
+                KeyValue rows = context.getHighCardinalityKeyValue("db.rows");
+                finished.add(context.getHighCardinalityKeyValue("db.statement").getValue()
+                        + " -> " + (rows == null ? "?" : rows.getValue()));
+            }
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dataSource = new SlowQueryDataSource(new DriverManagerDataSource(URL, "postgres", "root"),
+                new SlowQueryLog(true, 200, 5, registry), new QueryTracker(true, 0, false, 5, registry), observations);
+    }
+
+    @Test
+    void resultSetHandsOutTheWrappedPreparedStatement() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(SERIES)) {
+            ResultSet rs = ps.executeQuery();
+
+            assertThat(rs.getStatement()).isSameAs(ps);
+            while (rs.next()) {
+                // read every row
+            }
+            assertThat(finished).isEmpty();
+
+            // Cleanup code that only holds the ResultSet closes its statement this way
+            rs.getStatement().close();
+            assertThat(finished).containsExactly(SERIES + " -> 3");
+        }
+    }
+
+    @Test
+    void resultSetFromExecuteHandsOutTheWrappedStatement() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            assertThat(statement.execute(SERIES)).isTrue();
+            ResultSet rs = statement.getResultSet();
+
+            assertThat(rs.getStatement()).isSameAs(statement);
+            assertThat(statement.getResultSet()).isSameAs(rs);
+            rs.next();
+            rs.close();
+            assertThat(finished).containsExactly(SERIES + " -> 1");
+        }
+    }
+
+    @Test
+    void nextQueryOnTheSameStatementFinishesTheOpenOne() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(SERIES)) {
+            ResultSet first = ps.executeQuery();
+            first.next();
+            first.next();
+            ResultSet second = ps.executeQuery();
+
+            assertThat(finished).containsExactly(SERIES + " -> 2");
+            assertThat(second.getStatement()).isSameAs(ps);
+        }
+        assertThat(finished).containsExactly(SERIES + " -> 2", SERIES + " -> 0");
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.taskmanager.observability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keep/drop decisions with a 500 ms slow threshold. Span timestamps are set explicitly, so
+ * a root's latency is whatever the test says; the exporting processor behind the sampler
+ * only records the names of the spans it is handed.
+ */
+class TailSamplingSpanProcessorTest {
+
+    private static final long SLOW_MS = 500;
+    private static final long START_MS = 1_000;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> exported = new CopyOnWriteArrayList<>();
+    private SdkTracerProvider provider;
+    private Tracer tracer;
+
+    @AfterEach
+    void closeProvider() {
+        if (provider != null) provider.close();
+    }
+
+    @Test
+    void slowRootKeepsTheWholeTrace() {
+        sampler(0.0, 100, 50, 60_000);
+
+        Span root = start("GET /api/tasks", null);
+        end(start("jdbc select", root), 20);
+        end(start("jdbc select", root), 30);
+        assertThat(exported).isEmpty();
+
+        end(root, SLOW_MS);
+
+        assertThat(exported).containsExactly("jdbc select", "jdbc select", "GET /api/tasks");
+        assertThat(decisions("kept_slow")).isEqualTo(1);
+    }
+
+    @Test
+    void fastSuccessfulRootDropsTheWholeTrace() {
+        sampler(0.0, 100, 50, 60_000);
+
+        Span root = start("GET /api/tasks", null);
+        end(start("jdbc select", root), 20);
+        end(root, SLOW_MS - 1);
+
+        assertThat(exported).isEmpty();
+        assertThat(decisions("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void anyFailedSpanKeepsAFastTrace() {
+        sampler(0.0, 100, 50, 60_000);
+
+        Span root = start("GET /api/tasks/7", null);
+        Span query = start("jdbc select", root);
+        query.setStatus(StatusCode.ERROR);
+        end(query, 5);
+        end(root, 10);
+
+        assertThat(exported).containsExactly("jdbc select", "GET /api/tasks/7");
+        assertThat(decisions("kept_error")).isEqualTo(1);
+    }
+
+    @Test
+    void serverErrorOutcomeKeepsTheTraceButClientErrorDoesNot() {
+        sampler(0.0, 100, 50, 60_000);
+
+        Span failed = start("POST /api/tasks", null);
+        failed.setAttribute("outcome", "SERVER_ERROR");
+        end(failed, 10);
+        Span rejected = start("POST /api/tasks", null);
+        rejected.setAttribute("outcome", "CLIENT_ERROR");
+        end(rejected, 10);
+
+        assertThat(exported).containsExactly("POST /api/tasks");
+        assertThat(decisions("kept_error")).isEqualTo(1);
+        assertThat(decisions("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void baselineRateKeepsOrdinaryTraces() {
+        sampler(1.0, 100, 50, 60_000);
+        for (int i = 0; i < 5; i++) end(start("GET /api/tasks", null), 10);
+        assertThat(exported).hasSize(5);
+        assertThat(decisions("kept_baseline")).isEqualTo(5);
+
+        closeProvider();
+        exported.clear();
+        sampler(0.0, 100, 50, 60_000);
+        for (int i = 0; i < 5; i++) end(start("GET /api/tasks", null), 10);
+        assertThat(exported).isEmpty();
+    }
+
+    @Test
+    void spansEndingAfterTheirRootFollowItsDecision() {
+        sampler(0.0, 100, 50, 60_000);
+
+        Span slow = start("GET /api/tasks", null);
+        Span slowAsync = start("notify", slow);
+        Span fast = start("GET /api/users", null);
+        Span fastAsync = start("notify", fast);
+        end(slow, SLOW_MS);
+        end(fast, 10);
+
+        end(slowAsync, 20);
+        end(fastAsync, 20);
+
+        assertThat(exported).containsExactly("GET /api/tasks", "notify");
+    }
+
+    @Test
+    void serverSpanWithARemoteParentIsTheLocalRoot() {
+        sampler(0.0, 100, 50, 60_000);
+        SpanContext remote = SpanContext.createFromRemoteParent(
+                "0af7651916cd43dd8448eb211c80319c", "b7ad6b7169203331", TraceFlags.getSampled(), TraceState.getDefault());
+
+        Span server = tracer.spanBuilder("GET /api/tasks")
+                .setParent(Context.root().with(Span.wrap(remote)))
+                .setStartTimestamp(START_MS, TimeUnit.MILLISECONDS)
+                .startSpan();
+        end(start("jdbc select", server), 10);
+        end(server, SLOW_MS);
+
+        assertThat(exported).containsExactly("jdbc select", "GET /api/tasks");
+    }
+
+    @Test
+    void fullBufferRefusesNewTracesUntilStaleOnesAreEvicted() throws InterruptedException {
+        sampler(0.0, 2, 50, 50);
+
+        // Two traces whose roots have not ended fill the buffer
+        Span first = start("GET /first", null);
+        end(start("first child", first), 10);
+        Span second = start("GET /second", null);
+        end(start("second child", second), 10);
+
+        // A third is refused outright, even though its root is slow
+        Span third = start("GET /third", null);
+        end(start("third child", third), 10);
+        end(third, SLOW_MS);
+        assertThat(exported).isEmpty();
+        assertThat(decisions("overflow")).isEqualTo(2);
+
+        // Once the buffered ones time out, they make room
+        Thread.sleep(80);
+        Span fourth = start("GET /fourth", null);
+        end(start("fourth child", fourth), 10);
+        end(fourth, SLOW_MS);
+        assertThat(exported).containsExactly("fourth child", "GET /fourth");
+
+        // An evicted trace's root still gets a decision, but its earlier spans are gone
+        end(first, SLOW_MS);
+        assertThat(exported).containsExactly("fourth child", "GET /fourth", "GET /first");
+    }
+
+    @Test
+    void spansBeyondThePerTraceLimitAreNotBufferedButTheRootIs() {
+        sampler(0.0, 100, 3, 60_000);
+
+        Span root = start("GET /api/tasks", null);
+        for (int i = 1; i <= 4; i++) end(start("jdbc select " + i, root), 10);
+        end(root, SLOW_MS);
+
+        assertThat(exported).containsExactly("jdbc select 1", "jdbc select 2", "jdbc select 3", "GET /api/tasks");
+    }
+
+    private void sampler(double baselineRate, int maxTraces, int maxSpansPerTrace, long traceTimeoutMs) {
+        SpanProcessor exporter = new SpanProcessor() {
+            @Override
+            public void onStart(Context parentContext, ReadWriteSpan span) {
+            }
+
+            @Override
+            public boolean isStartRequired() {
+                return false;
+            }
+
+            @Override
+            public void onEnd(ReadableSpan span) {
+                exported.add(span.getName());
+            }
+
+            @Override
+            public boolean isEndRequired() {
+                return true;
+            }
+        };
+        provider = SdkTracerProvider.builder()
+                .addSpanProcessor(new TailSamplingSpanProcessor(exporter, SLOW_MS, baselineRate, maxTraces,
+                        maxSpansPerTrace, traceTimeoutMs, registry))
+                .build();
+        tracer = provider.get("test");
+    }
+
+    private Span start(String name, Span parent) {
+        return tracer.spanBuilder(name)
+                .setParent(parent == null ? Context.root() : Context.root().with(parent))
+                .setStartTimestamp(START_MS, TimeUnit.MILLISECONDS)
+                .startSpan();
+    }
+
+    // Ends the span 'latencyMs' after the shared start time
+    private void end(Span span, long latencyMs) {
+        span.end(START_MS + latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    private double decisions(String decision) {
+        return registry.get("tracing.tail.decisions").tag("decision", decision).counter().count();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.taskmanager.observability;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/tasks under strict query budgets: a page of tasks must load its documents in
+ * one query (fetched with the ids, or in batches through @BatchSize on Task when the page
+ * comes from the paged entity query), or the tracker fails the request for going over
+ * {@code @QueryBudget(6)} or repeating a shape once per row. The JSON cache and read
+ * coalescing are off so every request reaches Hibernate.
+ * <p>
+ * Runs against the Postgres configured in application.properties.
+ */
+@SpringBootTest(properties = {
+        "app.query-budget.strict=true",
+        "app.task-json-cache.enabled=false",
+        "app.read-coalescing.enabled=false"
+})
+@AutoConfigureMockMvc
+class TaskListQueryBudgetTest {
+
+    private static final int TASKS = 12;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private String token;
+
+    @BeforeEach
+    void createTasks() throws Exception {
+        String email = "budget-" + UUID.randomUUID() + "@example.com";
+        String credentials = objectMapper.writeValueAsString(
+                Map.of("email", email, "password", "secret123", "role", "ADMIN"));
+        mvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(credentials))
+                .andExpect(status().isOk());
+        String login = mvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(credentials))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(login).get("token").asText();
+
+        for (int i = 0; i < TASKS; i++) {
+            mvc.perform(post("/api/tasks")
+                            .header("Authorization", "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"title\":\"budget task " + i + "\",\"priority\":\"HIGH\"}"))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void pageOfTasksStaysWithinItsBudget() throws Exception {
+        assertWithinBudget(false);
+    }
+
+    @Test
+    void pageIncludingArchivedStaysWithinItsBudget() throws Exception {
+        assertWithinBudget(true);
+    }
+
+    private void assertWithinBudget(boolean includeArchived) throws Exception {
+        DistributionSummary statements = registry.summary("db.statements.per.request", "handler", "TaskController.list");
+        long before = statements.count();
+
+        String body = mvc.perform(get("/api/tasks")
+                        .param("size", "20")
+                        .param("sort", "id,desc")
+                        .param("includeArchived", Boolean.toString(includeArchived))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode content = objectMapper.readTree(body).get("content");
+        assertThat(content.size()).isGreaterThanOrEqualTo(TASKS);
+        assertThat(statements.count()).isEqualTo(before + 1);
+        assertThat(statements.max()).isLessThanOrEqualTo(6);
+    }
+}
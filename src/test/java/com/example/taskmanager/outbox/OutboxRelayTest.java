@@ -0,0 +1,258 @@
+package com.example.taskmanager.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OutboxRelay against real Postgres (the ordering relies on xid8 and snapshots), in a
+ * schema of its own built from the outbox DDL in schema.sql, so the application's
+ * outbox and offsets are left alone. Delivery rounds are run on the test thread.
+ */
+class OutboxRelayTest {
+
+    private static final String URL = "jdbc:postgresql://localhost:5432/taskmanager";
+    private static final String SCHEMA = "outbox_relay_test";
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbc;
+
+    private final List<OutboxRelay> relays = new ArrayList<>();
+
+    @BeforeAll
+    static void createSchema() throws IOException {
+        JdbcTemplate admin = new JdbcTemplate(new DriverManagerDataSource(URL, "postgres", "root"));
+        admin.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        admin.execute("CREATE SCHEMA " + SCHEMA);
+
+        dataSource = new DriverManagerDataSource(URL + "?currentSchema=" + SCHEMA, "postgres", "root");
+        jdbc = new JdbcTemplate(dataSource);
+        for (String statement : outboxDdl()) jdbc.execute(statement);
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @BeforeEach
+    void emptyTables() {
+        jdbc.execute("TRUNCATE task_outbox, outbox_consumer_offsets RESTART IDENTITY");
+    }
+
+    @AfterEach
+    void stopRelays() {
+        relays.forEach(OutboxRelay::shutdown);
+    }
+
+    @Test
+    void deliversInCommitOrderAndHoldsBackRowsBehindAnOpenTransaction() throws Exception {
+        InMemoryOutboxSink sink = new InMemoryOutboxSink(100);
+        OutboxRelay relay = relay(sink);
+
+        try (Connection a = transaction(); Connection b = transaction()) {
+            long a1 = insert(a, 1);
+            long b1 = insert(b, 2);
+            long b2 = insert(b, 2);
+            b.commit();
+
+            // B committed, but A started first and may still commit rows that belong before B's
+            relay.relay();
+            assertThat(sink.deliveredCount()).isZero();
+
+            long a2 = insert(a, 1);
+            a.commit();
+            long c1;
+            try (Connection c = transaction()) {
+                c1 = insert(c, 3);
+                c.commit();
+            }
+
+            relayUntilDelivered(relay, sink, 5);
+            assertThat(sink.recent()).extracting(OutboxMessage::id).containsExactly(a1, a2, b1, b2, c1);
+            assertThat(sink.recent()).extracting(OutboxMessage::taskId).containsExactly(1L, 1L, 2L, 2L, 3L);
+        }
+
+        // Nothing is delivered twice
+        relay.relay();
+        assertThat(sink.deliveredCount()).isEqualTo(5);
+    }
+
+    @Test
+    void offsetStaysPutWhenPublishThrows() throws Exception {
+        FlakySink sink = new FlakySink("flaky");
+        OutboxRelay relay = relay(sink);
+        long last = 0;
+        for (int i = 0; i < 3; i++) last = commit(10 + i);
+
+        sink.failing = true;
+        relay.relay();
+        assertThat(sink.attempts).isEqualTo(1);
+        assertThat(sink.delivered).isEmpty();
+        assertThat(offsetEventId("flaky")).isZero();
+
+        sink.failing = false;
+        relayUntilDelivered(relay, sink, 3);
+        assertThat(sink.delivered).extracting(OutboxMessage::taskId).containsExactly(10L, 11L, 12L);
+        assertThat(offsetEventId("flaky")).isEqualTo(last);
+    }
+
+    @Test
+    void prunesOnlyWhatEveryConsumerHasSeen() throws Exception {
+        InMemoryOutboxSink fast = new InMemoryOutboxSink(100);
+        FlakySink slow = new FlakySink("slow");
+        OutboxRelay relay = relay(fast, slow);
+        for (int i = 0; i < 3; i++) commit(20 + i);
+
+        slow.failing = true;
+        relayUntilDelivered(relay, fast, 3);
+        relay.prune();
+        assertThat(outboxRows()).isEqualTo(3);
+
+        slow.failing = false;
+        relayUntilDelivered(relay, slow, 3);
+        commit(23);
+        relay.prune();
+        // The row committed after the last round is not behind any offset yet
+        assertThat(outboxRows()).isEqualTo(1);
+    }
+
+    @Test
+    void pruneDropsRowsOlderThanTheMaximumAgeEvenIfUndelivered() throws Exception {
+        FlakySink broken = new FlakySink("broken");
+        broken.failing = true;
+        OutboxRelay relay = relay(broken);
+        commit(30);
+        jdbc.update("INSERT INTO task_outbox (task_id, type, actor, payload, created_at) VALUES (31, 'UPDATED', 'test', '{}', ?)",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(8))));
+
+        relay.relay();
+        relay.prune();
+
+        assertThat(jdbc.queryForList("SELECT task_id FROM task_outbox", Long.class)).containsExactly(30L);
+    }
+
+    private OutboxRelay relay(OutboxSink... sinks) {
+        for (OutboxSink sink : sinks) {
+            jdbc.update("INSERT INTO outbox_consumer_offsets (consumer, tx_id, event_id) VALUES (?, '0'::xid8, 0)", sink.name());
+        }
+        // Not started: no LISTEN thread and no background rounds, the test calls relay() itself
+        OutboxRelay relay = new OutboxRelay(jdbc, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                dataSource, new SimpleMeterRegistry(), List.of(sinks), true, Set.of(), false, 2, 50, 5000, 168);
+        relays.add(relay);
+        return relay;
+    }
+
+    // Another open transaction anywhere in the cluster also holds rows back, so give it a moment
+    private static void relayUntilDelivered(OutboxRelay relay, InMemoryOutboxSink sink, long count) throws InterruptedException {
+        for (int i = 0; i < 50 && sink.deliveredCount() < count; i++) {
+            relay.relay();
+            if (sink.deliveredCount() < count) Thread.sleep(100);
+        }
+        assertThat(sink.deliveredCount()).isEqualTo(count);
+    }
+
+    private static void relayUntilDelivered(OutboxRelay relay, FlakySink sink, int count) throws InterruptedException {
+        for (int i = 0; i < 50 && sink.delivered.size() < count; i++) {
+            relay.relay();
+            if (sink.delivered.size() < count) Thread.sleep(100);
+        }
+        assertThat(sink.delivered).hasSize(count);
+    }
+
+    private static Connection transaction() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private static long insert(Connection connection, long taskId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO task_outbox (task_id, type, actor, payload) VALUES (?, 'UPDATED', 'test', '{}') RETURNING id")) {
+            ps.setLong(1, taskId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static long commit(long taskId) throws SQLException {
+        try (Connection connection = transaction()) {
+            long id = insert(connection, taskId);
+            connection.commit();
+            return id;
+        }
+    }
+
+    private static long offsetEventId(String consumer) {
+        return jdbc.queryForObject("SELECT event_id FROM outbox_consumer_offsets WHERE consumer = ?", Long.class, consumer);
+    }
+
+    private static long outboxRows() {
+        return jdbc.queryForObject("SELECT count(*) FROM task_outbox", Long.class);
+    }
+
+    // The CREATE statements for task_outbox and outbox_consumer_offsets, as the application runs them
+    private static List<String> outboxDdl() throws IOException {
+        String sql;
+        try (InputStream in = OutboxRelayTest.class.getResourceAsStream("/schema.sql")) {
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : sql.split(";")) {
+            String body = statement.replaceAll("(?m)^\\s*--.*$", "").strip();
+            if (body.matches("(?s)CREATE (TABLE IF NOT EXISTS|INDEX IF NOT EXISTS \\w+ ON) (task_outbox|outbox_consumer_offsets)\\b.*")) {
+                statements.add(body);
+            }
+        }
+        assertThat(statements).hasSize(4);
+        return statements;
+    }
+
+    private static final class FlakySink implements OutboxSink {
+        private final String name;
+        private final List<OutboxMessage> delivered = new ArrayList<>();
+        volatile boolean failing;
+        int attempts;
+
+        FlakySink(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void publish(List<OutboxMessage> batch) {
+            attempts++;
+            if (failing) throw new IllegalStateException("downstream unavailable");
+            delivered.addAll(batch);
+        }
+    }
+}
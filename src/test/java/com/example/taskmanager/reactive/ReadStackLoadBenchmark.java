@@ -0,0 +1,134 @@
+package com.example.taskmanager.reactive;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the blocking (/api/tasks) and reactive (/api/reactive/tasks) read stacks
+ * under N concurrent closed-loop clients: p50/p99 latency, throughput, and the peak
+ * number of Postgres backends in use (sampled from pg_stat_activity).
+ * <p>
+ * Needs a running app with app.reactive-reads.enabled=true and a token:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.example.taskmanager.reactive.ReadStackLoadBenchmark \
+ *   -Dexec.args="--token=eyJ... --clients=5000 --seconds=30"
+ * </pre>
+ */
+public class ReadStackLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        String base = opts.getOrDefault("base", "http://localhost:8080");
+        String token = opts.get("token");
+        int clients = Integer.parseInt(opts.getOrDefault("clients", "5000"));
+        int seconds = Integer.parseInt(opts.getOrDefault("seconds", "30"));
+        String jdbcUrl = opts.getOrDefault("jdbc", "jdbc:postgresql://localhost:5432/taskmanager");
+        String dbUser = opts.getOrDefault("db-user", "postgres");
+        String dbPassword = opts.getOrDefault("db-password", "root");
+        if (token == null) throw new IllegalArgumentException("--token=<JWT> is required");
+
+        for (String[] stack : new String[][]{
+                {"blocking (JDBC)", "/api/tasks?page=0&size=20", "application/json"},
+                {"reactive (R2DBC)", "/api/reactive/tasks?page=0&size=20", "application/x-ndjson"}}) {
+            run(stack[0], URI.create(base + stack[1]), stack[2], token, clients, seconds, jdbcUrl, dbUser, dbPassword);
+        }
+    }
+
+    private static void run(String label, URI uri, String accept, String token, int clients, int seconds,
+                            String jdbcUrl, String dbUser, String dbPassword) throws Exception {
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", accept)
+                .timeout(Duration.ofSeconds(60))
+                .build();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger peakBackends = new AtomicInteger();
+        List<long[]> perClient = new ArrayList<>();
+        int[] counts = new int[clients];
+
+        Thread sampler = Thread.ofPlatform().start(() -> {
+            try (Connection c = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword);
+                 Statement st = c.createStatement()) {
+                while (running.get()) {
+                    try (ResultSet rs = st.executeQuery(
+                            "SELECT count(*) FROM pg_stat_activity WHERE datname = current_database() AND pid <> pg_backend_pid()")) {
+                        rs.next();
+                        peakBackends.accumulateAndGet(rs.getInt(1), Math::max);
+                    }
+                    Thread.sleep(250);
+                }
+            } catch (Exception e) {
+                System.err.println("pg_stat_activity sampling failed: " + e.getMessage());
+            }
+        });
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long[] samples = new long[1 << 16];
+                perClient.add(samples);
+                int client = c;
+                pool.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> res = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (res.statusCode() != 200) errors.incrementAndGet();
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (counts[client] < samples.length) samples[counts[client]++] = System.nanoTime() - t0;
+                    }
+                });
+            }
+        }
+        running.set(false);
+        sampler.join();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int i = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(perClient.get(c), 0, all, i, counts[c]);
+            i += counts[c];
+        }
+        Arrays.sort(all);
+
+        System.out.printf("%-18s requests=%,d errors=%,d rps=%,.0f p50=%.1fms p99=%.1fms peak-db-backends=%d%n",
+                label, total, errors.get(), total / (double) seconds,
+                pct(all, 0.50) / 1e6, pct(all, 0.99) / 1e6, peakBackends.get());
+    }
+
+    private static long pct(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--") || !a.contains("=")) continue;
+            opts.put(a.substring(2, a.indexOf('=')), a.substring(a.indexOf('=') + 1));
+        }
+        return opts;
+    }
+}
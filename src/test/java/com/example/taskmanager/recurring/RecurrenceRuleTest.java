@@ -0,0 +1,64 @@
+package com.example.taskmanager.recurring;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecurrenceRuleTest {
+
+    private static final LocalDate MON = LocalDate.of(2026, 10, 19);
+
+    @Test
+    void weeklyByDayWithInterval() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH");
+        assertThat(rule.between(MON, MON, MON.plusDays(28), null)).containsExactly(
+                MON, MON.plusDays(3), MON.plusDays(14), MON.plusDays(17));
+    }
+
+    @Test
+    void monthlyLastFridayAndNegativeMonthDay() {
+        assertThat(RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=-1FR").between(MON, MON, LocalDate.of(2027, 1, 1), null))
+                .containsExactly(LocalDate.of(2026, 10, 30), LocalDate.of(2026, 11, 27), LocalDate.of(2026, 12, 25));
+        assertThat(RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=-1").between(
+                LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 1), LocalDate.of(2027, 4, 1), null))
+                .containsExactly(LocalDate.of(2027, 1, 31), LocalDate.of(2027, 2, 28), LocalDate.of(2027, 3, 31));
+    }
+
+    @Test
+    void countAndUntilEndTheRule() {
+        RecurrenceRule counted = RecurrenceRule.parse("FREQ=DAILY;COUNT=3");
+        assertThat(counted.count()).isEqualTo(3);
+        assertThat(counted.between(MON, MON, MON.plusDays(10), counted.count())).hasSize(3);
+        assertThat(counted.next(MON, MON, 0)).isNull();
+
+        RecurrenceRule until = RecurrenceRule.parse("FREQ=DAILY;UNTIL=20261021");
+        assertThat(until.between(MON, MON, MON.plusDays(10), null)).containsExactly(MON, MON.plusDays(1), MON.plusDays(2));
+        assertThat(until.next(MON, MON.plusDays(3), null)).isNull();
+    }
+
+    @Test
+    void ruleThatMatchesNothingTerminates() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=YEARLY;BYMONTH=2;BYMONTHDAY=30");
+        assertThat(rule.next(MON, MON, null)).isNull();
+    }
+
+    @Test
+    void consecutiveWindowsDoNotOverlap() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,WE");
+        List<LocalDate> first = rule.between(MON, MON, MON.plusDays(14), null);
+        List<LocalDate> second = rule.between(MON, MON.plusDays(14), MON.plusDays(28), null);
+        assertThat(first).doesNotContainAnyElementsOf(second);
+        assertThat(second).first().isEqualTo(MON.plusDays(14));
+    }
+
+    @Test
+    void rejectsUnsupportedParts() {
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=HOURLY")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=DAILY;INTERVAL=x")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecurrenceRule.parse("INTERVAL=2")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
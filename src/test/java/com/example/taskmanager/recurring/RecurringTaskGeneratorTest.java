@@ -0,0 +1,63 @@
+package com.example.taskmanager.recurring;
+
+import com.example.taskmanager.recurring.RecurringTaskGenerator.Plan;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurringTaskGeneratorTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 10, 19);
+    private static final int LOOKAHEAD = 14;
+
+    // The template row after one run, as ADVANCE_TEMPLATES writes it
+    private static Plan run(RecurrenceRule rule, Plan previous, LocalDate today) {
+        return RecurringTaskGenerator.plan(rule, START, previous.next(), previous.used(), today, today.plusDays(LOOKAHEAD));
+    }
+
+    @Test
+    void countRuleIsNotCutShortByTheNextRun() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;COUNT=3");
+        Plan created = new Plan(null, START, 0);
+
+        Plan first = run(rule, created, START);
+        assertThat(first.dates()).containsExactly(START, START.plusDays(7));
+        assertThat(first.next()).isEqualTo(START.plusDays(14));
+        assertThat(first.used()).isEqualTo(2);
+
+        Plan second = run(rule, first, START.plusDays(1));
+        assertThat(second.dates()).containsExactly(START.plusDays(14));
+        assertThat(second.next()).isNull();
+        assertThat(second.used()).isEqualTo(3);
+    }
+
+    @Test
+    void nextRunDoesNotRecreateEarlierOccurrences() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY");
+        Plan first = run(rule, new Plan(null, START, 0), START);
+        assertThat(first.dates()).hasSize(LOOKAHEAD);
+
+        // Same day again (e.g. a user deleted one of the tasks): nothing new inside the window
+        Plan again = run(rule, first, START);
+        assertThat(again.dates()).isEmpty();
+        assertThat(again.next()).isEqualTo(first.next());
+
+        Plan nextDay = run(rule, again, START.plusDays(1));
+        assertThat(nextDay.dates()).containsExactly(START.plusDays(LOOKAHEAD));
+        assertThat(nextDay.used()).isEqualTo(LOOKAHEAD + 1);
+    }
+
+    @Test
+    void missedOccurrencesUseUpCountWithoutBackfill() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;COUNT=20");
+        Plan first = run(rule, new Plan(null, START, 0), START);
+
+        // Generation was down for 30 days: the rest of the count lies in the past
+        Plan late = run(rule, first, START.plusDays(30));
+        assertThat(late.dates()).isEmpty();
+        assertThat(late.used()).isEqualTo(20);
+        assertThat(late.next()).isNull();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.taskmanager.scheduler;
+
+import java.util.SplittableRandom;
+
+/**
+ * Schedule/cancel/advance cost of {@link TimingWheel} at 1M pending timers.
+ * Run with: mvn -q test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.taskmanager.scheduler.TimingWheelBenchmark
+ */
+public class TimingWheelBenchmark {
+
+    private static final int TIMERS = 1_000_000;
+    private static final long TICK_MS = 60_000;
+    private static final long HORIZON_MS = 14L * 24 * 3_600_000;
+
+    public static void main(String[] args) {
+        for (int round = 1; round <= 3; round++) {
+            System.out.println("round " + round);
+            run();
+        }
+    }
+
+    private static void run() {
+        long start = 0;
+        TimingWheel wheel = new TimingWheel(TICK_MS, 64, start);
+        SplittableRandom rnd = new SplittableRandom(42);
+        long[] deadlines = new long[TIMERS];
+        for (int i = 0; i < TIMERS; i++) deadlines[i] = start + TICK_MS + rnd.nextLong(HORIZON_MS);
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < TIMERS; i++) wheel.schedule(i, deadlines[i]);
+        long scheduleNs = System.nanoTime() - t0;
+
+        // Reschedule half (a due-date edit is cancel + schedule) with the wheel full
+        t0 = System.nanoTime();
+        for (int i = 0; i < TIMERS; i += 2) wheel.schedule(i, deadlines[i] + TICK_MS);
+        long rescheduleNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        for (int i = 1; i < TIMERS; i += 2) wheel.cancel(i);
+        long cancelNs = System.nanoTime() - t0;
+
+        long[] fired = new long[1];
+        t0 = System.nanoTime();
+        wheel.advanceTo(start + HORIZON_MS + 2 * TICK_MS, id -> fired[0]++);
+        long advanceNs = System.nanoTime() - t0;
+
+        System.out.printf("  schedule   %,d timers: %6.1f ns/op%n", TIMERS, (double) scheduleNs / TIMERS);
+        System.out.printf("  reschedule %,d timers: %6.1f ns/op%n", TIMERS / 2, (double) rescheduleNs / (TIMERS / 2));
+        System.out.printf("  cancel     %,d timers: %6.1f ns/op%n", TIMERS / 2, (double) cancelNs / (TIMERS / 2));
+        System.out.printf("  advance 14 days (%,d ticks), fired %,d: %,d ms%n",
+                HORIZON_MS / TICK_MS, fired[0], advanceNs / 1_000_000);
+    }
+}
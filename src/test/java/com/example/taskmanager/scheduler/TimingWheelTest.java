@@ -0,0 +1,119 @@
+package com.example.taskmanager.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A small wheel so cascades happen after a few ticks: 10 ms ticks and 4 buckets, so level 0
+ * covers 40 ms, level 1 160 ms (40 ms ticks) and level 2 640 ms (160 ms ticks).
+ */
+class TimingWheelTest {
+
+    private final TimingWheel wheel = new TimingWheel(10, 4, 0);
+    private final List<Long> fired = new ArrayList<>();
+
+    @Test
+    void firesInTheTickHoldingTheDeadline() {
+        assertThat(wheel.schedule(1, 25)).isTrue();
+
+        advanceTo(19);
+        assertThat(fired).isEmpty();
+        assertThat(wheel.contains(1)).isTrue();
+
+        advanceTo(20);
+        assertThat(fired).containsExactly(1L);
+        assertThat(wheel.contains(1)).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void firesInDeadlineOrderAcrossOneAdvance() {
+        wheel.schedule(3, 35);
+        wheel.schedule(1, 12);
+        wheel.schedule(2, 27);
+
+        advanceTo(39);
+
+        assertThat(fired).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void cancelledTimerNeverFires() {
+        wheel.schedule(1, 50);
+        wheel.schedule(2, 55);
+
+        assertThat(wheel.cancel(1)).isTrue();
+        assertThat(wheel.cancel(1)).isFalse();
+        advanceTo(100);
+
+        assertThat(fired).containsExactly(2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesFromHigherLevelsIntoLevelZero() {
+        // Level 1 (100 ms) and level 3 (1 s): both must be re-filed down to level 0 before firing
+        wheel.schedule(1, 100);
+        wheel.schedule(2, 1_000);
+
+        advanceTo(99);
+        assertThat(fired).isEmpty();
+        advanceTo(100);
+        assertThat(fired).containsExactly(1L);
+
+        advanceTo(999);
+        assertThat(fired).containsExactly(1L);
+        advanceTo(1_000);
+        assertThat(fired).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void pastOrCurrentTickDeadlineIsRefusedForTheCallerToFire() {
+        advanceTo(30);
+
+        assertThat(wheel.schedule(1, 5)).isFalse();
+        assertThat(wheel.schedule(2, 39)).isFalse();
+        assertThat(wheel.schedule(3, 40)).isTrue();
+        assertThat(wheel.contains(1)).isFalse();
+        assertThat(wheel.contains(2)).isFalse();
+
+        // A refused reschedule also drops the pending timer it replaces
+        wheel.schedule(4, 200);
+        assertThat(wheel.schedule(4, 10)).isFalse();
+        assertThat(wheel.contains(4)).isFalse();
+    }
+
+    @Test
+    void rescheduleMovesTheDeadline() {
+        wheel.schedule(1, 50);
+        wheel.schedule(1, 120);
+        assertThat(wheel.size()).isEqualTo(1);
+
+        advanceTo(60);
+        assertThat(fired).isEmpty();
+        advanceTo(120);
+        assertThat(fired).containsExactly(1L);
+
+        // Earlier again: fires at the new deadline, once
+        wheel.schedule(2, 400);
+        wheel.schedule(2, 150);
+        advanceTo(500);
+        assertThat(fired).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void clockOnlyMovesInWholeTicks() {
+        advanceTo(37);
+        assertThat(wheel.currentTime()).isEqualTo(30);
+        advanceTo(20);
+        assertThat(wheel.currentTime()).isEqualTo(30);
+    }
+
+    private void advanceTo(long now) {
+        wheel.advanceTo(now, fired::add);
+    }
+}
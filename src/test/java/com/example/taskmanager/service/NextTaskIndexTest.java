@@ -0,0 +1,250 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * NextTaskIndex against real Postgres, in a schema of its own with stand-in tasks and
+ * task_documents tables holding the columns the load query reads.
+ */
+class NextTaskIndexTest {
+
+    private static final String URL = "jdbc:postgresql://localhost:5432/taskmanager";
+    private static final String SCHEMA = "next_task_index_test";
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbc;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Runs once, inside the next load, after its queue is in place and before the query reads the rows
+    private Runnable duringLoad;
+    private int loads;
+
+    @BeforeAll
+    static void createSchema() {
+        JdbcTemplate admin = new JdbcTemplate(new DriverManagerDataSource(URL, "postgres", "root"));
+        admin.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        admin.execute("CREATE SCHEMA " + SCHEMA);
+
+        dataSource = new DriverManagerDataSource(URL + "?currentSchema=" + SCHEMA, "postgres", "root");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE tasks (id BIGINT PRIMARY KEY, title VARCHAR(255), description VARCHAR(1000), "
+                + "status VARCHAR(32), priority VARCHAR(32), due_date DATE, assigned_to_id BIGINT)");
+        jdbc.execute("CREATE TABLE task_documents (task_id BIGINT NOT NULL, documents VARCHAR(255))");
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @BeforeEach
+    void clearTables() {
+        jdbc.execute("TRUNCATE tasks, task_documents");
+    }
+
+    @Test
+    void highPriorityFirstThenSoonestDueThenOldest() {
+        insert(1, "low, due today", TaskStatus.TODO, TaskPriority.LOW, TODAY, 7L);
+        insert(2, "high, no due date", TaskStatus.TODO, TaskPriority.HIGH, null, 7L);
+        insert(3, "high, due next week", TaskStatus.IN_PROGRESS, TaskPriority.HIGH, TODAY.plusDays(7), 7L);
+        insert(4, "high, due tomorrow", TaskStatus.TODO, TaskPriority.HIGH, TODAY.plusDays(1), 7L);
+        insert(5, "medium, due tomorrow", TaskStatus.TODO, TaskPriority.MEDIUM, TODAY.plusDays(1), 7L);
+        insert(6, "high, due tomorrow, newer", TaskStatus.TODO, TaskPriority.HIGH, TODAY.plusDays(1), 7L);
+        insert(7, "no priority counts as medium", TaskStatus.TODO, null, TODAY, 7L);
+        insert(8, "done", TaskStatus.DONE, TaskPriority.HIGH, TODAY, 7L);
+        insert(9, "no status is still open", null, TaskPriority.LOW, null, 7L);
+        insert(10, "someone else's", TaskStatus.TODO, TaskPriority.HIGH, TODAY, 8L);
+        jdbc.update("INSERT INTO task_documents (task_id, documents) VALUES (4, 'spec.pdf'), (4, 'notes.txt')");
+
+        NextTaskIndex index = index(60_000, 60_000, 100);
+
+        assertThat(ids(index.next(7, 100))).containsExactly(4L, 6L, 3L, 2L, 7L, 5L, 1L, 9L);
+        assertThat(ids(index.next(7, 3))).containsExactly(4L, 6L, 3L);
+        assertThat(index.next(7, 1).get(0).documents()).containsExactlyInAnyOrder("spec.pdf", "notes.txt");
+        assertThat(index.next(7, 100).get(7).status()).isNull();
+        assertThat(loads).isEqualTo(1);
+        assertThat(gauge("tasks.next.tasks")).isEqualTo(8);
+    }
+
+    @Test
+    void limitOutsideOneToAHundredIsRejected() {
+        NextTaskIndex index = index(60_000, 60_000, 100);
+
+        assertThatThrownBy(() -> index.next(7, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.next(7, 101)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(loads).isZero();
+    }
+
+    @Test
+    void committedChangesReorderMoveAndRemoveTasks() {
+        insert(1, "first", TaskStatus.TODO, TaskPriority.LOW, null, 7L);
+        insert(2, "second", TaskStatus.TODO, TaskPriority.MEDIUM, null, 7L);
+        insert(3, "theirs", TaskStatus.TODO, TaskPriority.HIGH, null, 8L);
+        NextTaskIndex index = index(60_000, 60_000, 100);
+        index.next(7, 10);
+        index.next(8, 10);
+
+        // Raised above the other, moved to user 8, finished
+        changed(index, 1, task(1, TaskStatus.TODO, TaskPriority.LOW, 7L), task(1, TaskStatus.TODO, TaskPriority.HIGH, 7L));
+        assertThat(ids(index.next(7, 10))).containsExactly(1L, 2L);
+        changed(index, 2, task(2, TaskStatus.TODO, TaskPriority.MEDIUM, 7L), task(2, TaskStatus.TODO, TaskPriority.MEDIUM, 8L));
+        assertThat(ids(index.next(7, 10))).containsExactly(1L);
+        assertThat(ids(index.next(8, 10))).containsExactly(3L, 2L);
+        changed(index, 3, task(3, TaskStatus.TODO, TaskPriority.HIGH, 8L), task(3, TaskStatus.DONE, TaskPriority.HIGH, 8L));
+        assertThat(ids(index.next(8, 10))).containsExactly(2L);
+
+        // Reopened, and a task created for a user whose queue is resident
+        changed(index, 3, task(3, TaskStatus.DONE, TaskPriority.HIGH, 8L), task(3, TaskStatus.IN_PROGRESS, TaskPriority.HIGH, 8L));
+        index.onTaskChanged(new TaskChangedEvent(TaskChangeType.CREATED, 4L, "test", null,
+                task(4, TaskStatus.TODO, TaskPriority.LOW, 7L), Instant.now()));
+        assertThat(ids(index.next(8, 10))).containsExactly(3L, 2L);
+        assertThat(ids(index.next(7, 10))).containsExactly(1L, 4L);
+        assertThat(loads).isEqualTo(2);
+        assertThat(gauge("tasks.next.tasks")).isEqualTo(4);
+    }
+
+    @Test
+    void changesCommittedDuringTheLoadWinOverTheRowsItRead() {
+        insert(1, "raised while loading", TaskStatus.TODO, TaskPriority.LOW, null, 7L);
+        insert(2, "finished while loading", TaskStatus.TODO, TaskPriority.HIGH, null, 7L);
+        insert(3, "untouched", TaskStatus.TODO, TaskPriority.MEDIUM, null, 7L);
+        NextTaskIndex index = index(60_000, 60_000, 100);
+
+        // The query still reads the rows as they were before these commits
+        duringLoad = () -> {
+            changed(index, 1, task(1, TaskStatus.TODO, TaskPriority.LOW, 7L), task(1, TaskStatus.TODO, TaskPriority.HIGH, 7L));
+            changed(index, 2, task(2, TaskStatus.TODO, TaskPriority.HIGH, 7L), task(2, TaskStatus.DONE, TaskPriority.HIGH, 7L));
+            index.onTaskChanged(new TaskChangedEvent(TaskChangeType.CREATED, 4L, "test", null,
+                    task(4, TaskStatus.TODO, TaskPriority.LOW, 7L), Instant.now()));
+        };
+        List<TaskDTO> next = index.next(7, 10);
+
+        assertThat(ids(next)).containsExactly(1L, 3L, 4L);
+        assertThat(next.get(0).priority()).isEqualTo(TaskPriority.HIGH);
+        assertThat(gauge("tasks.next.tasks")).isEqualTo(3);
+
+        // Once loaded, a later change to a row the load skipped is applied as usual
+        changed(index, 2, task(2, TaskStatus.DONE, TaskPriority.HIGH, 7L), task(2, TaskStatus.TODO, TaskPriority.HIGH, 7L));
+        assertThat(ids(index.next(7, 10))).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void idleQueuesAreDroppedAndReloadedOnTheNextRequest() throws InterruptedException {
+        insert(1, "open", TaskStatus.TODO, TaskPriority.LOW, null, 7L);
+        NextTaskIndex index = index(60_000, 50, 100);
+        index.next(7, 10);
+
+        index.evictIdle();
+        assertThat(gauge("tasks.next.users")).isEqualTo(1);
+
+        Thread.sleep(80);
+        index.evictIdle();
+        assertThat(gauge("tasks.next.users")).isZero();
+        assertThat(gauge("tasks.next.tasks")).isZero();
+
+        // Another node's write, only seen by a fresh load
+        insert(2, "added elsewhere", TaskStatus.TODO, TaskPriority.HIGH, null, 7L);
+        assertThat(ids(index.next(7, 10))).containsExactly(2L, 1L);
+        assertThat(loads).isEqualTo(2);
+    }
+
+    @Test
+    void queuesOlderThanMaxAgeAreReloaded() throws InterruptedException {
+        insert(1, "open", TaskStatus.TODO, TaskPriority.LOW, null, 7L);
+        NextTaskIndex index = index(50, 60_000, 100);
+        index.next(7, 10);
+
+        insert(2, "added elsewhere", TaskStatus.TODO, TaskPriority.HIGH, null, 7L);
+        assertThat(ids(index.next(7, 10))).containsExactly(1L);
+
+        Thread.sleep(80);
+        assertThat(ids(index.next(7, 10))).containsExactly(2L, 1L);
+        assertThat(loads).isEqualTo(2);
+        assertThat(gauge("tasks.next.tasks")).isEqualTo(2);
+    }
+
+    @Test
+    void beyondMaxUsersTheLeastRecentlyUsedQueueIsDropped() throws InterruptedException {
+        insert(1, "user 7's", TaskStatus.TODO, TaskPriority.LOW, null, 7L);
+        insert(2, "user 8's", TaskStatus.TODO, TaskPriority.LOW, null, 8L);
+        insert(3, "user 9's", TaskStatus.TODO, TaskPriority.LOW, null, 9L);
+        NextTaskIndex index = index(60_000, 60_000, 2);
+
+        index.next(7, 10);
+        Thread.sleep(5);
+        index.next(8, 10);
+        Thread.sleep(5);
+        index.next(7, 10);
+        Thread.sleep(5);
+        index.next(9, 10);
+
+        assertThat(gauge("tasks.next.users")).isEqualTo(2);
+        assertThat(gauge("tasks.next.tasks")).isEqualTo(2);
+        assertThat(loads).isEqualTo(3);
+
+        // 7 and 9 are still resident, 8 loads again
+        index.next(7, 10);
+        index.next(9, 10);
+        assertThat(loads).isEqualTo(3);
+        index.next(8, 10);
+        assertThat(loads).isEqualTo(4);
+    }
+
+    private NextTaskIndex index(long maxAgeMs, long idleMs, int maxUsers) {
+        JdbcTemplate counting = new JdbcTemplate(dataSource) {
+            @Override
+            public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+                loads++;
+                Runnable hook = duringLoad;
+                duringLoad = null;
+                if (hook != null) hook.run();
+                return super.query(sql, rowMapper, args);
+            }
+        };
+        return new NextTaskIndex(counting, mock(TaskService.class), registry, maxAgeMs, idleMs, maxUsers);
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    private static void changed(NextTaskIndex index, long id, TaskDTO before, TaskDTO after) {
+        index.onTaskChanged(new TaskChangedEvent(TaskChangeType.UPDATED, id, "test", before, after, Instant.now()));
+    }
+
+    private static List<Long> ids(List<TaskDTO> tasks) {
+        return tasks.stream().map(TaskDTO::id).toList();
+    }
+
+    private static void insert(long id, String title, TaskStatus status, TaskPriority priority, LocalDate due,
+                               Long assigneeId) {
+        jdbc.update("INSERT INTO tasks (id, title, status, priority, due_date, assigned_to_id) VALUES (?, ?, ?, ?, ?, ?)",
+                id, title, status == null ? null : status.name(), priority == null ? null : priority.name(),
+                due, assigneeId);
+    }
+
+    private static TaskDTO task(long id, TaskStatus status, TaskPriority priority, Long assigneeId) {
+        return new TaskDTO(id, "task " + id, null, status, priority, null, assigneeId, List.of());
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.model.Role;
+import com.example.taskmanager.security.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadCoalescerTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ReadCoalescer coalescer = new ReadCoalescer(true, 0, 10_000, registry);
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalReadsShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object page = new Object();
+
+        Future<Object> leader = read("admin", "list|0|20", blockingLoader(loads, release, page));
+        awaitInflight(1);
+        List<Future<Object>> followers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) followers.add(read("admin", "list|0|20", () -> {
+            loads.incrementAndGet();
+            return new Object();
+        }));
+        awaitCount("joined", 8);
+
+        release.countDown();
+        assertThat(leader.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isSameAs(page);
+        for (Future<Object> follower : followers) {
+            assertThat(follower.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isSameAs(page);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(count("executed")).isEqualTo(1);
+    }
+
+    @Test
+    void adminsShareAScopeAndOtherUsersGetTheirOwn() {
+        assertThat(coalescer.scope(user(1L, Role.ADMIN))).isEqualTo(coalescer.scope(user(2L, Role.ADMIN))).isEqualTo("admin");
+        assertThat(coalescer.scope(user(3L, Role.USER))).isEqualTo("user:3");
+        assertThat(coalescer.scope(user(4L, Role.USER))).isEqualTo("user:4");
+    }
+
+    @Test
+    void callersInDifferentScopesNeverShareALoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Object> admin = read(coalescer.scope(user(1L, Role.ADMIN)), "get|5|false",
+                blockingLoader(loads, release, "admin view"));
+        awaitInflight(1);
+
+        // While the admin read is running, users asking the same question load on their own
+        Future<Object> own = read(coalescer.scope(user(3L, Role.USER)), "get|5|false", () -> {
+            loads.incrementAndGet();
+            return "user 3 view";
+        });
+        Future<Object> other = read(coalescer.scope(user(4L, Role.USER)), "get|5|false", () -> {
+            loads.incrementAndGet();
+            return "user 4 view";
+        });
+        assertThat(own.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("user 3 view");
+        assertThat(other.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("user 4 view");
+
+        release.countDown();
+        assertThat(admin.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("admin view");
+        assertThat(loads).hasValue(3);
+        assertThat(count("joined")).isZero();
+    }
+
+    @Test
+    void readsAfterACommittedChangeDoNotJoinTheLoadStartedBeforeIt() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Object> stale = read("admin", "get|5|false", blockingLoader(loads, release, "before"));
+        awaitInflight(1);
+
+        coalescer.onTaskChanged(new TaskChangedEvent(TaskChangeType.UPDATED, 5L, "bob@example.com", null, null, Instant.now()));
+        Future<Object> fresh = read("admin", "get|5|false", () -> {
+            loads.incrementAndGet();
+            return "after";
+        });
+        waitFor(() -> fresh.isDone() || count("joined") > 0);
+
+        release.countDown();
+        assertThat(fresh.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("after");
+        assertThat(stale.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("before");
+        assertThat(loads).hasValue(2);
+        assertThat(count("joined")).isZero();
+    }
+
+    @Test
+    void aFailedLoadFailsItsFollowersAndIsNotReused() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = read("admin", "get|9|false", () -> {
+            await(release);
+            throw new IllegalStateException("database unavailable");
+        });
+        awaitInflight(1);
+        Future<Object> follower = read("admin", "get|9|false", Object::new);
+        awaitCount("joined", 1);
+
+        release.countDown();
+        assertThatThrownBy(() -> leader.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).hasRootCauseMessage("database unavailable");
+        assertThatThrownBy(() -> follower.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).hasRootCauseMessage("database unavailable");
+        assertThat(coalescer.execute("admin", "get|9|false", () -> "retried")).isEqualTo("retried");
+    }
+
+    private Future<Object> read(String scope, String key, Supplier<Object> loader) {
+        return pool.submit(() -> coalescer.execute(scope, key, loader));
+    }
+
+    private static Supplier<Object> blockingLoader(AtomicInteger loads, CountDownLatch release, Object value) {
+        return () -> {
+            loads.incrementAndGet();
+            await(release);
+            return value;
+        };
+    }
+
+    private void awaitInflight(int flights) throws InterruptedException {
+        waitFor(() -> registry.get("tasks.read.coalescing.inflight").gauge().value() >= flights);
+    }
+
+    private void awaitCount(String result, long count) throws InterruptedException {
+        waitFor(() -> count(result) >= count);
+    }
+
+    private double count(String result) {
+        return registry.get("tasks.read.coalescing").tag("result", result).functionCounter().count();
+    }
+
+    private static void waitFor(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.get()) {
+            if (System.nanoTime() > deadline) throw new AssertionError("timed out waiting");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) throw new IllegalStateException("never released");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Authentication user(long id, Role role) {
+        return new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(id, "user" + id + "@example.com", "", role), null);
+    }
+}
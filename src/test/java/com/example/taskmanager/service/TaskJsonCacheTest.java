@@ -0,0 +1,240 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.model.Role;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskStatus;
+import com.example.taskmanager.security.AuthenticatedUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskJsonCacheTest {
+
+    private static final Authentication ADMIN = caller(1L, Role.ADMIN);
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void ringWrapOverwritesTheOldestEntriesWithoutCorruptingAny() throws Exception {
+        // A task here is 150-200 bytes of JSON, so 1 KiB holds the last few and wraps many times
+        TaskJsonCache cache = cache(1024);
+        AtomicInteger loads = new AtomicInteger();
+        for (long id = 1; id <= 40; id++) cache.get(ADMIN, id, true, counting(loads, task(id)));
+        assertThat(loads).hasValue(40);
+
+        // Not cacheable: reading back must not store anything and shift the ring again
+        loads.set(0);
+        List<Long> hits = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            int before = loads.get();
+            byte[] json = cache.get(ADMIN, id, false, counting(loads, task(id)));
+            assertThat(json).as("task %d", id).isEqualTo(objectMapper.writeValueAsBytes(task(id)));
+            if (loads.get() == before) hits.add(id);
+        }
+
+        assertThat(hits).isNotEmpty().contains(40L).doesNotContain(1L);
+        // What survived is the newest run of entries
+        assertThat(hits).containsExactlyElementsOf(range(hits.get(0), 40));
+        assertThat(hits.size() * 150).isLessThanOrEqualTo(1024);
+    }
+
+    @Test
+    void readersRacingOverwritesNeverSeeTornBytes() throws Exception {
+        // Far more tasks than fit, so most requests store and overwrite what others are copying
+        TaskJsonCache cache = cache(2048);
+        int tasks = 200;
+        byte[][] expected = new byte[tasks + 1][];
+        for (int id = 1; id <= tasks; id++) expected[id] = objectMapper.writeValueAsBytes(task(id));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> workers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                long seed = w;
+                workers.add(pool.submit(() -> {
+                    SplittableRandom rnd = new SplittableRandom(seed);
+                    int mismatches = 0;
+                    for (int i = 0; i < 50_000; i++) {
+                        long id = 1 + rnd.nextInt(tasks);
+                        byte[] json = cache.get(ADMIN, id, true, () -> task(id));
+                        if (!Arrays.equals(json, expected[(int) id])) mismatches++;
+                    }
+                    return mismatches;
+                }));
+            }
+            for (Future<Integer> worker : workers) assertThat(worker.get(60, TimeUnit.SECONDS)).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void aChangeCommittedWhileLoadingKeepsTheLoadedJsonOutOfTheCache() throws Exception {
+        TaskJsonCache cache = cache(64 * 1024);
+        AtomicInteger loads = new AtomicInteger();
+
+        byte[] stale = cache.get(ADMIN, 7, true, () -> {
+            loads.incrementAndGet();
+            TaskDTO loaded = task(7, "before", 2L);
+            // The write commits after the load took its version and before the result is stored
+            cache.onTaskChanged(changed(7));
+            return loaded;
+        });
+        byte[] fresh = cache.get(ADMIN, 7, true, counting(loads, task(7, "after", 2L)));
+
+        assertThat(text(stale)).contains("before");
+        assertThat(text(fresh)).contains("after");
+        assertThat(loads).hasValue(2);
+
+        // The fresh load was cached
+        assertThat(cache.get(ADMIN, 7, true, counting(loads, task(7, "unused", 2L)))).isEqualTo(fresh);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void aChangeAfterStoringTurnsTheEntryIntoAMiss() throws Exception {
+        TaskJsonCache cache = cache(64 * 1024);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(ADMIN, 7, true, counting(loads, task(7, "before", 2L)));
+
+        cache.onTaskChanged(changed(7));
+
+        assertThat(text(cache.get(ADMIN, 7, true, counting(loads, task(7, "after", 2L))))).contains("after");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void cachedEntryIsOnlyServedToAdminsAndTheAssignee() {
+        TaskJsonCache cache = cache(64 * 1024);
+        AtomicInteger loads = new AtomicInteger();
+        Authentication assignee = caller(5L, Role.USER);
+        cache.get(assignee, 9, true, counting(loads, task(9, "mine", 5L)));
+
+        cache.get(assignee, 9, true, counting(loads, task(9, "unused", 5L)));
+        cache.get(caller(2L, Role.ADMIN), 9, true, counting(loads, task(9, "unused", 5L)));
+        assertThat(loads).hasValue(1);
+
+        // Anyone else goes to the loader, which runs the real access check
+        assertThatThrownBy(() -> cache.get(caller(6L, Role.USER), 9, true, () -> {
+            throw new RuntimeException("Unauthorized access");
+        })).hasMessage("Unauthorized access");
+    }
+
+    @Test
+    void pageIsTheSameJsonAsAPageOfTasks() throws Exception {
+        TaskJsonCache cache = cache(64 * 1024);
+        PageRequest pageable = PageRequest.of(0, 4);
+        Page<Long> ids = new PageImpl<>(List.of(3L, 1L, 5L, 2L), pageable, 12);
+        String expected = objectMapper.writeValueAsString(
+                new PageImpl<>(List.of(task(3), task(1), task(5), task(2)), pageable, 12));
+        AtomicInteger loaded = new AtomicInteger();
+
+        // All misses, loaded in another order than the page's
+        assertThat(json(cache.page(ids, missing -> load(loaded, missing)))).isEqualTo(json(expected));
+        assertThat(loaded).hasValue(4);
+
+        // All hits
+        assertThat(json(cache.page(ids, missing -> load(loaded, missing)))).isEqualTo(json(expected));
+        assertThat(loaded).hasValue(4);
+
+        // Mixed
+        cache.onTaskChanged(changed(5));
+        assertThat(json(cache.page(ids, missing -> load(loaded, missing)))).isEqualTo(json(expected));
+        assertThat(loaded).hasValue(5);
+    }
+
+    @Test
+    void pageLeavesOutTasksDeletedBeforeTheLoad() throws Exception {
+        TaskJsonCache cache = cache(64 * 1024);
+        PageRequest pageable = PageRequest.of(0, 3);
+        Page<Long> ids = new PageImpl<>(List.of(1L, 2L, 3L), pageable, 3);
+
+        Page<RawJson> page = cache.page(ids, missing -> List.of(task(1), task(3)));
+
+        assertThat(json(page)).isEqualTo(json(objectMapper.writeValueAsString(
+                new PageImpl<>(List.of(task(1), task(3)), pageable, 3))));
+    }
+
+    private TaskJsonCache cache(int budgetBytes) {
+        return new TaskJsonCache(objectMapper, new SimpleMeterRegistry(), true, budgetBytes, 1024, 60_000);
+    }
+
+    private static List<TaskDTO> load(AtomicInteger loaded, Collection<Long> ids) {
+        List<TaskDTO> tasks = new ArrayList<>();
+        for (Long id : ids) tasks.add(task(id));
+        loaded.addAndGet(tasks.size());
+        return tasks.reversed();
+    }
+
+    private Object json(Object value) throws Exception {
+        String text = value instanceof String s ? s : objectMapper.writeValueAsString(value);
+        return objectMapper.readTree(text);
+    }
+
+    private static Supplier<TaskDTO> counting(AtomicInteger loads, TaskDTO task) {
+        return () -> {
+            loads.incrementAndGet();
+            return task;
+        };
+    }
+
+    private static List<Long> range(long from, long to) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = from; id <= to; id++) ids.add(id);
+        return ids;
+    }
+
+    private static String text(byte[] json) {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+
+    // Titles of different lengths, so entries do not line up with the end of the ring
+    private static TaskDTO task(long id) {
+        return task(id, "task " + id + " " + "x".repeat((int) (id * 7 % 40)), 2L);
+    }
+
+    private static TaskDTO task(long id, String title, Long assigneeId) {
+        return new TaskDTO(id, title, "description of task " + id, TaskStatus.TODO, TaskPriority.MEDIUM,
+                LocalDate.of(2026, 7, 1), assigneeId, List.of("spec-" + id + ".pdf"));
+    }
+
+    private static TaskChangedEvent changed(long id) {
+        return new TaskChangedEvent(TaskChangeType.UPDATED, id, "test", null, null, Instant.now());
+    }
+
+    private static Authentication caller(long id, Role role) {
+        return new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(id, "user" + id + "@example.com", "", role), null);
+    }
+}
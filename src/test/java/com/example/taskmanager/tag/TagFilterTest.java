@@ -0,0 +1,80 @@
+package com.example.taskmanager.tag;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TagFilterTest {
+
+    @Test
+    void parsesRequiredAlternativesAndExcludedTerms() {
+        TagFilter filter = TagFilter.parse("backend,urgent|critical,-blocked");
+
+        assertThat(filter.required()).containsExactly(Set.of("backend"), Set.of("urgent", "critical"));
+        assertThat(filter.excluded()).containsExactly(Set.of("blocked"));
+    }
+
+    @Test
+    void acceptsSpacesAndBangAsSeparatorAndNegation() {
+        TagFilter filter = TagFilter.parse("  backend  !blocked , ,!wontfix|duplicate ");
+
+        assertThat(filter.required()).containsExactly(Set.of("backend"));
+        assertThat(filter.excluded()).containsExactly(Set.of("blocked"), Set.of("wontfix", "duplicate"));
+    }
+
+    @Test
+    void onlyExcludedTermsIsAValidFilter() {
+        TagFilter filter = TagFilter.parse("-blocked");
+
+        assertThat(filter.required()).isEmpty();
+        assertThat(filter.excluded()).containsExactly(Set.of("blocked"));
+    }
+
+    @Test
+    void tagsAreNormalizedToLowerCase() {
+        assertThat(TagFilter.parse("Backend,URGENT|Critical").required())
+                .containsExactly(Set.of("backend"), Set.of("urgent", "critical"));
+        assertThat(TagFilter.normalize("  Release-2.1_rc ")).isEqualTo("release-2.1_rc");
+        assertThat(TagFilter.normalize("a".repeat(64))).hasSize(64);
+    }
+
+    @Test
+    void invalidTagsAreRejected() {
+        for (String tag : List.of("", "   ", "_private", ".hidden", "-dash", "has space", "ünïcode", "semi;colon",
+                "a".repeat(65))) {
+            assertThatThrownBy(() -> TagFilter.normalize(tag)).as("'%s'", tag)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageStartingWith("Invalid tag");
+        }
+        assertThatThrownBy(() -> TagFilter.normalize(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptyAlternativesAndBareNegationsAreRejected() {
+        assertThatThrownBy(() -> TagFilter.parse("urgent||critical")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TagFilter.parse("backend,-")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TagFilter.parse("backend,!")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptyFilterIsRejected() {
+        assertThatThrownBy(() -> TagFilter.parse(" , ,"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Empty tag filter");
+    }
+
+    @Test
+    void atMostTwentyTermsCountingExcludedOnes() {
+        String twenty = String.join(",", Collections.nCopies(10, "a")) + "," + String.join(",", Collections.nCopies(10, "-b"));
+        assertThat(TagFilter.parse(twenty).required()).hasSize(10);
+
+        assertThatThrownBy(() -> TagFilter.parse(twenty + ",c"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At most 20 tag terms per filter");
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.taskmanager.tag;
+
+import com.example.taskmanager.dto.TaskDTO;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.event.TaskTagsChangedEvent;
+import com.example.taskmanager.model.TaskPriority;
+import com.example.taskmanager.model.TaskStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * TaskTagIndex against real Postgres, in a schema of its own with stand-in tasks and
+ * task_tags tables holding the columns the index reads. The tasks loaded before each test:
+ * <pre>
+ *   id  title    status       priority  assignee  tags
+ *   1   delta    TODO         HIGH      7         backend, urgent
+ *   2   alpha    TODO         LOW       7         backend, blocked
+ *   3   charlie  IN_PROGRESS  HIGH      -         backend, critical
+ *   4   bravo    DONE         MEDIUM    8         frontend, urgent
+ *   5   echo     TODO         MEDIUM    -         frontend
+ *   6   foxtrot  TODO         HIGH      8         backend
+ * </pre>
+ */
+class TaskTagIndexTest {
+
+    private static final String URL = "jdbc:postgresql://localhost:5432/taskmanager";
+    private static final String SCHEMA = "task_tag_index_test";
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbc;
+
+    // Runs once, inside the next refresh, after it has read the version and before it reads the tables
+    private Runnable duringRefresh;
+    private final TaskTagIndex index = new TaskTagIndex(new JdbcTemplate(dataSource) {
+        @Override
+        public void query(String sql, RowCallbackHandler rch) {
+            Runnable hook = duringRefresh;
+            duringRefresh = null;
+            if (hook != null) hook.run();
+            super.query(sql, rch);
+        }
+    }, new SimpleMeterRegistry());
+
+    @BeforeAll
+    static void createSchema() {
+        JdbcTemplate admin = new JdbcTemplate(new DriverManagerDataSource(URL, "postgres", "root"));
+        admin.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        admin.execute("CREATE SCHEMA " + SCHEMA);
+
+        dataSource = new DriverManagerDataSource(URL + "?currentSchema=" + SCHEMA, "postgres", "root");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE tasks (id BIGINT PRIMARY KEY, title VARCHAR(255), status VARCHAR(32), "
+                + "priority VARCHAR(32), due_date DATE, assigned_to_id BIGINT)");
+        jdbc.execute("CREATE TABLE task_tags (task_id BIGINT NOT NULL, tag VARCHAR(64) NOT NULL, PRIMARY KEY (task_id, tag))");
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @BeforeEach
+    void loadTasks() {
+        jdbc.execute("TRUNCATE tasks, task_tags");
+        insert(1, "delta", TaskStatus.TODO, TaskPriority.HIGH, 7L, "backend", "urgent");
+        insert(2, "alpha", TaskStatus.TODO, TaskPriority.LOW, 7L, "backend", "blocked");
+        insert(3, "charlie", TaskStatus.IN_PROGRESS, TaskPriority.HIGH, null, "backend", "critical");
+        insert(4, "bravo", TaskStatus.DONE, TaskPriority.MEDIUM, 8L, "frontend", "urgent");
+        insert(5, "echo", TaskStatus.TODO, TaskPriority.MEDIUM, null, "frontend");
+        insert(6, "foxtrot", TaskStatus.TODO, TaskPriority.HIGH, 8L, "backend");
+    }
+
+    @Test
+    void queriesBeforeTheFirstLoadAreRefused() {
+        assertThatThrownBy(() -> matches("backend"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("still loading");
+    }
+
+    @Test
+    void andOrNotCombineAsTheFilterSays() {
+        index.load();
+
+        assertThat(matches("backend,urgent|critical,-blocked")).containsExactly(1L, 3L);
+        assertThat(matches("backend,urgent")).containsExactly(1L);
+        assertThat(matches("urgent|critical")).containsExactly(1L, 3L, 4L);
+        assertThat(matches("backend -blocked")).containsExactly(1L, 3L, 6L);
+        assertThat(matches("-backend")).containsExactly(4L, 5L);
+        assertThat(matches("-urgent|critical")).containsExactly(2L, 5L, 6L);
+    }
+
+    @Test
+    void unknownTagsMatchNothingAndExcludeNothing() {
+        index.load();
+
+        assertThat(matches("nosuchtag")).isEmpty();
+        assertThat(matches("backend,nosuchtag")).isEmpty();
+        assertThat(matches("urgent|nosuchtag")).containsExactly(1L, 4L);
+        assertThat(matches("-nosuchtag")).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void statusAndPriorityNarrowTheTagMatch() {
+        index.load();
+
+        assertThat(matches("backend,-blocked", TaskStatus.TODO, null, null)).containsExactly(1L, 6L);
+        assertThat(matches("backend", null, TaskPriority.HIGH, null)).containsExactly(1L, 3L, 6L);
+        assertThat(matches("urgent", TaskStatus.DONE, TaskPriority.MEDIUM, null)).containsExactly(4L);
+        assertThat(matches("backend", TaskStatus.DONE, null, null)).isEmpty();
+    }
+
+    @Test
+    void unassignedTasksMatchOnlyWithoutAnAssigneeFilter() {
+        index.load();
+
+        assertThat(matches("backend", null, null, null)).containsExactly(1L, 2L, 3L, 6L);
+        assertThat(matches("backend", null, null, 7L)).containsExactly(1L, 2L);
+        assertThat(matches("backend", null, null, 8L)).containsExactly(6L);
+        assertThat(matches("backend", null, null, 99L)).isEmpty();
+        assertThat(index.counts(7L)).containsExactly(Map.entry("backend", 2L), Map.entry("blocked", 1L), Map.entry("urgent", 1L));
+    }
+
+    @Test
+    void assigningAndUnassigningMoveTheTaskBetweenAssignees() {
+        index.load();
+
+        changed(3, task(3, TaskStatus.IN_PROGRESS, TaskPriority.HIGH, null), task(3, TaskStatus.IN_PROGRESS, TaskPriority.HIGH, 7L));
+        changed(1, task(1, TaskStatus.TODO, TaskPriority.HIGH, 7L), task(1, TaskStatus.DONE, TaskPriority.HIGH, null));
+
+        assertThat(matches("backend", null, null, 7L)).containsExactly(2L, 3L);
+        assertThat(matches("backend", null, null, null)).containsExactly(1L, 2L, 3L, 6L);
+        assertThat(matches("backend", TaskStatus.DONE, null, null)).containsExactly(1L);
+        assertThat(matches("backend", TaskStatus.TODO, null, null)).containsExactly(2L, 6L);
+    }
+
+    @Test
+    void tagAndDeleteEventsKeepTheIndexCurrent() {
+        index.load();
+
+        index.onTagsChanged(new TaskTagsChangedEvent(2L, Set.of("backend", "blocked"), Set.of("backend", "urgent")));
+        assertThat(matches("urgent")).containsExactly(1L, 2L, 4L);
+        assertThat(matches("blocked")).isEmpty();
+
+        index.onTaskChanged(new TaskChangedEvent(TaskChangeType.DELETED, 1L, "test",
+                task(1, TaskStatus.TODO, TaskPriority.HIGH, 7L), null, Instant.now()));
+        assertThat(matches("urgent")).containsExactly(2L, 4L);
+        assertThat(matches("-nosuchtag")).containsExactly(2L, 3L, 4L, 5L, 6L);
+        assertThat(index.counts(null)).containsExactly(
+                Map.entry("backend", 3L), Map.entry("frontend", 2L), Map.entry("urgent", 2L), Map.entry("critical", 1L));
+    }
+
+    @Test
+    void aRefreshThatRacedALocalChangeIsDiscarded() {
+        index.load();
+
+        // Another node's insert is visible to the refresh, the local commit's tag is not
+        duringRefresh = () -> {
+            index.onTagsChanged(new TaskTagsChangedEvent(5L, Set.of("frontend"), Set.of("frontend", "urgent")));
+            insert(7, "golf", TaskStatus.TODO, TaskPriority.LOW, null, "backend");
+        };
+        index.refresh();
+
+        assertThat(matches("urgent")).containsExactly(1L, 4L, 5L);
+        assertThat(matches("backend")).containsExactly(1L, 2L, 3L, 6L);
+
+        // The next round has nothing racing it and brings both in
+        jdbc.update("INSERT INTO task_tags (task_id, tag) VALUES (5, 'urgent')");
+        index.refresh();
+
+        assertThat(matches("urgent")).containsExactly(1L, 4L, 5L);
+        assertThat(matches("backend")).containsExactly(1L, 2L, 3L, 6L, 7L);
+    }
+
+    @Test
+    void idOrderedPagesAreCutFromTheBitmap() {
+        Roaring64Bitmap ids = Roaring64Bitmap.bitmapOf(1, 2, 3, 4, 5, 6);
+
+        assertThat(index.page(ids, PageRequest.of(0, 4))).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(index.page(ids, PageRequest.of(1, 4))).containsExactly(5L, 6L);
+        assertThat(index.page(ids, PageRequest.of(2, 4))).isEmpty();
+        assertThat(index.page(ids, PageRequest.of(0, 6))).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(index.page(ids, PageRequest.of(5, 1))).containsExactly(6L);
+        assertThat(index.page(ids, PageRequest.of(6, 1))).isEmpty();
+
+        Sort newest = Sort.by(Sort.Direction.DESC, "id");
+        assertThat(index.page(ids, PageRequest.of(0, 4, newest))).containsExactly(6L, 5L, 4L, 3L);
+        assertThat(index.page(ids, PageRequest.of(1, 4, newest))).containsExactly(2L, 1L);
+        assertThat(index.page(ids, PageRequest.of(2, 4, newest))).isEmpty();
+        assertThat(index.page(ids, PageRequest.of(5, 1, newest))).containsExactly(1L);
+    }
+
+    @Test
+    void idOrderedPagesSkipGapsInSparseIds() {
+        Roaring64Bitmap ids = Roaring64Bitmap.bitmapOf(5, 1_000_000, 1L << 40, (1L << 40) + 1);
+
+        assertThat(index.page(ids, PageRequest.of(1, 2))).containsExactly(1L << 40, (1L << 40) + 1);
+        assertThat(index.page(ids, PageRequest.of(1, 1))).containsExactly(1_000_000L);
+        assertThat(index.page(ids, PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "id")))).containsExactly(5L);
+        assertThat(index.page(new Roaring64Bitmap(), PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void otherOrdersArePagedByPostgres() {
+        Roaring64Bitmap ids = Roaring64Bitmap.bitmapOf(1, 2, 3, 4, 5, 6);
+
+        // alpha 2, bravo 4, charlie 3, delta 1, echo 5, foxtrot 6
+        assertThat(index.page(ids, PageRequest.of(0, 4, Sort.by("title")))).containsExactly(2L, 4L, 3L, 1L);
+        assertThat(index.page(ids, PageRequest.of(1, 4, Sort.by("title")))).containsExactly(5L, 6L);
+        assertThat(index.page(ids, PageRequest.of(2, 4, Sort.by("title")))).isEmpty();
+        assertThat(index.page(ids, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "title")))).containsExactly(6L, 5L);
+
+        // Ties are broken by id; only ids in the bitmap are returned
+        assertThat(index.page(Roaring64Bitmap.bitmapOf(1, 3, 5, 6), PageRequest.of(0, 4, Sort.by("priority"))))
+                .containsExactly(1L, 3L, 6L, 5L);
+    }
+
+    @Test
+    void unknownSortPropertyIsRejected() {
+        assertThatThrownBy(() -> index.page(Roaring64Bitmap.bitmapOf(1, 2), PageRequest.of(0, 10, Sort.by("assignee"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'assignee'");
+    }
+
+    private List<Long> matches(String filter) {
+        return matches(filter, null, null, null);
+    }
+
+    private List<Long> matches(String filter, TaskStatus status, TaskPriority priority, Long assigneeId) {
+        List<Long> ids = new ArrayList<>();
+        index.evaluate(TagFilter.parse(filter), status, priority, assigneeId).forEach(ids::add);
+        return ids;
+    }
+
+    private void changed(long id, TaskDTO before, TaskDTO after) {
+        index.onTaskChanged(new TaskChangedEvent(TaskChangeType.UPDATED, id, "test", before, after, Instant.now()));
+    }
+
+    private static void insert(long id, String title, TaskStatus status, TaskPriority priority, Long assigneeId,
+                               String... tags) {
+        jdbc.update("INSERT INTO tasks (id, title, status, priority, assigned_to_id) VALUES (?, ?, ?, ?, ?)",
+                id, title, status.name(), priority.name(), assigneeId);
+        for (String tag : tags) jdbc.update("INSERT INTO task_tags (task_id, tag) VALUES (?, ?)", id, tag);
+    }
+
+    private static TaskDTO task(long id, TaskStatus status, TaskPriority priority, Long assigneeId) {
+        return new TaskDTO(id, "task " + id, null, status, priority, null, assigneeId, List.of());
+    }
+}